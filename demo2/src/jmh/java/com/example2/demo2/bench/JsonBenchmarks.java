@@ -0,0 +1,62 @@
+package com.example2.demo2.bench; // JMH benchmarks (compiled only with -Pbenchmark)
+
+import com.example2.demo2.dto.GradebookRowRes; // Projection rows
+import com.example2.demo2.model.Enrollment; // Serialized graph
+import com.example2.demo2.repo.EnrollmentRepository; // Loads the graphs once
+import com.fasterxml.jackson.core.JsonProcessingException; // Serialization failure
+import com.fasterxml.jackson.databind.ObjectMapper; // The application's configured mapper
+import org.openjdk.jmh.annotations.*; // JMH annotations
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter; // CBOR mapper
+
+import java.util.List; // Java List
+import java.util.concurrent.TimeUnit; // Output unit
+
+// Jackson serialization of Enrollment entity graphs (enrollment → student +
+// classroom) compared with the flat projection rows the endpoints now return, as
+// JSON and CBOR. Data is loaded once per trial, so only serialization is measured.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonBenchmarks {
+
+    @State(Scope.Benchmark)
+    public static class Graphs {
+        ObjectMapper mapper; // Same mapper the web layer uses
+        ObjectMapper cbor; // Mapper behind "Accept: application/cbor"
+        List<Enrollment> student; // One student's enrollments (4 rows)
+        List<Enrollment> roster; // One class's enrollments (enrollments / 100 rows)
+        List<GradebookRowRes> rosterRows; // Same class as projection rows
+
+        @Setup(Level.Trial)
+        public void load(SeededContext ctx) {
+            mapper = ctx.bean(ObjectMapper.class);
+            cbor = ctx.bean(MappingJackson2CborHttpMessageConverter.class).getObjectMapper();
+            EnrollmentRepository repo = ctx.bean(EnrollmentRepository.class);
+            student = repo.findByStudentId(1L);
+            roster = repo.findByClassroomId(1L);
+            rosterRows = repo.findGradebookByTeacherId(1L); // Teacher 1 owns class 1
+        }
+    }
+
+    @Benchmark
+    public byte[] studentEnrollments(Graphs g) throws JsonProcessingException { // Small response
+        return g.mapper.writeValueAsBytes(g.student);
+    }
+
+    @Benchmark
+    public byte[] classRoster(Graphs g) throws JsonProcessingException { // Large response
+        return g.mapper.writeValueAsBytes(g.roster);
+    }
+
+    @Benchmark
+    public byte[] classRosterRows(Graphs g) throws JsonProcessingException { // Large response, flat DTOs
+        return g.mapper.writeValueAsBytes(g.rosterRows);
+    }
+
+    @Benchmark
+    public byte[] classRosterRowsCbor(Graphs g) throws JsonProcessingException { // Large response, flat DTOs, CBOR
+        return g.cbor.writeValueAsBytes(g.rosterRows);
+    }
+}
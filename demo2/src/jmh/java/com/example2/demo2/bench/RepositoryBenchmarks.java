@@ -0,0 +1,29 @@
+package com.example2.demo2.bench; // JMH benchmarks (compiled only with -Pbenchmark)
+
+import com.example2.demo2.model.Enrollment; // Query result
+import com.example2.demo2.dto.StudentRes; // Query result
+import com.example2.demo2.repo.EnrollmentRepository; // Enrollment queries
+import com.example2.demo2.repo.StudentRepository; // Student queries
+import org.openjdk.jmh.annotations.*; // JMH annotations
+
+import java.util.List; // Java List
+import java.util.concurrent.TimeUnit; // Output unit
+
+// Read queries behind the teacher and student pages.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmarks {
+
+    @Benchmark
+    public List<StudentRes> findStudentsByTeacherId(SeededContext ctx) { // One class roster (enrollments / 100 rows)
+        return ctx.bean(StudentRepository.class).findStudentsByTeacherId(ctx.randomClassId());
+    }
+
+    @Benchmark
+    public List<Enrollment> findByStudentId(SeededContext ctx) { // One student's enrollments with class + student
+        return ctx.bean(EnrollmentRepository.class).findByStudentId(ctx.randomStudentId());
+    }
+}
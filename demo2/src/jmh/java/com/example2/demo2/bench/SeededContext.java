@@ -0,0 +1,121 @@
+package com.example2.demo2.bench; // JMH benchmarks (compiled only with -Pbenchmark)
+
+import com.example2.demo2.Demo2Application; // Application under test
+import org.openjdk.jmh.annotations.*; // JMH state/lifecycle annotations
+import org.springframework.boot.WebApplicationType; // No embedded server needed
+import org.springframework.boot.builder.SpringApplicationBuilder; // Programmatic startup
+import org.springframework.context.ConfigurableApplicationContext; // Running context
+import org.springframework.jdbc.core.JdbcTemplate; // Fast seeding
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder; // One real hash for seeded users
+
+import java.util.ArrayList; // Batch buffers
+import java.util.List; // Java List
+import java.util.concurrent.ThreadLocalRandom; // Per-thread random ids
+import java.util.concurrent.atomic.AtomicLong; // Unique emails for inserts
+
+// Full application context on an embedded H2 database, seeded with `enrollments`
+// enrollment rows. Every student takes CLASSES_PER_STUDENT of the CLASSES classes
+// and every class has one teacher, so ids can be derived without querying:
+// student i (0-based) is in classes (i + j * 25) % CLASSES for j = 0..3, and
+// teacher k owns class k.
+@State(Scope.Benchmark) // One seeded database per benchmark trial
+public class SeededContext {
+
+    static final int CLASSES = 100; // Classes (and teachers)
+    static final int CLASSES_PER_STUDENT = 4; // Enrollments per student
+    private static final int BATCH = 10_000; // Rows per JDBC batch while seeding
+
+    @Param({ "1000", "100000", "1000000" }) // Data sizes (override with -p enrollments=...)
+    public int enrollments;
+
+    int students; // enrollments / CLASSES_PER_STUDENT
+    private ConfigurableApplicationContext context; // Running application
+    private final AtomicLong emailSeq = new AtomicLong(); // Unique emails for createStudent
+
+    @Setup(Level.Trial)
+    public void start() { // Boot the app on a fresh H2 database and seed it
+        context = new SpringApplicationBuilder(Demo2Application.class)
+                .web(WebApplicationType.NONE) // Service/repository layer only
+                .logStartupInfo(false)
+                .run( // Command-line args outrank every application.properties on the classpath
+                        "--spring.datasource.url=jdbc:h2:mem:bench-" + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.hibernate.ddl-auto=validate", // Schema from the Flyway migrations
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.open-in-view=false",
+                        "--logging.level.root=WARN");
+        students = Math.max(1, enrollments / CLASSES_PER_STUDENT);
+        seed(context.getBean(JdbcTemplate.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() { // Drop the database with the context
+        context.close();
+    }
+
+    <T> T bean(Class<T> type) { // Look up a bean from the running context
+        return context.getBean(type);
+    }
+
+    long randomStudentId() { // Any seeded student
+        return ThreadLocalRandom.current().nextInt(students) + 1;
+    }
+
+    long randomClassId() { // Any class (= its teacher's id)
+        return ThreadLocalRandom.current().nextInt(CLASSES) + 1;
+    }
+
+    long[] randomEnrollment() { // {classId, studentId} of an existing enrollment
+        ThreadLocalRandom r = ThreadLocalRandom.current();
+        int student = r.nextInt(students);
+        int clazz = classOf(student, r.nextInt(CLASSES_PER_STUDENT));
+        return new long[] { clazz + 1, student + 1 };
+    }
+
+    String uniqueEmail() { // Never collides with seeded or earlier inserted students
+        return "bench-" + emailSeq.incrementAndGet() + "@example.com";
+    }
+
+    private static int classOf(int student, int j) { // j-th class of a student (0-based)
+        return (student + j * (CLASSES / CLASSES_PER_STUDENT)) % CLASSES;
+    }
+
+    private void seed(JdbcTemplate jdbc) { // Ids are assigned 1..n in insertion order on a fresh database
+        // Everything belongs to school 1, the default school of requests without X-School-Id
+        String hash = new BCryptPasswordEncoder().encode("password"); // Same valid hash for every user
+        List<Object[]> rows = new ArrayList<>(BATCH);
+        for (int c = 0; c < CLASSES; c++)
+            rows.add(new Object[] { "Class " + (c + 1) });
+        flush(jdbc, "insert into classes (name, school_id) values (?, 1)", rows);
+        for (int c = 0; c < CLASSES; c++)
+            rows.add(new Object[] { "Teacher " + (c + 1), "teacher" + (c + 1) + "@example.com", hash, c + 1 });
+        flush(jdbc, "insert into teachers (name, email, role, password, class_id, school_id) values (?, ?, 'TEACHER', ?, ?, 1)", rows);
+
+        String insertStudent = "insert into students (name, email, role, password, school_id) values (?, ?, 'STUDENT', ?, 1)";
+        for (int s = 0; s < students; s++) {
+            rows.add(new Object[] { "Student " + (s + 1), "student" + (s + 1) + "@example.com", hash });
+            if (rows.size() == BATCH)
+                flush(jdbc, insertStudent, rows);
+        }
+        flush(jdbc, insertStudent, rows);
+
+        String insertEnrollment = "insert into enrollments (student_id, class_id, mark, school_id) values (?, ?, ?, 1)";
+        ThreadLocalRandom r = ThreadLocalRandom.current();
+        for (int s = 0; s < students; s++) {
+            for (int j = 0; j < CLASSES_PER_STUDENT; j++) {
+                rows.add(new Object[] { s + 1, classOf(s, j) + 1, String.valueOf(r.nextInt(101)) });
+                if (rows.size() == BATCH)
+                    flush(jdbc, insertEnrollment, rows);
+            }
+        }
+        flush(jdbc, insertEnrollment, rows);
+    }
+
+    private static void flush(JdbcTemplate jdbc, String sql, List<Object[]> rows) { // One batch, then reuse the buffer
+        if (!rows.isEmpty())
+            jdbc.batchUpdate(sql, rows);
+        rows.clear();
+    }
+}
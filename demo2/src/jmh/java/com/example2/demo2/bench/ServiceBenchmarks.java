@@ -0,0 +1,34 @@
+package com.example2.demo2.bench; // JMH benchmarks (compiled only with -Pbenchmark)
+
+import com.example2.demo2.dto.CreateStudentReq; // createStudent payload
+import com.example2.demo2.dto.EnrollmentRes; // setMark result
+import com.example2.demo2.dto.MarkUpdateReq; // setMark payload
+import com.example2.demo2.dto.StudentRes; // createStudent result
+import com.example2.demo2.service.AdminService; // Admin write path
+import com.example2.demo2.service.TeacherService; // Teacher write path
+import org.openjdk.jmh.annotations.*; // JMH annotations
+
+import java.util.concurrent.ThreadLocalRandom; // Random marks
+import java.util.concurrent.TimeUnit; // Output unit
+
+// Write paths through the transactional service layer.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmarks {
+
+    @Benchmark
+    public StudentRes createStudent(SeededContext ctx) { // Includes the BCrypt encode of the password
+        return ctx.bean(AdminService.class)
+                .createStudent(new CreateStudentReq("Bench Student", ctx.uniqueEmail(), "password"));
+    }
+
+    @Benchmark
+    public EnrollmentRes setMark(SeededContext ctx) { // Projection read of mark + version, then one compare-and-set UPDATE
+        long[] e = ctx.randomEnrollment(); // {classId, studentId}; teacher id == class id
+        String mark = String.valueOf(ThreadLocalRandom.current().nextInt(101));
+        return ctx.bean(TeacherService.class).setMark(e[0], e[0], e[1], new MarkUpdateReq(mark), null);
+    }
+}
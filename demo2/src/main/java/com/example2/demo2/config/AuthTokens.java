@@ -0,0 +1,164 @@
+package com.example2.demo2.config; // Configuration and infrastructure
+
+import com.github.benmanes.caffeine.cache.Cache; // Verified tokens, revoked teachers
+import com.github.benmanes.caffeine.cache.Caffeine; // Cache builder
+import org.slf4j.Logger; // Logging API
+import org.slf4j.LoggerFactory; // Logger factory
+import org.springframework.beans.factory.annotation.Value; // Inject settings from application.properties
+import org.springframework.stereotype.Component; // Marks as Spring component
+
+import javax.crypto.Mac; // HMAC-SHA256
+import javax.crypto.spec.SecretKeySpec; // Signing key
+import java.nio.ByteBuffer; // Fixed-layout payload
+import java.nio.charset.StandardCharsets; // Secret bytes
+import java.security.GeneralSecurityException; // Missing JCA algorithm
+import java.security.MessageDigest; // Constant-time compare
+import java.security.SecureRandom; // Per-process secret when none is configured
+import java.time.Duration; // Token lifetime
+import java.util.Base64; // URL-safe token text
+
+// Signed bearer tokens issued at login (AuthService) and checked by TokenInterceptor.
+// A token is base64url(payload) "." base64url(HMAC-SHA256(payload)); the payload
+// carries the role, user id, the teacher's class, the school and the issue/expiry
+// times, so checking a request needs no database access. Tokens already verified
+// are kept in a bounded cache, which makes a repeat check one map lookup.
+//
+// A token stays valid until it expires (app.auth.token-ttl-minutes). The only
+// exception is a teacher whose class changes or who is deleted: revokeTeacher
+// rejects that teacher's older tokens in this process, so the next request
+// needs a new login.
+@Component // Register as a Spring bean
+public class AuthTokens {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthTokens.class);
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final byte VERSION = 1; // First payload byte; bump when the layout changes
+    private static final int PAYLOAD_BYTES = 2 + 5 * Long.BYTES; // version, role, user, class, school, issued, expires
+    private static final String[] ROLES = { "STUDENT", "TEACHER", "ADMIN" }; // Role codes in the payload
+
+    // What a valid token says about its bearer. classId is null for non-teachers.
+    public record Claims(String role, long userId, Long classId, long schoolId, long issuedAtMillis,
+            long expiresAtMillis) {}
+
+    private final SecretKeySpec key; // Signing key
+    private final ThreadLocal<Mac> macs; // Mac instances are not thread-safe
+    private final SchoolContext schools; // School a token is issued for
+    private final long ttlMillis; // Token lifetime
+    private final Cache<String, Claims> verified; // Token text → claims, signature already checked
+    private final Cache<Long, Long> revokedTeachers; // Teacher id → tokens issued up to this time are void
+
+    public AuthTokens(SchoolContext schools,
+            @Value("${app.auth.token-secret:}") String secret,
+            @Value("${app.auth.token-ttl-minutes:60}") long ttlMinutes,
+            @Value("${app.auth.token-cache-size:100000}") long cacheSize) {
+        this.schools = schools;
+        this.ttlMillis = Duration.ofMinutes(ttlMinutes).toMillis();
+        byte[] keyBytes;
+        if (secret.isBlank()) { // Fine for one instance; tokens die with the process
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+            log.warn("app.auth.token-secret is not set: using a random key, tokens will not survive a restart "
+                    + "or work across instances");
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+            if (keyBytes.length < 32)
+                log.warn("app.auth.token-secret is shorter than 32 bytes");
+        }
+        this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMillis)) // No entry outlives its token
+                .build();
+        this.revokedTeachers = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(ttlMillis)) // Older tokens have expired by then anyway
+                .build();
+    }
+
+    public String issue(String role, long userId, Long classId) { // Token for the current school
+        long now = System.currentTimeMillis();
+        ByteBuffer payload = ByteBuffer.allocate(PAYLOAD_BYTES)
+                .put(VERSION)
+                .put(roleCode(role))
+                .putLong(userId)
+                .putLong(classId == null ? 0 : classId)
+                .putLong(schools.currentSchoolId())
+                .putLong(now)
+                .putLong(now + ttlMillis);
+        Base64.Encoder b64 = Base64.getUrlEncoder().withoutPadding();
+        return b64.encodeToString(payload.array()) + "." + b64.encodeToString(sign(payload.array()));
+    }
+
+    // Claims of a genuine, unexpired, unrevoked token; null for anything else.
+    public Claims verify(String token) {
+        if (token == null || token.isEmpty() || token.length() > 256)
+            return null;
+        Claims c = verified.getIfPresent(token); // Repeat visitor: signature checked before
+        if (c == null) {
+            c = decode(token);
+            if (c == null)
+                return null; // Forged or malformed: never cached
+            verified.put(token, c);
+        }
+        if (c.expiresAtMillis() <= System.currentTimeMillis())
+            return null;
+        if (c.role().equals("TEACHER")) {
+            Long cutoff = revokedTeachers.getIfPresent(c.userId());
+            if (cutoff != null && c.issuedAtMillis() <= cutoff)
+                return null;
+        }
+        return c;
+    }
+
+    public void revokeTeacher(Long teacherId) { // Class changed or teacher deleted: existing tokens stop working
+        revokedTeachers.put(teacherId, System.currentTimeMillis());
+    }
+
+    private Claims decode(String token) { // Check the signature, then read the payload
+        int dot = token.indexOf('.');
+        if (dot < 0)
+            return null;
+        byte[] payload, signature;
+        try {
+            Base64.Decoder b64 = Base64.getUrlDecoder();
+            payload = b64.decode(token.substring(0, dot));
+            signature = b64.decode(token.substring(dot + 1));
+        } catch (IllegalArgumentException ex) {
+            return null; // Not base64url
+        }
+        if (payload.length != PAYLOAD_BYTES || !MessageDigest.isEqual(sign(payload), signature))
+            return null;
+        ByteBuffer in = ByteBuffer.wrap(payload);
+        if (in.get() != VERSION)
+            return null;
+        int role = in.get();
+        if (role < 0 || role >= ROLES.length)
+            return null;
+        long userId = in.getLong();
+        long classId = in.getLong();
+        return new Claims(ROLES[role], userId, classId == 0 ? null : classId, in.getLong(), in.getLong(),
+                in.getLong());
+    }
+
+    private byte[] sign(byte[] payload) {
+        return macs.get().doFinal(payload); // doFinal also resets the Mac for the next call
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", ex);
+        }
+    }
+
+    private static byte roleCode(String role) {
+        for (byte i = 0; i < ROLES.length; i++)
+            if (ROLES[i].equals(role))
+                return i;
+        throw new IllegalArgumentException("Unknown role " + role);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example2.demo2.config;
+
+// Names of the Spring caches configured in application.properties (spring.cache.cache-names).
+public final class CacheNames {
+    public static final String CLASSES = "classes"; // Full class list (GET /admin/classes)
+    public static final String CLASSROOMS = "classrooms"; // Classroom by id
+    public static final String TEACHER_CLASS = "teacherClass"; // Teacher id -> owned class id
+
+    private CacheNames() {
+    }
+}
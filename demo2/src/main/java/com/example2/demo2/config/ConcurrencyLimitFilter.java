@@ -0,0 +1,82 @@
+package com.example2.demo2.config; // Configuration and infrastructure
+
+import jakarta.servlet.FilterChain; // Rest of the chain
+import jakarta.servlet.ServletException; // Servlet failure
+import jakarta.servlet.http.HttpServletRequest; // Current request
+import jakarta.servlet.http.HttpServletResponse; // Current response
+import org.springframework.beans.factory.annotation.Value; // Inject settings from application.properties
+import org.springframework.core.Ordered; // Filter order
+import org.springframework.core.annotation.Order; // Run before any database work
+import org.springframework.http.HttpHeaders; // Retry-After
+import org.springframework.stereotype.Component; // Marks as Spring component
+import org.springframework.web.filter.OncePerRequestFilter; // One pass per dispatch
+import org.springframework.web.util.UrlPathHelper; // Decoded path, ";" parameters removed
+
+import java.io.IOException; // Servlet I/O
+
+// Sheds load before it reaches the worker and connection pools. Requests of the
+// limited endpoint groups take a slot from ConcurrencyLimits; when their group
+// is at its limit they are refused at once with 503 and Retry-After, instead of
+// queueing until everybody times out. The groups:
+//   STUDENT_READS   GET /students/** (event streams excluded)   high priority
+//   TEACHER_WRITES  non-GET /teachers/**                        normal priority
+//   ADMIN_WRITES    non-GET /admin/** (bulk edits, imports)     low priority
+// Other requests are not limited. A request's latency and outcome (5xx or an
+// exception counts as failed) feed its group's limit. Groups are chosen on the
+// decoded path with ";" parameters removed, the same path Spring MVC maps to a
+// handler, so /%73tudents/1/marks or /students;x/1/marks are limited too.
+@Component // Register as a servlet filter
+@Order(Ordered.HIGHEST_PRECEDENCE + 30) // After SchoolFilter
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final ConcurrencyLimits limits; // Per-group adaptive limits
+    private final boolean enabled; // Off = no limiting at all
+    private final String retryAfter; // Seconds, sent with every 503
+
+    public ConcurrencyLimitFilter(ConcurrencyLimits limits,
+            @Value("${app.limits.enabled:true}") boolean enabled,
+            @Value("${app.limits.retry-after-seconds:1}") int retryAfterSeconds) {
+        this.limits = limits;
+        this.enabled = enabled;
+        this.retryAfter = String.valueOf(Math.max(1, retryAfterSeconds));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || group(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ConcurrencyLimits.Group group = group(request);
+        if (!limits.tryAcquire(group)) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Server is busy, retry shortly");
+            return;
+        }
+        long start = System.nanoTime();
+        boolean failed = true; // Stays true when the chain throws
+        try {
+            chain.doFilter(request, response);
+            failed = response.getStatus() >= 500;
+        } finally {
+            limits.release(group, System.nanoTime() - start, failed);
+        }
+    }
+
+    private static ConcurrencyLimits.Group group(HttpServletRequest request) { // Limited group, or null
+        String path = UrlPathHelper.defaultInstance.getPathWithinApplication(request);
+        boolean read = switch (request.getMethod()) {
+            case "GET", "HEAD", "OPTIONS" -> true;
+            default -> false;
+        };
+        if (path.startsWith("/students/"))
+            return read && !path.endsWith("/events") ? ConcurrencyLimits.Group.STUDENT_READS : null;
+        if (path.startsWith("/teachers/"))
+            return read ? null : ConcurrencyLimits.Group.TEACHER_WRITES;
+        if (path.startsWith("/admin/"))
+            return read ? null : ConcurrencyLimits.Group.ADMIN_WRITES;
+        return null;
+    }
+}
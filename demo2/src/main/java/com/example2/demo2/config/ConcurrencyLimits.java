@@ -0,0 +1,178 @@
+package com.example2.demo2.config; // Configuration and infrastructure
+
+import com.example2.demo2.dto.LimitStatsRes; // Limit snapshot per group
+import io.micrometer.core.instrument.Counter; // Rejected requests
+import io.micrometer.core.instrument.Gauge; // Current limit / in-flight
+import io.micrometer.core.instrument.MeterRegistry; // Micrometer registry (exposed by Actuator)
+import org.springframework.beans.factory.annotation.Value; // Inject settings from application.properties
+import org.springframework.stereotype.Component; // Marks as Spring component
+
+import java.util.Arrays; // Stats over all groups
+import java.util.EnumMap; // Group → limit
+import java.util.List; // Java List
+import java.util.Locale; // Metric tag values
+import java.util.Map; // Java Map
+import java.util.concurrent.TimeUnit; // Window length
+import java.util.concurrent.atomic.AtomicInteger; // In-flight count
+
+// Adaptive concurrency limits for the endpoint groups that pile up under load
+// (ConcurrencyLimitFilter maps requests to groups). Each group admits at most
+// "limit" requests at a time; the limit follows the group's latency (AIMD):
+// every window it grows by one while latency stays near its baseline and the
+// limit is actually used, and shrinks by the group's backoff factor when
+// latency rises past baseline × tolerance or requests fail. The baseline is the
+// lowest recent window average, drifting slowly upwards so a permanently slower
+// database becomes the new normal.
+//
+// Groups have priorities. Lower ones back off harder and sooner, and also back
+// off whenever a higher-priority group had to turn requests away in the last
+// window, so under overload admin bulk edits give way to teachers' marks, and
+// both give way to student reads.
+@Component // Register as a Spring bean
+public class ConcurrencyLimits {
+
+    public enum Priority {
+        HIGH(0.9, 2.0), NORMAL(0.8, 1.75), LOW(0.5, 1.5);
+
+        final double backoff; // Limit multiplier on overload
+        final double tolerance; // Window latency / baseline that counts as overload
+
+        Priority(double backoff, double tolerance) {
+            this.backoff = backoff;
+            this.tolerance = tolerance;
+        }
+    }
+
+    public enum Group {
+        STUDENT_READS(Priority.HIGH), TEACHER_WRITES(Priority.NORMAL), ADMIN_WRITES(Priority.LOW);
+
+        final Priority priority;
+
+        Group(Priority priority) {
+            this.priority = priority;
+        }
+    }
+
+    private static final int MIN_SAMPLES = 10; // Completions needed before a window counts
+    private static final double BASELINE_DRIFT = 0.01; // Share of the gap the baseline moves up per window
+
+    private final Map<Group, Limit> limits = new EnumMap<>(Group.class); // One limiter per group
+    private final long windowNanos; // Adjustment interval
+
+    public ConcurrencyLimits(MeterRegistry registry,
+            @Value("${app.limits.initial-limit:20}") int initialLimit,
+            @Value("${app.limits.min-limit:2}") int minLimit,
+            @Value("${app.limits.max-limit:200}") int maxLimit,
+            @Value("${app.limits.window-ms:250}") long windowMs) {
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(10, windowMs));
+        int min = Math.max(1, minLimit);
+        int max = Math.max(min, maxLimit);
+        for (Group g : Group.values()) {
+            Limit l = new Limit(g, Math.min(max, Math.max(min, initialLimit)), min, max);
+            limits.put(g, l);
+            String tag = g.name().toLowerCase(Locale.ROOT);
+            Gauge.builder("app.limits.limit", l, x -> x.limit)
+                    .description("Current concurrency limit of the endpoint group")
+                    .tag("group", tag).register(registry);
+            Gauge.builder("app.limits.in_flight", l, x -> x.inFlight.get())
+                    .description("Requests of the endpoint group being served")
+                    .tag("group", tag).register(registry);
+            l.rejected = Counter.builder("app.limits.rejected")
+                    .description("Requests refused with 503 because the endpoint group was at its limit")
+                    .tag("group", tag).register(registry);
+        }
+    }
+
+    public boolean tryAcquire(Group group) { // Take a slot, or count a rejection
+        Limit l = limits.get(group);
+        for (;;) {
+            int n = l.inFlight.get();
+            if (n >= l.limit) {
+                l.rejected.increment();
+                l.lastRejectNanos = System.nanoTime();
+                return false;
+            }
+            if (l.inFlight.compareAndSet(n, n + 1))
+                return true;
+        }
+    }
+
+    public void release(Group group, long latencyNanos, boolean failed) { // Give the slot back with its outcome
+        Limit l = limits.get(group);
+        int before = l.inFlight.getAndDecrement();
+        l.sample(latencyNanos, before, failed || higherPriorityShedding(group));
+    }
+
+    public List<LimitStatsRes> stats() { // Current limits for GET /admin/limits
+        return Arrays.stream(Group.values())
+                .map(g -> {
+                    Limit l = limits.get(g);
+                    return new LimitStatsRes(g.name(), g.priority.name(), l.limit, l.inFlight.get(),
+                            (long) l.rejected.count());
+                })
+                .toList();
+    }
+
+    private boolean higherPriorityShedding(Group group) { // A more important group turned requests away just now
+        long now = System.nanoTime();
+        for (Group g : Group.values()) {
+            if (g.priority.ordinal() >= group.priority.ordinal())
+                continue;
+            long last = limits.get(g).lastRejectNanos;
+            if (last != 0 && now - last < windowNanos)
+                return true;
+        }
+        return false;
+    }
+
+    // AIMD limiter of one group.
+    private final class Limit {
+        final Group group;
+        final int min;
+        final int max;
+        final AtomicInteger inFlight = new AtomicInteger(); // Admitted and not yet finished
+        volatile int limit; // Current admission limit
+        volatile long lastRejectNanos; // Last refusal (0 = never)
+        Counter rejected; // Refusals (set once in the constructor)
+
+        // Current window (guarded by this)
+        private long windowStart = System.nanoTime();
+        private long latencySum;
+        private int samples;
+        private int peakInFlight;
+        private boolean overloaded;
+        private double baseline = Double.NaN; // Lowest recent window average (ns)
+
+        Limit(Group group, int initial, int min, int max) {
+            this.group = group;
+            this.limit = initial;
+            this.min = min;
+            this.max = max;
+        }
+
+        synchronized void sample(long latencyNanos, int inFlightBefore, boolean failed) {
+            latencySum += latencyNanos;
+            samples++;
+            peakInFlight = Math.max(peakInFlight, inFlightBefore);
+            overloaded |= failed;
+            long now = System.nanoTime();
+            if (samples < MIN_SAMPLES || now - windowStart < windowNanos)
+                return;
+            double avg = (double) latencySum / samples;
+            if (Double.isNaN(baseline) || avg < baseline)
+                baseline = avg;
+            else
+                baseline += (avg - baseline) * BASELINE_DRIFT;
+            Priority p = group.priority;
+            if (overloaded || avg > baseline * p.tolerance)
+                limit = Math.max(min, (int) (limit * p.backoff)); // Multiplicative decrease
+            else if (peakInFlight * 2 >= limit)
+                limit = Math.min(max, limit + 1); // Additive increase, only while the limit is in use
+            windowStart = now;
+            latencySum = 0;
+            samples = 0;
+            peakInFlight = 0;
+            overloaded = false;
+        }
+    }
+}
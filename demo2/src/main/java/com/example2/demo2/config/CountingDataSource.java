@@ -0,0 +1,131 @@
+package com.example2.demo2.config; // Configuration and infrastructure
+
+import org.springframework.jdbc.datasource.DelegatingDataSource; // Pass-through DataSource base
+
+import javax.sql.DataSource; // Wrapped pool
+import java.lang.reflect.InvocationHandler; // Dynamic proxy handler
+import java.lang.reflect.InvocationTargetException; // Unwrap JDBC exceptions
+import java.lang.reflect.Method; // Intercepted method
+import java.lang.reflect.Proxy; // JDK dynamic proxies
+import java.sql.Connection; // Proxied type
+import java.sql.ResultSet; // Proxied type
+import java.sql.SQLException; // JDBC failures
+import java.sql.Statement; // Proxied type
+
+// DataSource wrapper that reports every statement (with its duration and changed
+// rows) and every row read to SqlMetrics. Sits below both Hibernate and
+// JdbcTemplate, so ORM queries and batch imports are counted the same way.
+public class CountingDataSource extends DelegatingDataSource {
+
+    private final SqlMetrics metrics; // Where counts go
+
+    public CountingDataSource(DataSource target, SqlMetrics metrics) {
+        super(target);
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Connection c = super.getConnection();
+        return proxy(Connection.class, c, new ConnectionHandler(c));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Connection c = super.getConnection(username, password);
+        return proxy(Connection.class, c, new ConnectionHandler(c));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Object target, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(CountingDataSource.class.getClassLoader(), new Class<?>[] { type }, handler);
+    }
+
+    private static Object call(Object target, Method m, Object[] args) throws Throwable {
+        try {
+            return m.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getCause(); // Surface the original SQLException
+        }
+    }
+
+    // Wraps statements so their executions are seen.
+    private final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method m, Object[] args) throws Throwable {
+            Object result = call(target, m, args);
+            if (result instanceof Statement st && m.getReturnType().isInterface()) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                return proxy(m.getReturnType(), st, new StatementHandler(st, sql)); // Statement/Prepared/Callable
+            }
+            return result;
+        }
+    }
+
+    // Times execute* calls and wraps their result sets.
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final String sql; // Prepared SQL (null for plain statements)
+
+        StatementHandler(Statement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method m, Object[] args) throws Throwable {
+            String name = m.getName();
+            if (!name.startsWith("execute")) {
+                Object result = call(target, m, args);
+                return name.equals("getResultSet") && result instanceof ResultSet rs ? rows(rs) : result;
+            }
+            long start = System.nanoTime();
+            Object result = call(target, m, args);
+            String text = args != null && args.length > 0 && args[0] instanceof String s ? s : sql;
+            metrics.executed(text, System.nanoTime() - start, changed(result));
+            return result instanceof ResultSet rs ? rows(rs) : result;
+        }
+
+        private ResultSet rows(ResultSet rs) {
+            return proxy(ResultSet.class, rs, new ResultSetHandler(rs));
+        }
+
+        private static long changed(Object result) { // Update counts (negative = unknown)
+            if (result instanceof Integer n)
+                return Math.max(0, n);
+            if (result instanceof Long n)
+                return Math.max(0, n);
+            long sum = 0;
+            if (result instanceof int[] counts)
+                for (int n : counts)
+                    sum += Math.max(0, n);
+            if (result instanceof long[] counts)
+                for (long n : counts)
+                    sum += Math.max(0, n);
+            return sum;
+        }
+    }
+
+    // Counts rows as they are read.
+    private final class ResultSetHandler implements InvocationHandler {
+        private final ResultSet target;
+
+        ResultSetHandler(ResultSet target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method m, Object[] args) throws Throwable {
+            Object result = call(target, m, args);
+            if (result == Boolean.TRUE && m.getName().equals("next"))
+                metrics.rows(1);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example2.demo2.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private final RequestMetricsInterceptor requestMetrics;
+
+    public MetricsConfig(RequestMetricsInterceptor requestMetrics) {
+        this.requestMetrics = requestMetrics;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(requestMetrics); // Latency + SQL counts for every handler
+    }
+
+    @Bean
+    public static BeanPostProcessor countingDataSourcePostProcessor(ObjectProvider<SqlMetrics> metrics) {
+        return new BeanPostProcessor() { // Wrap the pool so every statement is counted
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource ds && !(bean instanceof CountingDataSource))
+                    return new CountingDataSource(ds, metrics.getObject());
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,65 @@
+package com.example2.demo2.config; // Configuration and infrastructure
+
+import org.springframework.beans.factory.ObjectProvider; // Lazy lookup from a static post-processor
+import org.springframework.beans.factory.config.BeanPostProcessor; // Wraps the primary pool
+import org.springframework.context.annotation.Bean; // Bean factory methods
+import org.springframework.context.annotation.Configuration; // Configuration class
+import org.springframework.core.Ordered; // Wrap before the statement counter does
+import org.springframework.jdbc.datasource.DelegatingDataSource; // Primary fallback
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy; // Routes on Connection.setReadOnly
+
+import javax.sql.DataSource; // Primary pool
+import java.sql.Connection; // Routed connection
+import java.sql.SQLException; // JDBC failures
+
+// Sends read-only transactions to the read replicas (ReadReplicas) when any are
+// configured. The primary pool is wrapped in a LazyConnectionDataSourceProxy: a
+// transaction's physical connection is only taken at its first statement, by which
+// time Spring has marked a @Transactional(readOnly = true) transaction's connection
+// read-only (and set Hibernate's flush mode to MANUAL), so the proxy can pick the
+// replica side. Everything else - writes, Flyway, non-read-only transactions - uses
+// the primary as before.
+@Configuration
+public class ReadReplicaConfig {
+
+    // Declared with its own type: Spring sorts post-processors by the bean method's
+    // return type, and a plain BeanPostProcessor would not be seen as Ordered.
+    @Bean
+    static RoutingPostProcessor readReplicaRoutingPostProcessor(ObjectProvider<ReadReplicas> replicas) {
+        return new RoutingPostProcessor(replicas);
+    }
+
+    // Ordered, so it runs before the (unordered) CountingDataSource wrapper: statements
+    // on replica connections are then counted like any other.
+    static final class RoutingPostProcessor implements BeanPostProcessor, Ordered {
+        private final ObjectProvider<ReadReplicas> replicas;
+
+        RoutingPostProcessor(ObjectProvider<ReadReplicas> replicas) {
+            this.replicas = replicas;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource primary) || bean instanceof LazyConnectionDataSourceProxy
+                    || bean instanceof CountingDataSource)
+                return bean;
+            ReadReplicas r = replicas.getObject();
+            if (r.isEmpty())
+                return bean; // No replicas: leave the pool untouched
+            LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(primary);
+            routing.setReadOnlyDataSource(new DelegatingDataSource(primary) {
+                @Override
+                public Connection getConnection() throws SQLException { // Replica, else the primary
+                    Connection c = r.connection();
+                    return c != null ? c : super.getConnection();
+                }
+            });
+            return routing;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.example2.demo2.config; // Configuration and infrastructure
+
+import com.zaxxer.hikari.HikariConfig; // Replica pool settings
+import com.zaxxer.hikari.HikariDataSource; // One pool per replica
+import io.micrometer.core.instrument.Counter; // Reads sent back to the primary
+import io.micrometer.core.instrument.Gauge; // Lag per replica
+import io.micrometer.core.instrument.MeterRegistry; // Micrometer registry (exposed by Actuator)
+import jakarta.annotation.PreDestroy; // Close pools on shutdown
+import org.slf4j.Logger; // Logging API
+import org.slf4j.LoggerFactory; // Logger factory
+import org.springframework.beans.factory.annotation.Value; // Inject settings from application.properties
+import org.springframework.stereotype.Component; // Marks as Spring component
+
+import java.sql.Connection; // Pooled replica connection
+import java.sql.ResultSet; // Lag query result
+import java.sql.SQLException; // JDBC failures
+import java.sql.Statement; // Lag query
+import java.util.ArrayList; // Replica list
+import java.util.Arrays; // URL list parsing
+import java.util.List; // Java List
+import java.util.concurrent.Executors; // Checker thread
+import java.util.concurrent.ScheduledExecutorService; // Periodic lag checks
+import java.util.concurrent.TimeUnit; // Check interval
+import java.util.concurrent.atomic.AtomicInteger; // Round-robin position
+import java.util.function.Supplier; // Work that must read the primary
+
+// Read replicas behind read-only transactions. ReadReplicaConfig routes every
+// connection of a @Transactional(readOnly = true) transaction here; connections come
+// from the replicas in turn, skipping any that is unreachable or more than
+// app.datasource.replicas.max-lag-seconds behind. With no usable replica (or none
+// configured) the read goes to the primary. Lag is measured every check interval
+// with app.datasource.replicas.lag-query; a replica is unused until its first check.
+//
+// Read-only therefore means "may be up to max-lag-seconds stale". Reads whose result
+// outlives the request (cache fills, in-memory indexes, ETagged responses, versions a
+// client will send back with a write) run inside callOnPrimary instead.
+@Component // Register as a Spring bean
+public class ReadReplicas {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadReplicas.class);
+
+    private static final ThreadLocal<Boolean> PRIMARY = new ThreadLocal<>(); // Set while callOnPrimary runs
+
+    // One replica pool and its last measured state.
+    private static final class Replica {
+        final String name; // Pool name (metrics tag, logs)
+        final HikariDataSource pool; // Connections to this replica
+        volatile boolean usable; // Reachable and within the lag limit at the last check
+        volatile double lagSeconds = Double.NaN; // Last measured lag (NaN = unknown)
+
+        Replica(String name, HikariDataSource pool) {
+            this.name = name;
+            this.pool = pool;
+        }
+    }
+
+    private final List<Replica> replicas = new ArrayList<>(); // Configured replicas, in property order
+    private final AtomicInteger next = new AtomicInteger(); // Round-robin position
+    private final String lagQuery; // Returns the lag in seconds
+    private final long maxLagSeconds; // Beyond this a replica is skipped
+    private final Counter fallbacks; // Read-only connections served by the primary
+    private final ScheduledExecutorService checker; // Lag checks (null without replicas)
+
+    public ReadReplicas(MeterRegistry registry,
+            @Value("${app.datasource.replicas.urls:}") String urls,
+            @Value("${app.datasource.replicas.username:${spring.datasource.username:}}") String username,
+            @Value("${app.datasource.replicas.password:${spring.datasource.password:}}") String password,
+            @Value("${app.datasource.replicas.pool-size:10}") int poolSize,
+            @Value("${app.datasource.replicas.max-lag-seconds:5}") long maxLagSeconds,
+            @Value("${app.datasource.replicas.check-interval-ms:2000}") long checkIntervalMs,
+            @Value("${app.datasource.replicas.lag-query:SHOW REPLICA STATUS}") String lagQuery) {
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLagSeconds;
+        List<String> list = Arrays.stream(urls.split(",")).map(String::trim).filter(u -> !u.isEmpty()).toList();
+        for (int i = 0; i < list.size(); i++) {
+            HikariConfig cfg = new HikariConfig();
+            cfg.setPoolName("replica-" + (i + 1));
+            cfg.setJdbcUrl(list.get(i));
+            cfg.setUsername(username);
+            cfg.setPassword(password);
+            cfg.setMaximumPoolSize(Math.max(1, poolSize));
+            cfg.setReadOnly(true); // Replica connections never write
+            cfg.setConnectionTimeout(2000); // A saturated replica falls back to the primary quickly
+            cfg.setInitializationFailTimeout(-1); // Start even when a replica is down; the checker finds out
+            Replica r = new Replica(cfg.getPoolName(), new HikariDataSource(cfg));
+            replicas.add(r);
+            Gauge.builder("app.datasource.replica.lag", r, x -> x.lagSeconds)
+                    .description("Seconds the replica is behind the primary (NaN = unknown)")
+                    .tag("replica", r.name).register(registry);
+        }
+        this.fallbacks = Counter.builder("app.datasource.replica.fallbacks")
+                .description("Read-only connections served by the primary because no replica was usable")
+                .register(registry);
+        if (replicas.isEmpty()) {
+            this.checker = null;
+            return;
+        }
+        this.checker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "replica-lag");
+            t.setDaemon(true); // Never block JVM shutdown
+            return t;
+        });
+        checker.scheduleWithFixedDelay(this::check, 0, Math.max(100, checkIntervalMs), TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isEmpty() { // No replicas configured: read-only transactions stay on the primary
+        return replicas.isEmpty();
+    }
+
+    // Runs work with every connection it opens taken from the primary, also in read-only
+    // transactions. Connections are opened at the first statement, so this covers a
+    // read-only transaction whose first statement runs inside work.
+    public static <T> T callOnPrimary(Supplier<T> work) {
+        Boolean previous = PRIMARY.get();
+        PRIMARY.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null)
+                PRIMARY.remove();
+        }
+    }
+
+    public static void runOnPrimary(Runnable work) { // Runnable variant of callOnPrimary
+        callOnPrimary(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    Connection connection() throws SQLException { // A replica connection, or null when the primary must serve
+        if (PRIMARY.get() != null)
+            return null;
+        int n = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(1, n));
+        for (int i = 0; i < n; i++) {
+            Replica r = replicas.get((start + i) % n);
+            if (!r.usable)
+                continue;
+            try {
+                return r.pool.getConnection();
+            } catch (SQLException ex) { // Down or saturated: skip it until the next check says otherwise
+                r.usable = false;
+                log.warn("Replica {} unavailable, reading from the others or the primary: {}", r.name, ex.getMessage());
+            }
+        }
+        fallbacks.increment();
+        return null;
+    }
+
+    void check() { // Measure every replica's lag and decide which ones are usable
+        for (Replica r : replicas) {
+            double lag = lagSeconds(r);
+            boolean usable = !Double.isNaN(lag) && lag <= maxLagSeconds;
+            if (usable != r.usable)
+                log.info("Replica {} is now {} (lag {} s)", r.name, usable ? "in use" : "skipped", lag);
+            r.lagSeconds = lag;
+            r.usable = usable;
+        }
+    }
+
+    // Lag in seconds from the lag query: its Seconds_Behind_Source (MySQL's SHOW REPLICA
+    // STATUS) or Seconds_Behind_Master column if it has one, else its first column.
+    // NaN when the replica is unreachable, not replicating (no row) or reports NULL.
+    private double lagSeconds(Replica r) {
+        try (Connection c = r.pool.getConnection();
+                Statement st = c.createStatement();
+                ResultSet rs = st.executeQuery(lagQuery)) {
+            if (!rs.next())
+                return Double.NaN;
+            long lag = rs.getLong(lagColumn(rs));
+            return rs.wasNull() ? Double.NaN : lag;
+        } catch (SQLException ex) {
+            return Double.NaN;
+        }
+    }
+
+    private static int lagColumn(ResultSet rs) throws SQLException {
+        for (String name : new String[] { "Seconds_Behind_Source", "Seconds_Behind_Master" }) {
+            try {
+                return rs.findColumn(name);
+            } catch (SQLException ex) {
+                // Not this column
+            }
+        }
+        return 1;
+    }
+
+    @PreDestroy
+    public void shutdown() { // Stop checking and close the replica pools
+        if (checker != null)
+            checker.shutdownNow();
+        replicas.forEach(r -> r.pool.close());
+    }
+}
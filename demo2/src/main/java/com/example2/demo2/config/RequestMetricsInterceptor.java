@@ -0,0 +1,95 @@
+package com.example2.demo2.config; // Configuration and infrastructure
+
+import io.micrometer.core.instrument.Counter; // N+1 warnings
+import io.micrometer.core.instrument.DistributionSummary; // Per-request statement/row counts
+import io.micrometer.core.instrument.MeterRegistry; // Micrometer registry (exposed by Actuator)
+import io.micrometer.core.instrument.Timer; // Per-handler latency
+import jakarta.servlet.http.HttpServletRequest; // Current request
+import jakarta.servlet.http.HttpServletResponse; // Current response
+import org.slf4j.Logger; // Logging API
+import org.slf4j.LoggerFactory; // Logger factory
+import org.springframework.beans.factory.annotation.Value; // Inject settings from application.properties
+import org.springframework.stereotype.Component; // Marks as Spring component
+import org.springframework.web.method.HandlerMethod; // Controller method being called
+import org.springframework.web.servlet.AsyncHandlerInterceptor; // Interceptor aware of async requests
+
+import java.util.concurrent.TimeUnit; // Nanos
+
+// Records, per controller method, the request latency (p50/p95/p99) and how many
+// SQL statements and rows the request ran, and warns when one request runs more
+// statements than the N+1 threshold. Meters are tagged controller=<class> and
+// method=<handler method> and are served at /actuator/metrics.
+@Component // Register as a Spring bean
+public class RequestMetricsInterceptor implements AsyncHandlerInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestMetricsInterceptor.class);
+    private static final String START = RequestMetricsInterceptor.class.getName() + ".start"; // Request attribute
+    private static final String COUNTS = RequestMetricsInterceptor.class.getName() + ".counts"; // Request attribute
+
+    private final MeterRegistry registry; // Meter factory
+    private final int nPlusOneThreshold; // Statements per request before warning
+
+    public RequestMetricsInterceptor(MeterRegistry registry,
+            @Value("${app.metrics.n-plus-one-threshold:20}") int nPlusOneThreshold) {
+        this.registry = registry;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod))
+            return true;
+        SqlMetrics.Counts counts = (SqlMetrics.Counts) request.getAttribute(COUNTS);
+        if (counts == null) { // First dispatch (async re-dispatches keep the original start and counts)
+            counts = new SqlMetrics.Counts();
+            request.setAttribute(COUNTS, counts);
+            request.setAttribute(START, System.nanoTime());
+        }
+        SqlMetrics.bind(counts);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+            Object handler) {
+        SqlMetrics.unbind(); // Servlet thread is released; recorded when the async dispatch completes
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        SqlMetrics.unbind();
+        if (!(handler instanceof HandlerMethod hm) || !(request.getAttribute(START) instanceof Long start))
+            return;
+        SqlMetrics.Counts counts = (SqlMetrics.Counts) request.getAttribute(COUNTS);
+        String controller = hm.getBeanType().getSimpleName();
+        String method = hm.getMethod().getName();
+
+        Timer.builder("app.request.latency")
+                .description("Handler latency per controller method")
+                .tags("controller", controller, "method", method)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("app.request.sql.statements")
+                .description("JDBC statements per request")
+                .tags("controller", controller, "method", method)
+                .register(registry)
+                .record(counts.statements());
+        DistributionSummary.builder("app.request.sql.rows")
+                .description("Rows read or changed per request")
+                .tags("controller", controller, "method", method)
+                .register(registry)
+                .record(counts.rows());
+
+        if (counts.statements() > nPlusOneThreshold) {
+            Counter.builder("app.request.n_plus_one")
+                    .description("Requests over app.metrics.n-plus-one-threshold statements")
+                    .tags("controller", controller, "method", method)
+                    .register(registry)
+                    .increment();
+            log.warn("Possible N+1: {}.{} ran {} SQL statements ({} rows) for {} {}", controller, method,
+                    counts.statements(), counts.rows(), request.getMethod(), request.getRequestURI());
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example2.demo2.config; // Configuration and infrastructure
+
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver; // Hibernate's tenant hook
+import org.springframework.beans.factory.annotation.Value; // Inject settings from application.properties
+import org.springframework.stereotype.Component; // Marks as Spring component
+
+import java.util.function.Supplier; // Work run on behalf of a school
+
+// The school (tenant) the current thread works for. SchoolFilter binds it from the
+// X-School-Id request header; requests without the header use the default school.
+// Hibernate reads it when a session opens: every @TenantId entity is then filtered
+// to that school on read and stamped with it on insert (TenancyConfig registers this
+// bean as Hibernate's tenant identifier resolver). Work handed to another thread
+// must carry the school along (see TenancyConfig's task decorator).
+@Component // Register as a Spring bean
+public class SchoolContext implements CurrentTenantIdentifierResolver<Long> {
+
+    public static final String HEADER = "X-School-Id"; // Request header naming the school
+
+    private static final ThreadLocal<Long> CURRENT = new ThreadLocal<>(); // School bound to this thread
+
+    private final long defaultSchoolId; // School of requests without the header (and of pre-tenancy rows)
+
+    public SchoolContext(@Value("${app.tenancy.default-school-id:1}") long defaultSchoolId) {
+        this.defaultSchoolId = defaultSchoolId;
+    }
+
+    public Long currentSchoolId() { // Bound school, else the default one
+        Long bound = CURRENT.get();
+        return bound != null ? bound : defaultSchoolId;
+    }
+
+    @Override
+    public Long resolveCurrentTenantIdentifier() { // Called by Hibernate when a session opens
+        return currentSchoolId();
+    }
+
+    @Override
+    public boolean validateExistingCurrentSessions() { // A reused session must belong to the same school
+        return true;
+    }
+
+    static Long bound() { // Bound school or null (for handing over to another thread)
+        return CURRENT.get();
+    }
+
+    static Long bind(Long schoolId) { // Bind a school (null = default); returns what to restore
+        Long previous = CURRENT.get();
+        restore(schoolId);
+        return previous;
+    }
+
+    static void restore(Long previous) { // Undo bind
+        if (previous == null)
+            CURRENT.remove();
+        else
+            CURRENT.set(previous);
+    }
+
+    public static <T> T callAs(Long schoolId, Supplier<T> work) { // Run work for a school, then restore
+        Long previous = bind(schoolId);
+        try {
+            return work.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    public static void runAs(Long schoolId, Runnable work) { // Runnable variant of callAs
+        callAs(schoolId, () -> {
+            work.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,92 @@
+package com.example2.demo2.config; // Configuration and infrastructure
+
+import com.github.benmanes.caffeine.cache.Cache; // Bounded per-school semaphores
+import com.github.benmanes.caffeine.cache.Caffeine; // Cache builder
+import io.micrometer.core.instrument.Counter; // Rejected-request counter
+import io.micrometer.core.instrument.MeterRegistry; // Micrometer registry (exposed by Actuator)
+import jakarta.servlet.FilterChain; // Rest of the chain
+import jakarta.servlet.ServletException; // Servlet failure
+import jakarta.servlet.http.HttpServletRequest; // Current request
+import jakarta.servlet.http.HttpServletResponse; // Current response
+import org.springframework.beans.factory.annotation.Value; // Inject settings from application.properties
+import org.springframework.core.Ordered; // Filter order
+import org.springframework.core.annotation.Order; // Run before Spring MVC opens a session
+import org.springframework.stereotype.Component; // Marks as Spring component
+import org.springframework.web.filter.OncePerRequestFilter; // One pass per dispatch
+
+import java.io.IOException; // Servlet I/O
+import java.time.Duration; // Idle semaphore lifetime
+import java.util.concurrent.Semaphore; // In-flight requests of one school
+
+// Resolves the school of each request from the X-School-Id header and binds it
+// (SchoolContext) for the request's thread, before any Hibernate session opens.
+// Each school may have at most app.tenancy.max-concurrent-requests requests in
+// flight (0 = no limit); beyond that the request is refused with 429, so one busy
+// school cannot take every pooled connection and worker thread from the others.
+// Async streams hold no permit once the servlet thread has been released.
+@Component // Register as a servlet filter
+@Order(Ordered.HIGHEST_PRECEDENCE + 10) // Before anything that may touch the database
+public class SchoolFilter extends OncePerRequestFilter {
+
+    private final int maxConcurrent; // Per-school in-flight limit (0 = unlimited)
+    private final Cache<Long, Semaphore> inFlight; // School id → permits
+    private final Counter rejected; // Requests refused by the per-school limit
+
+    public SchoolFilter(MeterRegistry registry,
+            @Value("${app.tenancy.max-concurrent-requests:0}") int maxConcurrent) {
+        this.maxConcurrent = maxConcurrent;
+        this.inFlight = Caffeine.newBuilder() // Header values are client input: keep the map bounded
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .maximumSize(100_000)
+                .build();
+        this.rejected = Counter.builder("app.tenancy.rejected")
+                .description("Requests refused because their school was at app.tenancy.max-concurrent-requests")
+                .register(registry);
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() { // Async re-dispatches run on another thread: bind there too
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Long schoolId;
+        try {
+            schoolId = parse(request.getHeader(SchoolContext.HEADER));
+        } catch (IllegalArgumentException ex) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, ex.getMessage());
+            return;
+        }
+        Semaphore permits = maxConcurrent > 0 && schoolId != null
+                ? inFlight.get(schoolId, id -> new Semaphore(maxConcurrent))
+                : null; // No header: the default school is unlimited (single-school deployments)
+        if (permits != null && !permits.tryAcquire()) {
+            rejected.increment();
+            response.sendError(429, "Too many concurrent requests for school " + schoolId);
+            return;
+        }
+        Long previous = SchoolContext.bind(schoolId);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            SchoolContext.restore(previous);
+            if (permits != null)
+                permits.release();
+        }
+    }
+
+    private static Long parse(String header) { // Header value → school id (null when absent)
+        if (header == null || header.isBlank())
+            return null;
+        try {
+            long id = Long.parseLong(header.trim());
+            if (id > 0)
+                return id;
+        } catch (NumberFormatException ignored) {
+            // Fall through to the error below
+        }
+        throw new IllegalArgumentException(SchoolContext.HEADER + " must be a positive number");
+    }
+}
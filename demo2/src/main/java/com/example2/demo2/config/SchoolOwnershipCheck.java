@@ -0,0 +1,42 @@
+package com.example2.demo2.config; // Configuration and infrastructure
+
+import com.example2.demo2.model.SchoolOwned; // Entities with a school column
+import jakarta.persistence.EntityNotFoundException; // "No such row" for this school
+import org.hibernate.boot.Metadata; // Integrator callback argument
+import org.hibernate.boot.spi.BootstrapContext; // Integrator callback argument
+import org.hibernate.engine.spi.SessionFactoryImplementor; // Access to the event registry
+import org.hibernate.event.service.spi.EventListenerRegistry; // Listener registration
+import org.hibernate.event.spi.EventType; // POST_LOAD
+import org.hibernate.event.spi.PostLoadEvent; // Loaded entity
+import org.hibernate.event.spi.PostLoadEventListener; // Hook after an entity is loaded
+import org.hibernate.integrator.spi.Integrator; // Registers the listener with the session factory
+import org.hibernate.service.spi.SessionFactoryServiceRegistry; // Integrator callback argument
+
+import java.util.Objects; // Null-safe compare
+
+// Queries are restricted to the session's school by @TenantId, but loads by
+// primary key (findById, getReferenceById, lazy proxies, deleteById) are not in
+// this Hibernate version. This listener closes that gap: an entity of another
+// school that is loaded by id is reported as not found, like a missing row.
+public class SchoolOwnershipCheck implements Integrator, PostLoadEventListener {
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+            SessionFactoryImplementor sessionFactory) {
+        sessionFactory.getServiceRegistry().requireService(EventListenerRegistry.class)
+                .appendListeners(EventType.POST_LOAD, this);
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+        // Nothing to release
+    }
+
+    @Override
+    public void onPostLoad(PostLoadEvent event) {
+        if (event.getEntity() instanceof SchoolOwned owned
+                && !Objects.equals(owned.getSchoolId(), event.getSession().getTenantIdentifierValue()))
+            throw new EntityNotFoundException(event.getPersister().getEntityName() + " " + event.getId()
+                    + " not found");
+    }
+}
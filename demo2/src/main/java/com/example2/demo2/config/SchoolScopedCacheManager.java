@@ -0,0 +1,104 @@
+package com.example2.demo2.config; // Configuration and infrastructure
+
+import org.springframework.cache.Cache; // Spring cache abstraction
+import org.springframework.cache.CacheManager; // Cache lookup by name
+import org.springframework.cache.interceptor.SimpleKey; // (school, key) pair
+
+import java.util.Collection; // Cache names
+import java.util.Map; // Wrapped caches by name
+import java.util.concurrent.Callable; // Value loader
+import java.util.concurrent.ConcurrentHashMap; // Thread-safe wrapper map
+
+// Wraps every cache so entries are stored under (current school, key): the same
+// @Cacheable/@CacheEvict annotations then work per school without repeating the
+// school in each key expression. clear() (allEntries eviction) empties the cache
+// for every school. getNativeCache() still exposes the underlying cache.
+public class SchoolScopedCacheManager implements CacheManager {
+
+    private final CacheManager delegate; // Configured (Caffeine) cache manager
+    private final SchoolContext schools; // Current school
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>(); // name → wrapper
+
+    public SchoolScopedCacheManager(CacheManager delegate, SchoolContext schools) {
+        this.delegate = delegate;
+        this.schools = schools;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache target = delegate.getCache(name);
+        return target == null ? null : caches.computeIfAbsent(name, n -> new SchoolScopedCache(target));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    private final class SchoolScopedCache implements Cache {
+        private final Cache target; // Shared underlying cache
+
+        SchoolScopedCache(Cache target) {
+            this.target = target;
+        }
+
+        private Object scoped(Object key) {
+            return new SimpleKey(schools.currentSchoolId(), key);
+        }
+
+        @Override
+        public String getName() {
+            return target.getName();
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return target.getNativeCache();
+        }
+
+        @Override
+        public ValueWrapper get(Object key) {
+            return target.get(scoped(key));
+        }
+
+        @Override
+        public <T> T get(Object key, Class<T> type) {
+            return target.get(scoped(key), type);
+        }
+
+        @Override
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            return target.get(scoped(key), valueLoader);
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            target.put(scoped(key), value);
+        }
+
+        @Override
+        public ValueWrapper putIfAbsent(Object key, Object value) {
+            return target.putIfAbsent(scoped(key), value);
+        }
+
+        @Override
+        public void evict(Object key) {
+            target.evict(scoped(key));
+        }
+
+        @Override
+        public boolean evictIfPresent(Object key) {
+            return target.evictIfPresent(scoped(key));
+        }
+
+        @Override
+        public void clear() {
+            target.clear();
+        }
+
+        @Override
+        public boolean invalidate() {
+            return target.invalidate();
+        }
+    }
+}
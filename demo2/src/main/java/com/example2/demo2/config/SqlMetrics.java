@@ -0,0 +1,102 @@
+package com.example2.demo2.config; // Configuration and infrastructure
+
+import io.micrometer.core.instrument.Counter; // Monotonic counters
+import io.micrometer.core.instrument.MeterRegistry; // Micrometer registry (exposed by Actuator)
+import org.slf4j.Logger; // Logging API
+import org.slf4j.LoggerFactory; // Logger factory
+import org.springframework.beans.factory.annotation.Value; // Inject settings from application.properties
+import org.springframework.stereotype.Component; // Marks as Spring component
+
+import java.util.concurrent.TimeUnit; // Nanos → millis
+import java.util.concurrent.atomic.AtomicInteger; // Slow-log budget per second
+import java.util.concurrent.atomic.AtomicLong; // Current one-second window
+
+// Counts every JDBC statement and row seen by CountingDataSource, both globally
+// (Micrometer counters) and for the current request (a per-thread scope opened by
+// RequestMetricsInterceptor). Statements slower than a threshold are counted and
+// logged, but at most a few per second so a slow database cannot flood the log.
+@Component // Register as a Spring bean
+public class SqlMetrics {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlMetrics.class);
+    private static final ThreadLocal<Counts> CURRENT = new ThreadLocal<>(); // Request scope on this thread
+
+    // Statements and rows executed within one request scope.
+    public static final class Counts {
+        long statements; // execute*/executeBatch calls
+        long rows; // Rows read + rows changed
+
+        public long statements() {
+            return statements;
+        }
+
+        public long rows() {
+            return rows;
+        }
+    }
+
+    private final Counter statements; // All statements
+    private final Counter rows; // All rows read or changed
+    private final Counter slow; // Statements over the threshold
+    private final long slowNanos; // Slow-statement threshold
+    private final int slowLogsPerSecond; // Log sampling budget
+    private final AtomicLong window = new AtomicLong(); // Current second
+    private final AtomicInteger loggedInWindow = new AtomicInteger(); // Slow logs written this second
+
+    public SqlMetrics(MeterRegistry registry,
+            @Value("${app.metrics.slow-query-ms:200}") long slowQueryMs,
+            @Value("${app.metrics.slow-query-logs-per-second:5}") int slowLogsPerSecond) {
+        this.statements = Counter.builder("app.sql.statements").description("JDBC statements executed").register(registry);
+        this.rows = Counter.builder("app.sql.rows").description("Rows read or changed").register(registry);
+        this.slow = Counter.builder("app.sql.slow").description("Statements slower than app.metrics.slow-query-ms")
+                .register(registry);
+        this.slowNanos = TimeUnit.MILLISECONDS.toNanos(slowQueryMs);
+        this.slowLogsPerSecond = slowLogsPerSecond;
+    }
+
+    // ---- Request scope (one per servlet thread) ----
+
+    public static void bind(Counts counts) { // Start (or resume) counting for this thread
+        CURRENT.set(counts);
+    }
+
+    public static void unbind() { // Stop counting for this thread
+        CURRENT.remove();
+    }
+
+    // ---- Called by CountingDataSource ----
+
+    void executed(String sql, long nanos, long changedRows) { // One statement finished
+        statements.increment();
+        Counts c = CURRENT.get();
+        if (c != null)
+            c.statements++;
+        if (changedRows > 0)
+            rows(changedRows);
+        if (nanos >= slowNanos)
+            slow(sql, nanos);
+    }
+
+    void rows(long n) { // Rows read (ResultSet.next) or changed
+        rows.increment(n);
+        Counts c = CURRENT.get();
+        if (c != null)
+            c.rows += n;
+    }
+
+    private void slow(String sql, long nanos) { // Count always, log a sample
+        slow.increment();
+        long second = System.nanoTime() / 1_000_000_000L;
+        long seen = window.get();
+        if (seen != second && window.compareAndSet(seen, second))
+            loggedInWindow.set(0); // New window: reset the budget
+        if (loggedInWindow.incrementAndGet() <= slowLogsPerSecond)
+            log.warn("Slow SQL ({} ms): {}", TimeUnit.NANOSECONDS.toMillis(nanos), abbreviate(sql));
+    }
+
+    private static String abbreviate(String sql) { // Keep log lines readable
+        if (sql == null)
+            return "(batch)";
+        return sql.length() <= 500 ? sql : sql.substring(0, 500) + "...";
+    }
+}
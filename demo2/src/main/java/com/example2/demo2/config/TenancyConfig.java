@@ -0,0 +1,54 @@
+package com.example2.demo2.config; // Configuration and infrastructure
+
+import org.hibernate.cfg.AvailableSettings; // Hibernate property names
+import org.hibernate.jpa.boot.internal.EntityManagerFactoryBuilderImpl; // Integrator provider setting
+import org.hibernate.jpa.boot.spi.IntegratorProvider; // Adds the ownership check
+import org.springframework.beans.factory.ObjectProvider; // Lazy lookup from a static post-processor
+import org.springframework.beans.factory.config.BeanPostProcessor; // Wraps the cache manager
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer; // Extra Hibernate settings
+import org.springframework.cache.CacheManager; // Spring cache abstraction
+import org.springframework.context.annotation.Bean; // Bean factory methods
+import org.springframework.context.annotation.Configuration; // Configuration class
+import org.springframework.core.task.TaskDecorator; // Hooks Boot's application task executor
+
+import java.util.List; // Integrator list
+
+// Carries the current school (SchoolContext) across the places where work leaves
+// the request thread or outlives it.
+@Configuration
+public class TenancyConfig {
+
+    // Sessions open for the current school: @TenantId entities are filtered and stamped
+    // with it, and loads by id are checked against it (SchoolOwnershipCheck).
+    @Bean
+    public HibernatePropertiesCustomizer schoolTenantResolver(SchoolContext schools) {
+        return props -> {
+            props.put(AvailableSettings.MULTI_TENANT_IDENTIFIER_RESOLVER, schools);
+            props.put(EntityManagerFactoryBuilderImpl.INTEGRATOR_PROVIDER,
+                    (IntegratorProvider) () -> List.of(new SchoolOwnershipCheck()));
+        };
+    }
+
+    // Boot applies this to applicationTaskExecutor, which runs async MVC work
+    // (streamed exports, server-sent events): the task runs for the submitting school.
+    @Bean
+    public TaskDecorator schoolTaskDecorator() {
+        return task -> {
+            Long schoolId = SchoolContext.bound(); // Captured on the submitting thread
+            return () -> SchoolContext.runAs(schoolId, task);
+        };
+    }
+
+    // Cached lookups are keyed by (school, key) so one school never reads another's entries.
+    @Bean
+    public static BeanPostProcessor schoolScopedCachePostProcessor(ObjectProvider<SchoolContext> schools) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof CacheManager cm && !(bean instanceof SchoolScopedCacheManager))
+                    return new SchoolScopedCacheManager(cm, schools.getObject());
+                return bean;
+            }
+        };
+    }
+}
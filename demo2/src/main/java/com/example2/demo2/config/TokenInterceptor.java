@@ -0,0 +1,99 @@
+package com.example2.demo2.config; // Configuration and infrastructure
+
+import jakarta.servlet.http.HttpServletRequest; // Current request
+import jakarta.servlet.http.HttpServletResponse; // Current response
+import org.springframework.http.HttpHeaders; // Authorization / WWW-Authenticate
+import org.springframework.stereotype.Component; // Marks as Spring component
+import org.springframework.web.method.HandlerMethod; // Controller method being called
+import org.springframework.web.servlet.AsyncHandlerInterceptor; // Interceptor aware of async requests
+import org.springframework.web.servlet.HandlerMapping; // Matched pattern + path variables
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter; // Event stream handlers
+
+import java.io.IOException; // Servlet I/O
+import java.util.Map; // Path variables
+import java.util.Objects; // Null-safe compare
+
+// Guards the per-user endpoints with the token issued at login (AuthTokens):
+//   /students/{studentId}/**   that student, or an admin
+//   /teachers/{teacherId}/**   that teacher; under .../classes/{classId}/** only
+//                              the class the token names
+// The token must also belong to the request's school. Everything is decided from
+// the token itself, so the services behind these paths do no ownership queries.
+// It runs after handler mapping and reads the pattern that matched and the
+// decoded path variables the controller will receive, so spellings of the same
+// path (percent-encoding, ";" parameters) cannot reach a handler unchecked.
+// The token comes from "Authorization: Bearer ...". Only the event-stream
+// handlers (EventSource cannot send headers) also take it from the access_token
+// query parameter; anywhere else a token in the URL would end up in access logs
+// and browser history, so it is ignored.
+@Component // Register as a Spring bean (added in AuthConfig)
+public class TokenInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String BEARER = "Bearer ";
+
+    private final AuthTokens tokens; // Signature check + verified-token cache
+    private final SchoolContext schools; // School of the current request
+
+    public TokenInterceptor(AuthTokens tokens, SchoolContext schools) {
+        this.tokens = tokens;
+        this.schools = schools;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        if (!(handler instanceof HandlerMethod))
+            return true; // Static resources, error pages
+        String pattern = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        boolean student = pattern != null && pattern.startsWith("/students/");
+        boolean teacher = pattern != null && pattern.startsWith("/teachers/");
+        if (!student && !teacher)
+            return true; // Only the per-user paths are guarded
+        AuthTokens.Claims claims = tokens.verify(token(request, (HandlerMethod) handler));
+        if (claims == null) {
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Missing, invalid or expired token");
+            return false;
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, String> vars = (Map<String, String>) request
+                .getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (claims.schoolId() != schools.currentSchoolId()
+                || !(student ? allowedStudent(claims, vars) : allowedTeacher(claims, vars))) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN, "Not allowed for this account");
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean allowedStudent(AuthTokens.Claims claims, Map<String, String> vars) {
+        return claims.role().equals("ADMIN")
+                || claims.role().equals("STUDENT") && Objects.equals(id(vars, "studentId"), claims.userId());
+    }
+
+    private static boolean allowedTeacher(AuthTokens.Claims claims, Map<String, String> vars) {
+        if (!claims.role().equals("TEACHER") || !Objects.equals(id(vars, "teacherId"), claims.userId()))
+            return false;
+        if (vars.containsKey("classId"))
+            return Objects.equals(id(vars, "classId"), claims.classId()); // Only the teacher's own class
+        return true;
+    }
+
+    private static String token(HttpServletRequest request, HandlerMethod handler) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.regionMatches(true, 0, BEARER, 0, BEARER.length()))
+            return header.substring(BEARER.length()).trim();
+        if (SseEmitter.class.isAssignableFrom(handler.getMethod().getReturnType()))
+            return request.getParameter("access_token"); // EventSource
+        return null;
+    }
+
+    private static Long id(Map<String, String> vars, String name) { // Path variable as id; null if absent or not a number
+        String value = vars == null ? null : vars.get(name);
+        try {
+            return value == null ? null : Long.valueOf(value);
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package com.example2.demo2.controller; // Package for web controllers
 
-import com.example2.demo2.dto.*; // Import request DTO classes used as payloads
-import com.example2.demo2.model.*; // Import entity models returned to clients
+import com.example2.demo2.dto.*; // Request payloads and response DTOs
 import com.example2.demo2.service.AdminService; // Business/service layer used by this controller
 import org.springframework.web.bind.annotation.*; // Spring Web MVC annotations
 
@@ -20,19 +19,34 @@ public class AdminController {
     // ---- Classes ----
 
     @PostMapping("/classes") // Handle POST /admin/classes
-    public Classroom createClass( // Return the created Classroom entity as JSON
+    public ClassroomRes createClass( // Return the created class
             @RequestBody CreateClassroomReq req // Parse request body into CreateClassroomReq DTO
     ) {
         return service.createClass(req); // Delegate creation to service and return result
     }
 
     @GetMapping("/classes") // Handle GET /admin/classes
-    public List<Classroom> listClasses() { // Return list of all classes
+    public List<ClassroomRes> listClasses() { // Return list of all classes
         return service.listClasses(); // Delegate to service
     }
 
+    @GetMapping("/classes/page") // Handle GET /admin/classes/page?cursor=&limit=
+    public PageRes<ClassroomRes> pageClasses( // Return one keyset page of classes
+            @RequestParam(required = false) String cursor, // Opaque token from the previous page (absent = first page)
+            @RequestParam(required = false) Integer limit // Page size (capped server-side)
+    ) {
+        return service.pageClasses(cursor, limit); // Delegate to service
+    }
+
+    @DeleteMapping("/classes") // Handle DELETE /admin/classes?ids=1,2,3
+    public BulkDeleteRes deleteClasses( // Remove many classes and their enrollments in one transaction
+            @RequestParam List<Long> ids // Class ids (comma-separated or repeated)
+    ) {
+        return service.deleteClasses(ids); // Delegate to service (409 if a class still has a teacher)
+    }
+
     @PutMapping("/classes/{id}") // Handle PUT /admin/classes/{id}
-    public Classroom updateClass( // Return the updated Classroom
+    public ClassroomRes updateClass( // Return the updated Classroom
             @PathVariable Long id, // Extract {id} from the URL path
             @RequestBody CreateClassroomReq req // Parse request body with new values (name)
     ) {
@@ -47,19 +61,29 @@ public class AdminController {
     // ---- Teachers ----
 
     @PostMapping("/teachers") // Handle POST /admin/teachers
-    public Teacher createTeacher( // Return created Teacher
+    public TeacherRes createTeacher( // Return created Teacher
             @RequestBody CreateTeacherReq req // Parse teacher creation payload
     ) {
         return service.createTeacher(req); // Delegate to service
     }
 
     @GetMapping("/teachers") // Handle GET /admin/teachers
-    public List<Teacher> listTeachers() { // Return list of teachers (with classroom eagerly loaded)
+    public List<TeacherRes> listTeachers() { // Return list of teachers (with their class)
         return service.listTeachers(); // Delegate to service
     }
 
+    @GetMapping("/teachers/page") // Handle GET /admin/teachers/page?cursor=&limit=&name=&email=
+    public PageRes<TeacherRes> pageTeachers( // Return one keyset page of teachers
+            @RequestParam(required = false) String cursor, // Opaque token from the previous page
+            @RequestParam(required = false) Integer limit, // Page size (capped server-side)
+            @RequestParam(required = false) String name, // Optional name prefix
+            @RequestParam(required = false) String email // Optional email prefix
+    ) {
+        return service.pageTeachers(cursor, limit, name, email); // Delegate to service
+    }
+
     @PutMapping("/teachers/{id}") // Handle PUT /admin/teachers/{id}
-    public Teacher updateTeacher( // Return updated Teacher
+    public TeacherRes updateTeacher( // Return updated Teacher
             @PathVariable Long id, // Extract teacher id from URL
             @RequestBody UpdateTeacherReq req // Parse update payload (name/email/classId)
     ) {
@@ -74,19 +98,36 @@ public class AdminController {
     // ---- Students ----
 
     @PostMapping("/students") // Handle POST /admin/students
-    public Student createStudent( // Return created Student
+    public StudentRes createStudent( // Return created Student
             @RequestBody CreateStudentReq req // Parse student creation payload
     ) {
         return service.createStudent(req); // Delegate to service
     }
 
     @GetMapping("/students") // Handle GET /admin/students
-    public List<Student> listStudents() { // Return list of students
+    public List<StudentRes> listStudents() { // Return list of students
         return service.listStudents(); // Delegate to service
     }
 
+    @GetMapping("/students/page") // Handle GET /admin/students/page?cursor=&limit=&name=&email=
+    public PageRes<StudentRes> pageStudents( // Return one keyset page of students
+            @RequestParam(required = false) String cursor, // Opaque token from the previous page
+            @RequestParam(required = false) Integer limit, // Page size (capped server-side)
+            @RequestParam(required = false) String name, // Optional name prefix
+            @RequestParam(required = false) String email // Optional email prefix
+    ) {
+        return service.pageStudents(cursor, limit, name, email); // Delegate to service
+    }
+
+    @DeleteMapping("/students") // Handle DELETE /admin/students?ids=1,2,3
+    public BulkDeleteRes deleteStudents( // Remove many students and their enrollments in one transaction
+            @RequestParam List<Long> ids // Student ids (comma-separated or repeated)
+    ) {
+        return service.deleteStudents(ids); // Delegate to service
+    }
+
     @PutMapping("/students/{id}") // Handle PUT /admin/students/{id}
-    public Student updateStudent( // Return updated Student
+    public StudentRes updateStudent( // Return updated Student
             @PathVariable Long id, // Extract student id
             @RequestBody UpdateStudentReq req // Parse update payload (name/email)
     ) {
@@ -101,7 +142,7 @@ public class AdminController {
     // ---- Enrollment ----
 
     @PostMapping("/enrollments") // Handle POST /admin/enrollments
-    public Enrollment enroll( // Return created Enrollment (student↔class link)
+    public EnrollmentRes enroll( // Return created Enrollment (student↔class link)
             @RequestBody EnrollStudentReq req // Parse payload containing studentId & classId
     ) {
         return service.enrollStudent(req); // Delegate to service
@@ -115,4 +156,68 @@ public class AdminController {
         service.unenrollStudent(studentId, classId); // Delegate to service (note: service signature is (studentId,
                                                      // classId))
     }
+
+    // ---- Rosters ----
+
+    @PutMapping("/classes/{classId}/roster") // Handle PUT /admin/classes/{classId}/roster
+    public RosterRes replaceRoster( // Make the class's enrollments exactly this set of students
+            @PathVariable Long classId, // Class whose roster is replaced
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey, // Safe retries
+            @RequestBody RosterReq req // Payload: {studentIds: [...]}
+    ) {
+        return service.replaceRoster(classId, req, idempotencyKey); // Delegate to service
+    }
+
+    @PostMapping("/classes/{classId}/enrollments") // Handle POST /admin/classes/{classId}/enrollments
+    public RosterRes addToRoster( // Enroll many students at once
+            @PathVariable Long classId, // Class to enroll into
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey, // Safe retries
+            @RequestBody RosterReq req // Payload: {studentIds: [...]}
+    ) {
+        return service.addToRoster(classId, req, idempotencyKey); // Delegate to service
+    }
+
+    // ---- Search ----
+
+    @GetMapping("/search") // Handle GET /admin/search?q=&type=&limit=
+    public List<SearchHitRes> search( // Return the best name/email matches, best first
+            @RequestParam String q, // Typed text; prefixes and small typos match
+            @RequestParam(required = false) String type, // student, teacher or class (absent = all)
+            @RequestParam(required = false) Integer limit // Hits to return (capped server-side)
+    ) {
+        return service.search(q, type, limit); // Delegate to service
+    }
+
+    // ---- Statistics ----
+
+    @GetMapping("/stats") // Handle GET /admin/stats
+    public SchoolStatsRes schoolStats() { // School-wide distribution plus one summary per class
+        return service.schoolStats(); // Delegate to service
+    }
+
+    // ---- Audit ----
+
+    @GetMapping("/audit") // Handle GET /admin/audit?studentId=&classId=&cursor=&limit=
+    public PageRes<MarkAuditRes> markAudit( // Return one page of mark changes, oldest first
+            @RequestParam(required = false) Long studentId, // Changes for this student
+            @RequestParam(required = false) Long classId, // Changes in this class (at least one filter required)
+            @RequestParam(required = false) String cursor, // Opaque token from the previous page
+            @RequestParam(required = false) Integer limit // Page size (capped server-side)
+    ) {
+        return service.markAudit(studentId, classId, cursor, limit); // Delegate to service
+    }
+
+    // ---- Caches ----
+
+    @GetMapping("/cache/stats") // Handle GET /admin/cache/stats
+    public List<CacheStatsRes> cacheStats() { // Return hit/miss/eviction counters per cache
+        return service.cacheStats(); // Delegate to service
+    }
+
+    // ---- Load shedding ----
+
+    @GetMapping("/limits") // Handle GET /admin/limits
+    public List<LimitStatsRes> limits() { // Return the adaptive concurrency limit of each endpoint group
+        return service.limits(); // Delegate to service
+    }
 }
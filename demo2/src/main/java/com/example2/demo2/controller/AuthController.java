@@ -0,0 +1,24 @@
+package com.example2.demo2.controller; // Controller package
+
+import com.example2.demo2.dto.LoginReq; // Login payload
+import com.example2.demo2.dto.LoginRes; // Login result
+import com.example2.demo2.service.AuthService; // Service that verifies credentials
+import org.springframework.web.bind.annotation.*; // Spring MVC annotations
+
+@RestController // Expose REST endpoints
+@RequestMapping("/auth") // Base path for authentication endpoints
+public class AuthController {
+
+    private final AuthService service; // Dependency on auth service
+
+    public AuthController(AuthService service) { // Constructor injection
+        this.service = service; // Keep service reference
+    }
+
+    @PostMapping("/login") // Handle POST /auth/login
+    public LoginRes login( // Return the matched role + user id
+            @RequestBody LoginReq req // Parse email/password payload
+    ) {
+        return service.login(req); // Delegate to service (401 on bad credentials)
+    }
+}
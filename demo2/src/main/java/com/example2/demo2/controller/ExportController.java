@@ -0,0 +1,46 @@
+package com.example2.demo2.controller; // Controller package
+
+import com.example2.demo2.service.ExportService; // Streams rows from the database
+import org.springframework.http.HttpHeaders; // Header names
+import org.springframework.http.MediaType; // Content types
+import org.springframework.http.ResponseEntity; // Response with headers
+import org.springframework.web.bind.annotation.*; // Spring MVC annotations
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody; // Async streaming body
+
+@RestController // Expose REST endpoints
+@RequestMapping("/admin/export") // Base path for export endpoints
+public class ExportController {
+
+    private final ExportService service; // Dependency on export service
+
+    public ExportController(ExportService service) { // Constructor injection
+        this.service = service; // Keep service reference
+    }
+
+    @GetMapping("/enrollments") // Handle GET /admin/export/enrollments?format=csv|ndjson
+    public ResponseEntity<StreamingResponseBody> enrollments( // Stream every enrollment
+            @RequestParam(required = false) String format // Output format (default CSV)
+    ) {
+        ExportService.Format f = ExportService.parseFormat(format); // Validate before streaming starts
+        return attachment("enrollments", f, out -> service.writeEnrollments(out, f));
+    }
+
+    @GetMapping("/classes/{classId}/roster") // Handle GET /admin/export/classes/{classId}/roster?format=
+    public ResponseEntity<StreamingResponseBody> roster( // Stream one class's students + marks
+            @PathVariable Long classId, // Class to export
+            @RequestParam(required = false) String format // Output format (default CSV)
+    ) {
+        ExportService.Format f = ExportService.parseFormat(format);
+        return attachment("class-" + classId + "-roster", f, out -> service.writeRoster(classId, out, f));
+    }
+
+    private static ResponseEntity<StreamingResponseBody> attachment(String name, ExportService.Format f,
+            StreamingResponseBody body) { // Download headers + body written on an async thread
+        boolean csv = f == ExportService.Format.CSV;
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv") : new MediaType("application", "x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + name + (csv ? ".csv" : ".ndjson") + "\"")
+                .body(body);
+    }
+}
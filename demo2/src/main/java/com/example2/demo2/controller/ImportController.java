@@ -0,0 +1,34 @@
+package com.example2.demo2.controller; // Controller package
+
+import com.example2.demo2.dto.ImportJobRes; // Job progress returned to clients
+import com.example2.demo2.service.ImportService; // Streaming import pipeline
+import org.springframework.http.ResponseEntity; // 202 Accepted response
+import org.springframework.web.bind.annotation.*; // Spring MVC annotations
+import org.springframework.web.multipart.MultipartFile; // Uploaded file
+
+import java.io.IOException; // Upload copy failures
+
+@RestController // Expose REST endpoints
+@RequestMapping("/admin/import") // Base path for bulk import endpoints
+public class ImportController {
+
+    private final ImportService service; // Dependency on import service
+
+    public ImportController(ImportService service) { // Constructor injection
+        this.service = service; // Keep service reference
+    }
+
+    @PostMapping("/{kind}") // Handle POST /admin/import/{students|teachers|enrollments} (multipart "file")
+    public ResponseEntity<ImportJobRes> start( // Return 202 with the new job id
+            @PathVariable String kind, // What the file contains
+            @RequestParam("file") MultipartFile file, // CSV (with header) or NDJSON upload
+            @RequestParam(required = false) String format // Optional "csv" / "ndjson" override
+    ) throws IOException {
+        return ResponseEntity.accepted().body(service.start(kind, file, format)); // Runs in the background
+    }
+
+    @GetMapping("/jobs/{jobId}") // Handle GET /admin/import/jobs/{jobId}
+    public ImportJobRes status(@PathVariable String jobId) { // Progress + per-line errors
+        return service.status(jobId); // Delegate to service
+    }
+}
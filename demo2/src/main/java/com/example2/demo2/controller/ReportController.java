@@ -0,0 +1,46 @@
+package com.example2.demo2.controller; // Controller package
+
+import com.example2.demo2.dto.ReportJobRes; // Job progress returned to clients
+import com.example2.demo2.service.ReportService; // Report card jobs
+import org.springframework.core.io.FileSystemResource; // Finished ZIP on disk
+import org.springframework.core.io.Resource; // Streamed download body
+import org.springframework.http.HttpHeaders; // Header names
+import org.springframework.http.MediaType; // Content types
+import org.springframework.http.ResponseEntity; // 202 Accepted / download response
+import org.springframework.web.bind.annotation.*; // Spring MVC annotations
+
+@RestController // Expose REST endpoints
+@RequestMapping("/admin/reports") // Base path for report endpoints
+public class ReportController {
+
+    private final ReportService service; // Dependency on report service
+
+    public ReportController(ReportService service) { // Constructor injection
+        this.service = service; // Keep service reference
+    }
+
+    @PostMapping("/term") // Handle POST /admin/reports/term?term=
+    public ResponseEntity<ReportJobRes> start( // Return 202 with the new job id
+            @RequestParam(required = false) String term // Label printed on every report card
+    ) {
+        return ResponseEntity.accepted().body(service.start(term)); // Runs in the background
+    }
+
+    @GetMapping("/term/{jobId}") // Handle GET /admin/reports/term/{jobId}
+    public ReportJobRes status(@PathVariable String jobId) { // Progress and throughput
+        return service.status(jobId); // Delegate to service
+    }
+
+    @GetMapping("/term/{jobId}/download") // Handle GET /admin/reports/term/{jobId}/download
+    public ResponseEntity<Resource> download(@PathVariable String jobId) { // ZIP of every report card (409 until done)
+        return ResponseEntity.ok()
+                .contentType(new MediaType("application", "zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"report-cards-" + jobId + ".zip\"")
+                .body(new FileSystemResource(service.file(jobId))); // Streamed from disk
+    }
+
+    @DeleteMapping("/term/{jobId}") // Handle DELETE /admin/reports/term/{jobId}
+    public ReportJobRes cancel(@PathVariable String jobId) { // Cancel a running job or discard a finished one
+        return service.cancel(jobId); // Delegate to service
+    }
+}
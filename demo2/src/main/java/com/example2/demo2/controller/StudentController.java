@@ -1,8 +1,13 @@
 package com.example2.demo2.controller; // Controller package
 
-import com.example2.demo2.model.Enrollment; // Enrollment model returned (contains marks)
+import com.example2.demo2.dto.DashboardMarkRes; // (classId, className, mark) row
+import com.example2.demo2.dto.StudentDashboardRes; // Dashboard response
 import com.example2.demo2.service.StudentService; // Service that provides student-specific operations
+import org.springframework.http.CacheControl; // Cache-Control header builder
+import org.springframework.http.ResponseEntity; // Response with headers
 import org.springframework.web.bind.annotation.*; // Spring MVC annotations
+import org.springframework.web.context.request.WebRequest; // Conditional request helpers
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter; // Server-sent events stream
 
 import java.util.List; // For list responses
 
@@ -16,12 +21,32 @@ public class StudentController {
         this.service = service; // Store reference
     }
 
-    // In a real app you’d enforce "current user == {studentId}" via auth middleware
-    // / security config
+    // TokenInterceptor only lets the student's own login token (or an admin's) through
     @GetMapping("/{studentId}/marks") // Handle GET /students/{studentId}/marks
-    public List<Enrollment> myMarks( // Return list of enrollments (with class + mark)
+    public List<DashboardMarkRes> myMarks( // Return (classId, className, mark) per enrollment
             @PathVariable Long studentId // Extract student id from URL
     ) {
         return service.myMarks(studentId); // Delegate to service method
     }
+
+    @GetMapping("/{studentId}/dashboard") // Handle GET /students/{studentId}/dashboard
+    public ResponseEntity<StudentDashboardRes> dashboard( // Name + classes + marks, with ETag
+            @PathVariable Long studentId, // Extract student id from URL
+            WebRequest request // Gives access to If-None-Match
+    ) {
+        String etag = service.dashboardEtag(studentId); // In-memory version, no DB access
+        if (request.checkNotModified(etag))
+            return null; // 304 Not Modified (headers already set)
+        return ResponseEntity.ok()
+                .eTag(etag) // Let the browser revalidate next time
+                .cacheControl(CacheControl.noCache()) // Always revalidate, never serve stale
+                .body(service.dashboard(studentId)); // Delegate to service
+    }
+
+    @GetMapping(value = "/{studentId}/events", produces = "text/event-stream") // Handle GET /students/{studentId}/events
+    public SseEmitter events( // Server-sent events: "mark", "enrolled", "unenrolled"
+            @PathVariable Long studentId // Extract student id from URL
+    ) {
+        return service.events(studentId); // Stream stays open; no thread is held while idle
+    }
 }
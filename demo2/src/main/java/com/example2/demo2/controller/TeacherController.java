@@ -1,10 +1,19 @@
 package com.example2.demo2.controller; // Controller package
 
+import com.example2.demo2.dto.ClassStatsRes; // Class mark statistics
+import com.example2.demo2.dto.EnrollmentRes; // Enrollment after update
+import com.example2.demo2.dto.GradebookRes; // Class + students + marks
+import com.example2.demo2.dto.MarkEntryReq; // One row of a batch mark update
+import com.example2.demo2.dto.MarkResultRes; // Per-row batch outcome
 import com.example2.demo2.dto.MarkUpdateReq; // DTO carrying the new/updated mark value
-import com.example2.demo2.model.Enrollment; // Return Enrollment after update
-import com.example2.demo2.model.Student; // Return list of Student for teacher
+import com.example2.demo2.dto.RankRes; // One student's rank
+import com.example2.demo2.dto.StudentRes; // Students taught by a teacher
+import com.example2.demo2.error.BadRequestException; // Malformed If-Match
 import com.example2.demo2.service.TeacherService; // Business logic layer for teacher actions
+import org.springframework.http.HttpHeaders; // Header names
+import org.springframework.http.ResponseEntity; // Response with ETag
 import org.springframework.web.bind.annotation.*; // Spring MVC annotations
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter; // Server-sent events stream
 
 import java.util.List; // For list responses
 
@@ -19,19 +28,86 @@ public class TeacherController {
     }
 
     @GetMapping("/{teacherId}/students") // Handle GET /teachers/{teacherId}/students
-    public List<Student> studentsOfTeacher( // Return students taught by this teacher
+    public List<StudentRes> studentsOfTeacher( // Return students taught by this teacher
             @PathVariable Long teacherId // Extract teacher id from path
     ) {
         return service.studentsOfTeacher(teacherId); // Delegate query to service
     }
 
+    @GetMapping("/{teacherId}/gradebook") // Handle GET /teachers/{teacherId}/gradebook
+    public GradebookRes gradebook( // Return the teacher's class with every student's mark
+            @PathVariable Long teacherId // Extract teacher id from path
+    ) {
+        return service.gradebook(teacherId); // Delegate to service (one SQL statement)
+    }
+
+    @GetMapping("/{teacherId}/classes/{classId}/students/{studentId}/mark") // GET one mark with its ETag
+    public ResponseEntity<EnrollmentRes> mark( // Current mark; ETag = row version
+            @PathVariable Long teacherId, // Teacher asking
+            @PathVariable Long classId, // Class to which the mark belongs
+            @PathVariable Long studentId // Student whose mark is read
+    ) {
+        return withEtag(service.mark(teacherId, classId, studentId)); // Delegate to service (TokenInterceptor checked ownership)
+    }
+
     @PutMapping("/{teacherId}/classes/{classId}/students/{studentId}/mark") // PUT to set/update a student's mark
-    public Enrollment setMark( // Return the updated Enrollment
+    public ResponseEntity<EnrollmentRes> setMark( // Return the updated enrollment and its new ETag
             @PathVariable Long teacherId, // Teacher performing the action
             @PathVariable Long classId, // Class to which the mark belongs
             @PathVariable Long studentId, // Student whose mark is being set
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch, // ETag the client edited (optional)
             @RequestBody MarkUpdateReq req // Payload with the new mark value
     ) {
-        return service.setMark(teacherId, classId, studentId, req); // Delegate to service (validates ownership)
+        return withEtag(service.setMark(teacherId, classId, studentId, req, expectedVersion(ifMatch))); // 412 if stale
+    }
+
+    @GetMapping(value = "/{teacherId}/events", produces = "text/event-stream") // Handle GET /teachers/{teacherId}/events
+    public SseEmitter events( // Server-sent events for every enrollment/mark change in the teacher's class
+            @PathVariable Long teacherId // Teacher listening
+    ) {
+        return service.events(teacherId); // Stream stays open; no thread is held while idle
+    }
+
+    @PutMapping("/{teacherId}/classes/{classId}/marks") // PUT to set many students' marks in one transaction
+    public List<MarkResultRes> setMarks( // Return one success/failure row per entry
+            @PathVariable Long teacherId, // Teacher performing the action
+            @PathVariable Long classId, // Class to which the marks belong
+            @RequestBody List<MarkEntryReq> entries // Payload: [{studentId, mark}, ...]
+    ) {
+        return service.setMarks(teacherId, classId, entries); // Delegate to service (TokenInterceptor checked ownership)
+    }
+
+    @GetMapping("/{teacherId}/classes/{classId}/stats") // Handle GET /teachers/{teacherId}/classes/{classId}/stats
+    public ClassStatsRes classStats( // Mean, median, percentiles and histogram of the class's marks
+            @PathVariable Long teacherId, // Teacher asking
+            @PathVariable Long classId // Class to summarise
+    ) {
+        return service.classStats(teacherId, classId); // Delegate to service (TokenInterceptor checked ownership)
+    }
+
+    @GetMapping("/{teacherId}/classes/{classId}/students/{studentId}/rank") // GET one student's rank
+    public RankRes rank( // Rank, score and percentile of one student
+            @PathVariable Long teacherId, // Teacher asking
+            @PathVariable Long classId, // Class to rank within
+            @PathVariable Long studentId // Student to rank
+    ) {
+        return service.rank(teacherId, classId, studentId); // Delegate to service (TokenInterceptor checked ownership)
+    }
+
+    private static ResponseEntity<EnrollmentRes> withEtag(EnrollmentRes res) { // ETag "<version>"
+        return ResponseEntity.ok().eTag(String.valueOf(res.version())).body(res);
+    }
+
+    private static Long expectedVersion(String ifMatch) { // If-Match "<version>" → version; absent or * → null
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*"))
+            return null; // No precondition
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\""))
+            throw new BadRequestException("If-Match must be a single ETag returned by this endpoint");
+        try {
+            return Long.valueOf(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException ex) {
+            throw new BadRequestException("If-Match must be a single ETag returned by this endpoint");
+        }
     }
 }
@@ -0,0 +1,2 @@
+package com.example2.demo2.dto;
+public record BulkDeleteRes(int deleted, int enrollmentsDeleted) {} //rows removed by a bulk delete (plus their enrollments)
@@ -0,0 +1,2 @@
+package com.example2.demo2.dto;
+public record CacheStatsRes(String name, long size, long hits, long misses, long evictions, double hitRate) {} //hit/miss/eviction counters of one cache
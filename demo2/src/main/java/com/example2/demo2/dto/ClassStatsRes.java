@@ -0,0 +1,6 @@
+package com.example2.demo2.dto;
+
+import java.util.List;
+
+public record ClassStatsRes(Long classId, String className, long enrolled, long graded, Double mean, Double min,
+        Double p25, Double median, Double p75, Double p90, Double max, List<Long> histogram) {} //summary of a class's marks on the 0-100 scale; histogram has 10 bins of width 10
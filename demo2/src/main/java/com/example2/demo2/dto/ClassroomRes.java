@@ -0,0 +1,2 @@
+package com.example2.demo2.dto;
+public record ClassroomRes(Long id, String name) {} //a class as returned to clients
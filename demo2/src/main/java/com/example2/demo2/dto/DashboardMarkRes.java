@@ -0,0 +1,2 @@
+package com.example2.demo2.dto;
+public record DashboardMarkRes(Long classId, String className, String mark) {} //one class + mark on a student's dashboard
@@ -0,0 +1,2 @@
+package com.example2.demo2.dto;
+public record EnrollmentRes(Long studentId, Long classId, String mark, Long version) {} //one enrollment (student in class), its mark and row version
@@ -0,0 +1,5 @@
+package com.example2.demo2.dto;
+
+import java.util.List;
+
+public record GradebookRes(Long classId, String className, List<GradebookRowRes> students) {} //a teacher's class with every enrolled student's mark
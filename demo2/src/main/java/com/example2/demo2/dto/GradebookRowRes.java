@@ -0,0 +1,2 @@
+package com.example2.demo2.dto;
+public record GradebookRowRes(Long classId, String className, Long studentId, String studentName, String email, String mark) {} //one student's mark in a teacher's class (projection row)
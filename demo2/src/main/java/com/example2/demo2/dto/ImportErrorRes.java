@@ -0,0 +1,2 @@
+package com.example2.demo2.dto;
+public record ImportErrorRes(long line, String message) {} //one rejected line of a bulk import (1-based line number)
@@ -0,0 +1,6 @@
+package com.example2.demo2.dto;
+
+import java.util.List;
+
+public record ImportJobRes(String jobId, String kind, String status, long linesRead, long imported, long failed,
+        List<ImportErrorRes> errors) {} //progress snapshot of a bulk import job
@@ -0,0 +1,2 @@
+package com.example2.demo2.dto;
+public record LimitStatsRes(String group, String priority, int limit, int inFlight, long rejected) {} //current adaptive concurrency limit of one endpoint group
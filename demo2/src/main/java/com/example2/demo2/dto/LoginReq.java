@@ -0,0 +1,2 @@
+package com.example2.demo2.dto;
+public record LoginReq(String email, String password) {} //payload for logging in with email + password
@@ -0,0 +1,2 @@
+package com.example2.demo2.dto;
+public record LoginRes(String role, Long userId, String name, String token) {} //result of a successful login (role + id of the matched account + bearer token)
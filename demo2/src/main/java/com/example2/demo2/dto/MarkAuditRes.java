@@ -0,0 +1,5 @@
+package com.example2.demo2.dto;
+
+import java.time.Instant;
+
+public record MarkAuditRes(Long id, Long classId, Long studentId, Long teacherId, String oldMark, String newMark, Instant changedAt) {} //one audited mark change
@@ -0,0 +1,2 @@
+package com.example2.demo2.dto;
+public record MarkEntryReq(Long studentId, String mark) {} //one row of a batch mark update (student + new mark)
@@ -0,0 +1,2 @@
+package com.example2.demo2.dto;
+public record MarkEventRes(String type, Long classId, Long studentId, String mark, Long version) {} //pushed change: "mark", "enrolled" or "unenrolled" for one enrollment
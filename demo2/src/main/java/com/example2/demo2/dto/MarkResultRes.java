@@ -0,0 +1,2 @@
+package com.example2.demo2.dto;
+public record MarkResultRes(Long studentId, boolean ok, String error) {} //outcome of one row in a batch mark update (error is null on success)
@@ -0,0 +1,5 @@
+package com.example2.demo2.dto;
+
+import java.util.List;
+
+public record PageRes<T>(List<T> items, String nextCursor) {} //one page of a keyset-paginated list; nextCursor is null on the last page
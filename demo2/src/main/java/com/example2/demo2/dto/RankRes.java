@@ -0,0 +1,2 @@
+package com.example2.demo2.dto;
+public record RankRes(Long classId, Long studentId, Double score, Long rank, long graded, Double percentile) {} //a student's position in the class (rank 1 = best; score/rank null when ungraded)
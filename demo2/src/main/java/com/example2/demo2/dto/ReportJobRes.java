@@ -0,0 +1,3 @@
+package com.example2.demo2.dto;
+public record ReportJobRes(String jobId, String term, String status, long studentsTotal, long studentsDone,
+        double studentsPerSecond, long zipBytes, String error) {} //progress snapshot of a report card job
@@ -0,0 +1,5 @@
+package com.example2.demo2.dto;
+
+import java.util.List;
+
+public record RosterReq(List<Long> studentIds) {} //student ids to enroll (POST) or the complete new roster (PUT)
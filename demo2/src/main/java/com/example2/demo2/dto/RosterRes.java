@@ -0,0 +1,5 @@
+package com.example2.demo2.dto;
+
+import java.util.List;
+
+public record RosterRes(Long classId, List<Long> added, List<Long> removed, int unchanged) {} //what a roster change actually did
@@ -0,0 +1,5 @@
+package com.example2.demo2.dto;
+
+import java.util.List;
+
+public record SchoolStatsRes(ClassStatsRes overall, List<ClassStatsRes> classes) {} //school-wide summary plus one summary per class
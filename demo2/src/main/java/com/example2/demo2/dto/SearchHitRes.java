@@ -0,0 +1,2 @@
+package com.example2.demo2.dto;
+public record SearchHitRes(String type, Long id, String name, String email, int score) {} //one typeahead match: type is student, teacher or class (email null for classes)
@@ -0,0 +1,5 @@
+package com.example2.demo2.dto;
+
+import java.util.List;
+
+public record StudentDashboardRes(Long studentId, String name, List<DashboardMarkRes> marks) {} //everything the student dashboard shows, in one response
@@ -0,0 +1,2 @@
+package com.example2.demo2.dto;
+public record StudentMarkRes(Long studentId, String mark) {} //one student's raw mark in a class (projection row)
@@ -0,0 +1,2 @@
+package com.example2.demo2.dto;
+public record StudentRes(Long id, String name, String email, String role) {} //a student as returned to clients (never the password)
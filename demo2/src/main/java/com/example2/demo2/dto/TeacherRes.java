@@ -0,0 +1,7 @@
+package com.example2.demo2.dto;
+
+public record TeacherRes(Long id, String name, String email, String role, ClassroomRes classroom) { //a teacher with their class (never the password)
+    public TeacherRes(Long id, String name, String email, String role, Long classId, String className) { //flat form for JPQL constructor projections
+        this(id, name, email, role, new ClassroomRes(classId, className));
+    }
+}
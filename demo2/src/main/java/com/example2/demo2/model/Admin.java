@@ -1,21 +1,24 @@
 package com.example2.demo2.model; // Package containing JPA entities
 
 import com.fasterxml.jackson.annotation.JsonIgnore; // Jackson annotation to exclude fields from JSON
-import com.fasterxml.jackson.annotation.JsonIgnoreProperties; // Jackson annotation to ignore proxy fields
 import jakarta.persistence.*; // JPA annotations
+import org.hibernate.annotations.TenantId; // School discriminator
 
-@JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" }) // Avoid serializing Hibernate proxy internals
 @Entity // Marks this class as a JPA entity
-@Table(name = "admins") // Maps to the "admins" table
-public class Admin {
+@Table(name = "admins", uniqueConstraints = @UniqueConstraint(name = "uk_admins_school_email", columnNames = { "school_id", "email" })) // Email is unique per school
+public class Admin implements SchoolOwned {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY) // PK with auto-increment identity strategy
     private Long id; // Admin ID (primary key)
 
+    @TenantId // Set from the current school on insert; every query is restricted to it
+    @Column(name = "school_id", nullable = false, updatable = false)
+    private Long schoolId; // Owning school (tenant)
+
     @Column(nullable = false, length = 50)
     private String name; // Name column: required, max 50 chars
-    @Column(nullable = false, length = 50, unique = true)
-    private String email; // Email: required, unique, max 50
+    @Column(nullable = false, length = 50)
+    private String email; // Email: required, unique within the school, max 50
     @Column(nullable = false, length = 50)
     private String role; // Role string (e.g., "ADMIN")
     @JsonIgnore // Do not include in JSON responses
@@ -61,4 +64,8 @@ public class Admin {
     public void setPassword(String password) {
         this.password = password;
     } // Setter for password
+
+    public Long getSchoolId() {
+        return schoolId;
+    } // Getter for schoolId (set by Hibernate)
 }
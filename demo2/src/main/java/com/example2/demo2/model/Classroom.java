@@ -1,16 +1,19 @@
 package com.example2.demo2.model; // Package for entities
 
-import com.fasterxml.jackson.annotation.JsonIgnoreProperties; // For proxy-field ignoring
 import jakarta.persistence.*; // JPA annotations
+import org.hibernate.annotations.TenantId; // School discriminator
 
-@JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" }) // Ignore Hibernate proxy properties in JSON
 @Entity // JPA entity
 @Table(name = "classes") // Maps to "classes" table
-public class Classroom {
+public class Classroom implements SchoolOwned {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY) // PK with identity generation
     private Long id; // Classroom ID
 
+    @TenantId // Set from the current school on insert; every query is restricted to it
+    @Column(name = "school_id", nullable = false, updatable = false)
+    private Long schoolId; // Owning school (tenant)
+
     @Column(nullable = false, length = 50)
     private String name; // Class name: required, max 50
 
@@ -29,4 +32,8 @@ public class Classroom {
     public void setName(String name) {
         this.name = name;
     } // Setter for name
+
+    public Long getSchoolId() {
+        return schoolId;
+    } // Getter for schoolId (set by Hibernate)
 }
@@ -1,12 +1,13 @@
 package com.example2.demo2.model; // Package for entities
 
 import jakarta.persistence.*; // JPA annotations
+import org.hibernate.annotations.TenantId; // School discriminator
 import java.io.Serializable; // Needed for embedded key
 import java.util.Objects; // equals/hashCode helpers
 
 @Entity // JPA entity
 @Table(name = "enrollments") // Maps to "enrollments" (join table + mark)
-public class Enrollment {
+public class Enrollment implements SchoolOwned {
 
     @Embeddable // Marks composite key class as embeddable
     public static class Id implements Serializable { // Composite primary key type (must be Serializable)
@@ -48,6 +49,10 @@ public class Enrollment {
     @EmbeddedId // Use composite key as the entity's PK
     private Id id = new Id(); // Initialize key object
 
+    @TenantId // Set from the current school on insert; every query is restricted to it
+    @Column(name = "school_id", nullable = false, updatable = false)
+    private Long schoolId; // Owning school (tenant)
+
     @ManyToOne(optional = false)
     @MapsId("studentId") // Join to Student and bind to key's studentId
     @JoinColumn(name = "student_id") // FK column name in enrollments table
@@ -61,6 +66,9 @@ public class Enrollment {
     @Column(length = 10) // Small mark/grade string (e.g., "A" or "95")
     private String mark; // Teacher-entered mark
 
+    @Version // Optimistic lock: bumped on every mark write, served as the mark's ETag
+    private Long version; // Row version (null until persisted)
+
     public Id getId() {
         return id;
     } // Getter for composite id
@@ -96,4 +104,12 @@ public class Enrollment {
     public void setMark(String mark) {
         this.mark = mark;
     } // Setter for mark
+
+    public Long getVersion() {
+        return version;
+    } // Getter for version (set by Hibernate)
+
+    public Long getSchoolId() {
+        return schoolId;
+    } // Getter for schoolId (set by Hibernate)
 }
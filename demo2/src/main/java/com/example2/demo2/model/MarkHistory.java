@@ -0,0 +1,69 @@
+package com.example2.demo2.model; // Package for entities
+
+import jakarta.persistence.*; // JPA annotations
+import org.hibernate.annotations.TenantId; // School discriminator
+import org.hibernate.annotations.Immutable; // Rows are never updated
+import java.time.Instant; // Change timestamp
+
+@Entity // JPA entity (read side; rows are inserted in JDBC batches by MarkAuditService)
+@Immutable // Append-only: Hibernate never issues UPDATEs for it
+@Table(name = "enrollment_mark_history") // Maps to "enrollment_mark_history" table
+public class MarkHistory implements SchoolOwned {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY) // PK with identity generation
+    private Long id; // History row id (also the paging key)
+
+    @TenantId // Set from the current school on insert; every query is restricted to it
+    @Column(name = "school_id", nullable = false, updatable = false)
+    private Long schoolId; // Owning school (tenant)
+
+    @Column(name = "class_id", nullable = false)
+    private Long classId; // Class of the enrollment
+
+    @Column(name = "student_id", nullable = false)
+    private Long studentId; // Student of the enrollment
+
+    @Column(name = "teacher_id")
+    private Long teacherId; // Teacher who made the change (null if not a teacher)
+
+    @Column(name = "old_mark", length = 10)
+    private String oldMark; // Mark before the change
+
+    @Column(name = "new_mark", length = 10)
+    private String newMark; // Mark after the change
+
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt; // When the change was made
+
+    public Long getId() {
+        return id;
+    } // Getter for id
+
+    public Long getClassId() {
+        return classId;
+    } // Getter for classId
+
+    public Long getStudentId() {
+        return studentId;
+    } // Getter for studentId
+
+    public Long getTeacherId() {
+        return teacherId;
+    } // Getter for teacherId
+
+    public String getOldMark() {
+        return oldMark;
+    } // Getter for oldMark
+
+    public String getNewMark() {
+        return newMark;
+    } // Getter for newMark
+
+    public Instant getChangedAt() {
+        return changedAt;
+    } // Getter for changedAt
+
+    public Long getSchoolId() {
+        return schoolId;
+    } // Getter for schoolId (set by Hibernate)
+}
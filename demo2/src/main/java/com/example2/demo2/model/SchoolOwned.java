@@ -0,0 +1,6 @@
+package com.example2.demo2.model; // Package for entities
+
+// Entity that belongs to one school (its @TenantId column).
+public interface SchoolOwned {
+    Long getSchoolId(); // Owning school
+}
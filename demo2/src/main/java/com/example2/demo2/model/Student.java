@@ -1,21 +1,24 @@
 package com.example2.demo2.model; // Entity package
 
 import com.fasterxml.jackson.annotation.JsonIgnore; // Exclude password from JSON
-import com.fasterxml.jackson.annotation.JsonIgnoreProperties; // Ignore proxy fields
 import jakarta.persistence.*; // JPA annotations
+import org.hibernate.annotations.TenantId; // School discriminator
 
-@JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" }) // Avoid serializing Hibernate proxy fields
 @Entity // JPA entity
-@Table(name = "students") // Maps to "students" table
-public class Student {
+@Table(name = "students", uniqueConstraints = @UniqueConstraint(name = "uk_students_school_email", columnNames = { "school_id", "email" })) // Email is unique per school
+public class Student implements SchoolOwned {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY) // PK with identity generation
     private Long id; // Student ID
 
+    @TenantId // Set from the current school on insert; every query is restricted to it
+    @Column(name = "school_id", nullable = false, updatable = false)
+    private Long schoolId; // Owning school (tenant)
+
     @Column(nullable = false, length = 50)
     private String name; // Name: required, max 50
-    @Column(nullable = false, length = 50, unique = true)
-    private String email; // Unique email: required, max 50
+    @Column(nullable = false, length = 50)
+    private String email; // Email: required, max 50, unique within the school
     @Column(nullable = false, length = 50)
     private String role; // Role string ("STUDENT")
     @JsonIgnore // Never serialize the password
@@ -61,4 +64,8 @@ public class Student {
     public void setPassword(String password) {
         this.password = password;
     } // Setter for password
+
+    public Long getSchoolId() {
+        return schoolId;
+    } // Getter for schoolId (set by Hibernate)
 }
@@ -1,21 +1,24 @@
 package com.example2.demo2.model; // Entity package
 
 import com.fasterxml.jackson.annotation.JsonIgnore; // Hide password in JSON
-import com.fasterxml.jackson.annotation.JsonIgnoreProperties; // Ignore proxy metadata
 import jakarta.persistence.*; // JPA annotations
+import org.hibernate.annotations.TenantId; // School discriminator
 
-@JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" }) // Prevent proxy fields leaking into JSON
 @Entity // Marks as JPA entity
-@Table(name = "teachers") // Maps to "teachers" table
-public class Teacher {
+@Table(name = "teachers", uniqueConstraints = @UniqueConstraint(name = "uk_teachers_school_email", columnNames = { "school_id", "email" })) // Email is unique per school
+public class Teacher implements SchoolOwned {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY) // Auto-increment PK
     private Long id; // Teacher ID
 
+    @TenantId // Set from the current school on insert; every query is restricted to it
+    @Column(name = "school_id", nullable = false, updatable = false)
+    private Long schoolId; // Owning school (tenant)
+
     @Column(nullable = false, length = 50)
     private String name; // Name column: required
-    @Column(nullable = false, length = 50, unique = true)
-    private String email; // Email: required + unique
+    @Column(nullable = false, length = 50)
+    private String email; // Email: required, unique within the school
     @Column(nullable = false, length = 50)
     private String role; // Role string ("TEACHER")
 
@@ -75,4 +78,8 @@ public class Teacher {
     public void setClassroom(Classroom classroom) {
         this.classroom = classroom;
     } // Setter for classroom
+
+    public Long getSchoolId() {
+        return schoolId;
+    } // Getter for schoolId (set by Hibernate)
 }
@@ -1,9 +1,39 @@
 package com.example2.demo2.repo; // Package for repository interfaces
 
+import com.example2.demo2.dto.ClassroomRes; // Classroom projection
 import com.example2.demo2.model.Classroom; // Import the Classroom JPA entity
+import org.springframework.data.domain.Limit; // Row limit for keyset pages
 import org.springframework.data.jpa.repository.JpaRepository; // Base CRUD repository
+import org.springframework.data.jpa.repository.Modifying; // Bulk DELETE queries
+import org.springframework.data.jpa.repository.Query; // Annotation for JPQL
+import java.util.Collection; // Bulk parameter type
+import java.util.List; // Collections
+import java.util.Optional; // Optional result container
 
 // Repository for Classroom entities with primary key type Long.
 // All standard CRUD/paging methods are inherited from JpaRepository.
 public interface ClassroomRepository extends JpaRepository<Classroom, Long> {
+
+    // Every class as (id, name) DTOs.
+    @Query("select new com.example2.demo2.dto.ClassroomRes(c.id, c.name) from Classroom c order by c.id")
+    List<ClassroomRes> findAllRes();
+
+    // One class as an (id, name) DTO.
+    @Query("select new com.example2.demo2.dto.ClassroomRes(c.id, c.name) from Classroom c where c.id = :id")
+    Optional<ClassroomRes> findResById(Long id);
+
+    // Which of the given ids exist (primary-key lookups, no rows loaded).
+    @Query("select c.id from Classroom c where c.id in :ids")
+    List<Long> findExistingIds(Collection<Long> ids);
+
+    // Keyset page: classes with id > afterId in id order.
+    @Query("select new com.example2.demo2.dto.ClassroomRes(c.id, c.name) from Classroom c " +
+            "where c.id > :afterId order by c.id")
+    List<ClassroomRes> findPage(Long afterId, Limit limit);
+
+    // Set-based delete of many classes (no entity loads). Enrollments and teachers
+    // must be gone first (foreign keys).
+    @Modifying
+    @Query("delete from Classroom c where c.id in :ids")
+    int deleteByIds(Collection<Long> ids);
 }
@@ -1,11 +1,21 @@
 package com.example2.demo2.repo; // Package for repository interfaces
 
+import com.example2.demo2.dto.DashboardMarkRes; // Student dashboard projection row
+import com.example2.demo2.dto.EnrollmentRes; // One enrollment with its version
+import com.example2.demo2.dto.GradebookRowRes; // Gradebook projection row
+import com.example2.demo2.dto.StudentMarkRes; // (studentId, mark) projection row
 import com.example2.demo2.model.Enrollment; // Enrollment entity (join table + mark)
 import com.example2.demo2.model.Enrollment.Id; // Embedded/composite key type
+import org.hibernate.jpa.HibernateHints; // Hint names (fetch size, read-only)
 import org.springframework.data.jpa.repository.JpaRepository; // Base CRUD repository
+import org.springframework.data.jpa.repository.Modifying; // Bulk UPDATE queries
+import jakarta.persistence.QueryHint; // JPA query hint
 import org.springframework.data.jpa.repository.Query; // For JPQL custom queries
+import org.springframework.data.jpa.repository.QueryHints; // Fetch-size hints for streaming
+import java.util.Collection; // Bulk parameter type
 import java.util.List; // Collections
 import java.util.Optional; // For possibly-absent results
+import java.util.stream.Stream; // Forward-only result streams
 
 // Repository for Enrollment entities. Primary key is composite (Enrollment.Id).
 public interface EnrollmentRepository extends JpaRepository<Enrollment, Id> {
@@ -15,12 +25,86 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Id> {
     // Returns all enrollments for a given classroom.
     List<Enrollment> findByClassroomId(Long classId);
 
-    // Custom JPQL to fetch exactly one enrollment for a given class + student pair.
-    // Using explicit query avoids ambiguity and clarifies the join conditions.
-    @Query("select e from Enrollment e where e.classroom.id = :classId and e.student.id = :studentId")
-    Optional<Enrollment> findOneByClassIdAndStudentId(Long classId, Long studentId);
+    // One enrollment (mark + version) for a given class + student pair, projected
+    // straight from the row without loading the entity or its associations.
+    @Query("select new com.example2.demo2.dto.EnrollmentRes(e.id.studentId, e.id.classId, e.mark, e.version) " +
+            "from Enrollment e where e.id.classId = :classId and e.id.studentId = :studentId")
+    Optional<EnrollmentRes> findRes(Long classId, Long studentId);
+
+    // Mark write as a single compare-and-set UPDATE on the primary key: writes (and
+    // bumps the version) only if the row is still at the expected version, without
+    // loading the entity. Returns 0 when the row is missing or was changed in between.
+    @Modifying
+    @Query("update Enrollment e set e.mark = :mark, e.version = e.version + 1 " +
+            "where e.id.classId = :classId and e.id.studentId = :studentId and e.version = :version")
+    int updateMarkIfVersion(Long classId, Long studentId, String mark, Long version);
+
+    // Student ids enrolled in a class, read from the primary key index alone.
+    @Query("select e.id.studentId from Enrollment e where e.id.classId = :classId")
+    List<Long> findStudentIdsByClassId(Long classId);
+
+    // Set-based deletes of every enrollment of the given classes / students: one
+    // statement per IN list instead of one delete per row.
+    @Modifying
+    @Query("delete from Enrollment e where e.id.classId in :classIds")
+    int deleteByClassIds(Collection<Long> classIds);
+
+    @Modifying
+    @Query("delete from Enrollment e where e.id.studentId in :studentIds")
+    int deleteByStudentIds(Collection<Long> studentIds);
 
     // Spring Data derived query: navigates "student.id" via "StudentId".
     // Returns all enrollments for a given student.
     List<Enrollment> findByStudentId(Long studentId);
+
+    // Load every enrollment of a class for the given students in one statement.
+    // Student and classroom are fetched in the same join so the eager
+    // associations don't trigger one extra select per row.
+    @Query("select e from Enrollment e join fetch e.student join fetch e.classroom " +
+            "where e.classroom.id = :classId and e.student.id in :studentIds")
+    List<Enrollment> findByClassIdAndStudentIds(Long classId, Collection<Long> studentIds);
+
+    // Gradebook for a teacher's class in one statement: teacher → classroom, left
+    // joined to its enrollments and students, projected straight into DTO rows.
+    // An empty class still yields one row (with a null student) so the class name
+    // is always returned.
+    @Query("select new com.example2.demo2.dto.GradebookRowRes(c.id, c.name, s.id, s.name, s.email, e.mark) " +
+            "from Teacher t join t.classroom c " +
+            "left join Enrollment e on e.classroom = c left join e.student s " +
+            "where t.id = :teacherId order by s.name, s.id")
+    List<GradebookRowRes> findGradebookByTeacherId(Long teacherId);
+
+    // A student's classes and marks for the dashboard: one join over
+    // Enrollment → Classroom projected into DTO rows.
+    @Query("select new com.example2.demo2.dto.DashboardMarkRes(c.id, c.name, e.mark) " +
+            "from Enrollment e join e.classroom c where e.student.id = :studentId order by c.name, c.id")
+    List<DashboardMarkRes> findDashboardMarks(Long studentId);
+
+    // Just (studentId, mark) for every enrollment of a class — seeds the class statistics.
+    @Query("select new com.example2.demo2.dto.StudentMarkRes(e.student.id, e.mark) " +
+            "from Enrollment e where e.classroom.id = :classId")
+    List<StudentMarkRes> findMarksByClassId(Long classId);
+
+    // Every enrollment as a flat projection row, streamed forward-only from the
+    // JDBC cursor in fetch-size chunks. Rows are DTOs, so nothing accumulates in
+    // the persistence context. The stream must be consumed inside a transaction
+    // and closed.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.example2.demo2.dto.GradebookRowRes(c.id, c.name, s.id, s.name, s.email, e.mark) " +
+            "from Enrollment e join e.classroom c join e.student s order by c.id, s.id")
+    Stream<GradebookRowRes> streamAllRows();
+
+    // Roster of one class (students + marks), streamed the same way.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.example2.demo2.dto.GradebookRowRes(c.id, c.name, s.id, s.name, s.email, e.mark) " +
+            "from Enrollment e join e.classroom c join e.student s where c.id = :classId order by s.name, s.id")
+    Stream<GradebookRowRes> streamRowsByClassId(Long classId);
+
+    // Every student with their enrollments, ordered by student so report cards can
+    // be built in one pass: one row per enrollment, and a single row with null
+    // class and mark for a student without any. Streamed the same way.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.example2.demo2.dto.GradebookRowRes(c.id, c.name, s.id, s.name, s.email, e.mark) " +
+            "from Student s left join Enrollment e on e.student = s left join e.classroom c order by s.id, c.id")
+    Stream<GradebookRowRes> streamReportRows();
 }
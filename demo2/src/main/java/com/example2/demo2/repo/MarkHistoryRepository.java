@@ -0,0 +1,28 @@
+package com.example2.demo2.repo; // Package for repository interfaces
+
+import com.example2.demo2.dto.MarkAuditRes; // Audit row projection
+import com.example2.demo2.model.MarkHistory; // Mark history entity
+import org.springframework.data.domain.Limit; // Page size (+1 probe row)
+import org.springframework.data.jpa.repository.JpaRepository; // Base CRUD repository
+import org.springframework.data.jpa.repository.Query; // For JPQL custom queries
+import java.util.List; // Collections
+
+// Read side of the mark audit trail. Each page is a keyset seek on one of the
+// (student_id, id) / (class_id, id) indexes.
+public interface MarkHistoryRepository extends JpaRepository<MarkHistory, Long> {
+
+    // One student's changes after the cursor, oldest first.
+    @Query("select new com.example2.demo2.dto.MarkAuditRes(h.id, h.classId, h.studentId, h.teacherId, h.oldMark, h.newMark, h.changedAt) " +
+            "from MarkHistory h where h.studentId = :studentId and h.id > :afterId order by h.id")
+    List<MarkAuditRes> findPageByStudent(Long studentId, Long afterId, Limit limit);
+
+    // One class's changes after the cursor, oldest first.
+    @Query("select new com.example2.demo2.dto.MarkAuditRes(h.id, h.classId, h.studentId, h.teacherId, h.oldMark, h.newMark, h.changedAt) " +
+            "from MarkHistory h where h.classId = :classId and h.id > :afterId order by h.id")
+    List<MarkAuditRes> findPageByClass(Long classId, Long afterId, Limit limit);
+
+    // One enrollment's changes (student in class) after the cursor, oldest first.
+    @Query("select new com.example2.demo2.dto.MarkAuditRes(h.id, h.classId, h.studentId, h.teacherId, h.oldMark, h.newMark, h.changedAt) " +
+            "from MarkHistory h where h.studentId = :studentId and h.classId = :classId and h.id > :afterId order by h.id")
+    List<MarkAuditRes> findPageByStudentAndClass(Long studentId, Long classId, Long afterId, Limit limit);
+}
@@ -1,28 +1,60 @@
 package com.example2.demo2.repo; // Package for repository interfaces
 
+import com.example2.demo2.dto.StudentRes; // Student projection (no password)
 import com.example2.demo2.model.Student; // Student JPA entity
+import org.springframework.data.domain.Limit; // Row limit for keyset pages
 import org.springframework.data.jpa.repository.JpaRepository; // Base CRUD repository
+import org.springframework.data.jpa.repository.Modifying; // Bulk DELETE queries
 import org.springframework.data.jpa.repository.Query; // Annotation for JPQL
+import java.util.Collection; // Bulk parameter type
 import java.util.List; // Collections
 import java.util.Optional; // Optional result container
 
 // Repository for Student entities (primary key Long).
 public interface StudentRepository extends JpaRepository<Student, Long> {
 
-    // Derived query to find a student by unique email.
+    // Derived query to find the current school's student by email (unique per school).
     Optional<Student> findByEmail(String email);
 
+    // Just the student's name (no password hash or other columns).
+    @Query("select s.name from Student s where s.id = :id")
+    Optional<String> findNameById(Long id);
+
+    // Which of the given ids exist (primary-key lookups, no rows loaded).
+    @Query("select s.id from Student s where s.id in :ids")
+    List<Long> findExistingIds(Collection<Long> ids);
+
+    // Every student as DTOs (only the returned columns are selected).
+    @Query("select new com.example2.demo2.dto.StudentRes(s.id, s.name, s.email, s.role) from Student s order by s.id")
+    List<StudentRes> findAllRes();
+
     // Return students enrolled in a specific class.
     // JPQL selects the student from the Enrollment association where the classroom
     // id matches.
-    @Query("select e.student from Enrollment e where e.classroom.id = :classId")
-    List<Student> findStudentsByClassId(Long classId);
+    @Query("select new com.example2.demo2.dto.StudentRes(s.id, s.name, s.email, s.role) " +
+            "from Enrollment e join e.student s where e.classroom.id = :classId")
+    List<StudentRes> findStudentsByClassId(Long classId);
 
-    // Return distinct students taught by a teacher.
+    // Return the students taught by a teacher.
     // The teacher teaches exactly one class; we use a subquery to fetch that class
-    // id.
-    // DISTINCT prevents duplicates if multiple enrollments could otherwise match.
-    @Query("select distinct e.student from Enrollment e " +
+    // id. (student, class) is the enrollment key, so no DISTINCT is needed.
+    @Query("select new com.example2.demo2.dto.StudentRes(s.id, s.name, s.email, s.role) " +
+            "from Enrollment e join e.student s " +
             "where e.classroom.id = (select t.classroom.id from Teacher t where t.id = :teacherId)")
-    List<Student> findStudentsByTeacherId(Long teacherId);
+    List<StudentRes> findStudentsByTeacherId(Long teacherId);
+
+    // Keyset page: students with id > afterId in id order, optionally filtered by
+    // name and/or email prefix. Prefixes must already be LIKE-escaped with '!'.
+    @Query("select new com.example2.demo2.dto.StudentRes(s.id, s.name, s.email, s.role) " +
+            "from Student s where s.id > :afterId " +
+            "and (:name is null or s.name like concat(:name, '%') escape '!') " +
+            "and (:email is null or s.email like concat(:email, '%') escape '!') " +
+            "order by s.id")
+    List<StudentRes> findPage(Long afterId, String name, String email, Limit limit);
+
+    // Set-based delete of many students (no entity loads). Their enrollments must
+    // be deleted first (foreign key).
+    @Modifying
+    @Query("delete from Student s where s.id in :ids")
+    int deleteByIds(Collection<Long> ids);
 }
@@ -1,16 +1,40 @@
 package com.example2.demo2.repo; // Package for repository interfaces
 
+import com.example2.demo2.dto.TeacherRes; // Teacher + class projection (no password)
 import com.example2.demo2.model.Teacher; // Teacher JPA entity
+import org.springframework.data.domain.Limit; // Row limit for keyset pages
 import org.springframework.data.jpa.repository.JpaRepository; // Base CRUD repository
 import org.springframework.data.jpa.repository.Query; // For custom JPQL
+import java.util.Collection; // Bulk parameter type
 import java.util.List; // Collections
+import java.util.Optional; // Optional result container
 
 // Repository for Teacher entities (primary key Long).
 public interface TeacherRepository extends JpaRepository<Teacher, Long> {
 
-    // Fetch all teachers and eagerly load their classroom in a single query.
-    // 'join fetch' avoids N+1 queries and LazyInitializationException when
-    // accessing classroom outside tx.
-    @Query("select t from Teacher t join fetch t.classroom")
-    List<Teacher> findAllWithClassroom();
+    // All teachers with their class name in a single join, as DTOs (no N+1, no
+    // lazy proxies, password column never read).
+    @Query("select new com.example2.demo2.dto.TeacherRes(t.id, t.name, t.email, t.role, c.id, c.name) " +
+            "from Teacher t join t.classroom c order by t.id")
+    List<TeacherRes> findAllRes();
+
+    // Derived query to find the current school's teacher by email (served by the (school_id, email) key).
+    Optional<Teacher> findByEmail(String email);
+
+    // Id of the class a teacher owns, read from the FK column without loading the Teacher.
+    @Query("select t.classroom.id from Teacher t where t.id = :teacherId")
+    Optional<Long> findClassIdByTeacherId(Long teacherId);
+
+    // Which of the given classes still have a teacher assigned (teachers(class_id) index).
+    @Query("select distinct t.classroom.id from Teacher t where t.classroom.id in :classIds")
+    List<Long> findTaughtClassIds(Collection<Long> classIds);
+
+    // Keyset page of teachers (class name joined in the same query), optionally
+    // filtered by name and/or email prefix. Prefixes must already be LIKE-escaped with '!'.
+    @Query("select new com.example2.demo2.dto.TeacherRes(t.id, t.name, t.email, t.role, c.id, c.name) " +
+            "from Teacher t join t.classroom c where t.id > :afterId " +
+            "and (:name is null or t.name like concat(:name, '%') escape '!') " +
+            "and (:email is null or t.email like concat(:email, '%') escape '!') " +
+            "order by t.id")
+    List<TeacherRes> findPage(Long afterId, String name, String email, Limit limit);
 }
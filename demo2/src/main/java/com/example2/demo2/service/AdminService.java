@@ -4,21 +4,59 @@ package com.example2.demo2.service; // Package containing service-layer classes
 import com.example2.demo2.dto.*;
 import com.example2.demo2.model.*; // Import JPA entity classes
 import com.example2.demo2.repo.*; // Import Spring Data repositories
-import org.springframework.security.crypto.password.PasswordEncoder; // For hashing passwords
+import com.example2.demo2.config.AuthTokens; // Revokes tokens that name a teacher's old class
+import com.example2.demo2.config.CacheNames; // Cache names for eviction
+import com.example2.demo2.config.ConcurrencyLimits; // Adaptive limits of the endpoint groups
+import com.example2.demo2.config.SchoolContext; // Current school (tenant)
+import com.example2.demo2.error.BadRequestException; // 400 for invalid roster requests
+import com.example2.demo2.error.ConflictException; // 409 for duplicate enrollments and concurrent changes that break a batch
+import org.springframework.cache.annotation.CacheEvict; // Drop cached entries on writes
+import org.springframework.cache.annotation.Caching; // Several evictions on one method
+import org.springframework.dao.DataIntegrityViolationException; // Concurrent roster change or enrollment (duplicate key / FK)
+import org.springframework.jdbc.core.JdbcTemplate; // Batched roster inserts/deletes
 import org.springframework.stereotype.Service; // Marks class as a Spring service bean
+import org.springframework.transaction.annotation.Propagation; // Transaction propagation modes
 import org.springframework.transaction.annotation.Transactional; // Transaction boundary & settings
+import org.springframework.transaction.support.TransactionTemplate; // Roster transaction inside the idempotency guard
 
+import java.util.ArrayList; // Unknown ids
+import java.util.HashSet; // Current roster
+import java.util.LinkedHashSet; // Requested roster (request order, no duplicates)
 import java.util.List; // Java List interface
+import java.util.NoSuchElementException; // Missing rows
+import java.util.Objects; // Null id filter
+import java.util.Set; // Student id sets
 
 @Service // Register this class as a Spring-managed service component
 @Transactional // Make all public methods transactional by default (read/write)
 public class AdminService { // Service exposing admin capabilities (classes, users, enrollments)
 
+    private static final String INSERT_ENROLLMENT = // Plain JDBC batch insert (version defaults to 0)
+            "insert into enrollments (student_id, class_id, mark, school_id) values (?, ?, null, ?)";
+    private static final String DELETE_ENROLLMENT =
+            "delete from enrollments where class_id = ? and student_id = ?";
+    private static final int BATCH_SIZE = 1000; // Rows per JDBC batch / ids per IN list
+
+    private record RosterOp(String op, Long classId, Set<Long> studentIds) {} // Idempotency fingerprint
+
     private final ClassroomRepository classRepo; // Repository for Classroom entities
     private final TeacherRepository teacherRepo; // Repository for Teacher entities
     private final StudentRepository studentRepo; // Repository for Student entities
     private final EnrollmentRepository enrollRepo; // Repository for Enrollment entities
-    private final PasswordEncoder encoder; // Encoder used to hash passwords
+    private final PasswordHashingService hashing; // Bounded BCrypt pool for password hashing
+    private final KeysetPaging paging; // Cursor/page-size helpers for list endpoints
+    private final LookupService lookups; // Cached class list / classroom lookups
+    private final DashboardVersions dashboards; // Student dashboard ETag versions
+    private final ClassStatsService stats; // Incremental class statistics
+    private final MarkAuditService audit; // Mark change history
+    private final MarkEventHub events; // Push channel for dashboard/gradebook changes
+    private final IdempotencyService idempotency; // Replays retried roster requests
+    private final JdbcTemplate jdbc; // Roster batches
+    private final TransactionTemplate tx; // Roster transactions
+    private final SchoolContext schools; // School of raw JDBC inserts
+    private final SearchService search; // Typeahead index
+    private final AuthTokens tokens; // Login tokens
+    private final ConcurrencyLimits limits; // Load shedding state
 
     // Constructor injection of all dependencies (recommended for
     // immutability/testability)
@@ -26,99 +64,240 @@ public class AdminService { // Service exposing admin capabilities (classes, use
             TeacherRepository teacherRepo,
             StudentRepository studentRepo,
             EnrollmentRepository enrollRepo,
-            PasswordEncoder encoder) {
+            PasswordHashingService hashing,
+            KeysetPaging paging,
+            LookupService lookups,
+            DashboardVersions dashboards,
+            ClassStatsService stats,
+            MarkAuditService audit,
+            MarkEventHub events,
+            IdempotencyService idempotency,
+            JdbcTemplate jdbc,
+            TransactionTemplate tx,
+            SchoolContext schools,
+            SearchService search,
+            AuthTokens tokens,
+            ConcurrencyLimits limits) {
         this.classRepo = classRepo; // Assign classroom repo
         this.teacherRepo = teacherRepo; // Assign teacher repo
         this.studentRepo = studentRepo; // Assign student repo
         this.enrollRepo = enrollRepo; // Assign enrollment repo
-        this.encoder = encoder; // Assign password encoder
+        this.hashing = hashing; // Assign hashing service
+        this.paging = paging; // Assign paging helper
+        this.lookups = lookups; // Assign cached lookups
+        this.dashboards = dashboards; // Assign dashboard versions
+        this.stats = stats; // Assign statistics service
+        this.audit = audit; // Assign audit trail
+        this.events = events; // Assign event hub
+        this.idempotency = idempotency; // Assign idempotency guard
+        this.jdbc = jdbc; // Assign JDBC template
+        this.tx = tx; // Assign transaction template
+        this.schools = schools; // Assign school context
+        this.search = search; // Assign search index
+        this.tokens = tokens; // Assign token issuer
+        this.limits = limits; // Assign concurrency limits
     }
 
     // ---- Classrooms ----
-    public Classroom createClass(CreateClassroomReq req) { // Create a new class from request DTO
+    @CacheEvict(cacheNames = CacheNames.CLASSES, allEntries = true) // Class list changed
+    public ClassroomRes createClass(CreateClassroomReq req) { // Create a new class from request DTO
         Classroom c = new Classroom(); // Instantiate entity
         c.setName(req.name()); // Copy name from request
-        return classRepo.save(c); // Persist and return saved entity
+        c = classRepo.save(c); // Persist (assigns id)
+        ClassroomRes res = new ClassroomRes(c.getId(), c.getName()); // DTO
+        search.classSaved(res); // Searchable once committed
+        return res;
+    }
+
+    @Transactional(readOnly = true) // Pure read
+    public List<ClassroomRes> listClasses() { // Return all classes
+        return lookups.allClasses(); // Served from cache after the first call
     }
 
-    public List<Classroom> listClasses() { // Return all classes
-        return classRepo.findAll(); // Delegate to repository
+    @Transactional(readOnly = true) // Pure read
+    public PageRes<ClassroomRes> pageClasses(String cursor, Integer limit) { // One keyset page of classes
+        int size = paging.size(limit); // Clamp page size
+        List<ClassroomRes> rows = classRepo.findPage(paging.after(cursor), paging.probe(size));
+        return paging.page(rows, size, ClassroomRes::id); // Trim probe row + next cursor
     }
 
-    public Classroom updateClass(Long id, CreateClassroomReq req) { // Update an existing class name
+    @Caching(evict = { // Name changed: drop the list and this classroom
+            @CacheEvict(cacheNames = CacheNames.CLASSES, allEntries = true),
+            @CacheEvict(cacheNames = CacheNames.CLASSROOMS, key = "#id") })
+    public ClassroomRes updateClass(Long id, CreateClassroomReq req) { // Update an existing class name
         Classroom c = classRepo.findById(id).orElseThrow(); // Load or 404 if missing
-        c.setName(req.name()); // Apply new name
-        return classRepo.save(c); // Save updates
+        c.setName(req.name()); // Apply new name (dirty-checked)
+        dashboards.touchAll(); // Class names appear on every dashboard
+        ClassroomRes res = new ClassroomRes(c.getId(), c.getName()); // DTO
+        search.classSaved(res); // Re-index the new name
+        return res;
+    }
+
+    @Caching(evict = { // Class gone: drop the list and this classroom
+            @CacheEvict(cacheNames = CacheNames.CLASSES, allEntries = true),
+            @CacheEvict(cacheNames = CacheNames.CLASSROOMS, key = "#id") })
+    public void deleteClass(Long id) { // Delete a class and its enrollments
+        deleteClassRows(List.of(id));
     }
 
-    public void deleteClass(Long id) { // Delete a class by id
-        classRepo.deleteById(id); // Remove entity
+    @Caching(evict = { // Classes gone: drop the list and every cached classroom
+            @CacheEvict(cacheNames = CacheNames.CLASSES, allEntries = true),
+            @CacheEvict(cacheNames = CacheNames.CLASSROOMS, allEntries = true) })
+    public BulkDeleteRes deleteClasses(List<Long> ids) { // Delete many classes and their enrollments
+        return deleteClassRows(ids);
+    }
+
+    // Set-based: per BATCH_SIZE ids one teacher check, one enrollment DELETE and one
+    // class DELETE, all in the caller's transaction. Classes that still have a
+    // teacher are refused (409) rather than leaving teachers without a class.
+    private BulkDeleteRes deleteClassRows(List<Long> ids) {
+        List<Long> classIds = distinctIds(ids);
+        int classes = 0, enrollments = 0;
+        for (List<Long> chunk : chunks(classIds)) {
+            List<Long> taught = teacherRepo.findTaughtClassIds(chunk);
+            if (!taught.isEmpty()) // Rolls back any chunk already deleted
+                throw new ConflictException("Classes still have teachers assigned: " + taught
+                        + "; reassign or delete those teachers first");
+            enrollments += enrollRepo.deleteByClassIds(chunk); // Dependent rows first (foreign key)
+            classes += classRepo.deleteByIds(chunk);
+        }
+        dashboards.touchAll(); // Classes may appear on any dashboard
+        classIds.forEach(stats::invalidate); // Drop the classes' statistics
+        search.classesDeleted(classIds); // No longer searchable
+        return new BulkDeleteRes(classes, enrollments);
     }
 
     // ---- Teachers ----
-    public Teacher createTeacher(CreateTeacherReq req) { // Create a teacher assigned to a class
-        Classroom c = classRepo.findById(req.classId()).orElseThrow(); // Ensure target class exists
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // Hash without holding a DB connection; save() has its own
+    public TeacherRes createTeacher(CreateTeacherReq req) { // Create a teacher assigned to a class
+        ClassroomRes classroom = lookups.classroom(req.classId()); // Ensure target class exists (cached)
+        Classroom c = classRepo.getReferenceById(req.classId()); // FK reference without a select
         Teacher t = new Teacher(); // New teacher entity
         t.setName(req.name()); // Copy name
         t.setEmail(req.email()); // Copy email
         t.setRole("TEACHER"); // Fixed role for teachers
-        t.setPassword(encoder.encode(req.password())); // Hash and set password
+        t.setPassword(hashing.encode(req.password())); // Hash on the BCrypt pool (429 when saturated)
         t.setClassroom(c); // Link teacher → classroom
-        return teacherRepo.save(t); // Persist and return
+        t = teacherRepo.save(t); // Persist (assigns id)
+        TeacherRes res = toRes(t, classroom); // DTO
+        search.teacherSaved(res); // Searchable once committed
+        return res;
     }
 
-    public List<Teacher> listTeachers() { // List all teachers (with classroom eagerly fetched)
-        return teacherRepo.findAllWithClassroom(); // Custom repo method that joins classroom
+    @Transactional(readOnly = true) // Pure read
+    public List<TeacherRes> listTeachers() { // List all teachers with their class
+        return teacherRepo.findAllRes(); // One join query straight into DTOs
     }
 
-    public Teacher updateTeacher(Long id, UpdateTeacherReq req) { // Update name/email/class
+    @Transactional(readOnly = true) // Pure read
+    public PageRes<TeacherRes> pageTeachers(String cursor, Integer limit, String name, String email) { // Filtered keyset page
+        int size = paging.size(limit); // Clamp page size
+        List<TeacherRes> rows = teacherRepo.findPage(paging.after(cursor), // Seek past the cursor
+                KeysetPaging.likePrefix(name), KeysetPaging.likePrefix(email), paging.probe(size));
+        return paging.page(rows, size, TeacherRes::id); // Trim probe row + next cursor
+    }
+
+    @CacheEvict(cacheNames = CacheNames.TEACHER_CLASS, key = "#id") // Class assignment may change
+    public TeacherRes updateTeacher(Long id, UpdateTeacherReq req) { // Update name/email/class
         Teacher t = teacherRepo.findById(id).orElseThrow(); // Load or fail
         t.setName(req.name()); // Update name
         t.setEmail(req.email()); // Update email
         if (req.classId() != null) { // If class change requested
-            Classroom c = classRepo.findById(req.classId()).orElseThrow(); // Validate class
-            t.setClassroom(c); // Re-assign class
+            lookups.classroom(req.classId()); // Validate class (cached)
+            if (!req.classId().equals(t.getClassroom().getId())) // Login tokens name the old class
+                AfterCommit.run(() -> tokens.revokeTeacher(id));
+            t.setClassroom(classRepo.getReferenceById(req.classId())); // Re-assign class by reference
         }
-        return teacherRepo.save(t); // Persist changes
+        TeacherRes res = toRes(t, lookups.classroom(t.getClassroom().getId())); // Class name from cache, not the lazy proxy
+        search.teacherSaved(res); // Re-index name/email
+        return res;
     }
 
+    @CacheEvict(cacheNames = CacheNames.TEACHER_CLASS, key = "#id") // Teacher gone
     public void deleteTeacher(Long id) { // Remove a teacher by id
         teacherRepo.deleteById(id); // Delegate to repository
+        search.teacherDeleted(id); // No longer searchable
+        AfterCommit.run(() -> tokens.revokeTeacher(id)); // Existing logins stop working
     }
 
     // ---- Students ----
-    public Student createStudent(CreateStudentReq req) { // Create a new student
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // Hash without holding a DB connection; save() has its own
+    public StudentRes createStudent(CreateStudentReq req) { // Create a new student
         Student s = new Student(); // New student entity
         s.setName(req.name()); // Copy name
         s.setEmail(req.email()); // Copy email
         s.setRole("STUDENT"); // Fixed role for students
-        s.setPassword(encoder.encode(req.password())); // Hash and set password
-        return studentRepo.save(s); // Persist and return
+        s.setPassword(hashing.encode(req.password())); // Hash on the BCrypt pool (429 when saturated)
+        StudentRes res = toRes(studentRepo.save(s)); // Persist (assigns id)
+        search.studentSaved(res); // Searchable once committed
+        return res;
+    }
+
+    @Transactional(readOnly = true) // Pure read
+    public List<StudentRes> listStudents() { // List all students
+        return studentRepo.findAllRes(); // Only the returned columns (no password hashes)
     }
 
-    public List<Student> listStudents() { // List all students
-        return studentRepo.findAll(); // Delegate to repository
+    @Transactional(readOnly = true) // Pure read
+    public PageRes<StudentRes> pageStudents(String cursor, Integer limit, String name, String email) { // Filtered keyset page
+        int size = paging.size(limit); // Clamp page size
+        List<StudentRes> rows = studentRepo.findPage(paging.after(cursor), // Seek past the cursor
+                KeysetPaging.likePrefix(name), KeysetPaging.likePrefix(email), paging.probe(size));
+        return paging.page(rows, size, StudentRes::id); // Trim probe row + next cursor
     }
 
-    public Student updateStudent(Long id, UpdateStudentReq req) { // Update student name/email
+    public StudentRes updateStudent(Long id, UpdateStudentReq req) { // Update student name/email
         Student s = studentRepo.findById(id).orElseThrow(); // Load or fail
         s.setName(req.name()); // Update name
-        s.setEmail(req.email()); // Update email
-        return studentRepo.save(s); // Persist changes
+        s.setEmail(req.email()); // Update email (both dirty-checked)
+        dashboards.touchStudent(id); // Name shown on the dashboard
+        StudentRes res = toRes(s); // DTO
+        search.studentSaved(res); // Re-index name/email
+        return res;
+    }
+
+    public void deleteStudent(Long id) { // Delete a student and their enrollments
+        deleteStudents(List.of(id));
     }
 
-    public void deleteStudent(Long id) { // Delete a student
-        studentRepo.deleteById(id); // Delegate to repository
+    // Set-based: per BATCH_SIZE ids one enrollment DELETE and one student DELETE,
+    // all in one transaction. Unknown ids are ignored. Mark history is kept.
+    public BulkDeleteRes deleteStudents(List<Long> ids) { // Delete many students and their enrollments
+        List<Long> studentIds = distinctIds(ids);
+        int students = 0, enrollments = 0;
+        for (List<Long> chunk : chunks(studentIds)) {
+            enrollments += enrollRepo.deleteByStudentIds(chunk); // Dependent rows first (foreign key)
+            students += studentRepo.deleteByIds(chunk);
+        }
+        studentIds.forEach(dashboards::touchStudent); // Dashboards no longer exist
+        search.studentsDeleted(studentIds); // No longer searchable
+        if (enrollments > 0)
+            stats.invalidateAll(); // Students may have been in any class
+        return new BulkDeleteRes(students, enrollments);
     }
 
     // ---- Enrollments ----
-    public Enrollment enrollStudent(EnrollStudentReq req) { // Enroll student into class
-        Student s = studentRepo.findById(req.studentId()).orElseThrow(); // Validate student
-        Classroom c = classRepo.findById(req.classId()).orElseThrow(); // Validate class
+    public EnrollmentRes enrollStudent(EnrollStudentReq req) { // Enroll student into class
+        if (!studentRepo.existsById(req.studentId())) // Validate student (no row load)
+            throw new NoSuchElementException("Student not found");
+        lookups.classroom(req.classId()); // Validate class (cached)
+        Enrollment.Id id = new Enrollment.Id(); // Create composite id holder
+        id.setStudentId(req.studentId()); // Set student key part
+        id.setClassId(req.classId()); // Set class key part
+        if (enrollRepo.existsById(id)) // save() always inserts (@Version is null), so check first
+            throw new ConflictException("Student is already enrolled in this class");
         Enrollment e = new Enrollment(); // Create enrollment entity
-        e.setStudent(s); // Link student
-        e.setClassroom(c); // Link classroom
-        return enrollRepo.save(e); // Persist and return
+        e.setStudent(studentRepo.getReferenceById(req.studentId())); // Link student by reference
+        e.setClassroom(classRepo.getReferenceById(req.classId())); // Link classroom by reference
+        try {
+            e = enrollRepo.saveAndFlush(e); // Insert now (new row: version 0) so a racing duplicate fails here
+        } catch (DataIntegrityViolationException ex) {
+            throw new ConflictException("Student is already enrolled in this class");
+        }
+        dashboards.touchStudent(req.studentId()); // New class on the dashboard
+        stats.markChanged(req.classId(), req.studentId(), null); // Enrolled, not graded yet
+        events.publish(new MarkEventRes("enrolled", req.classId(), req.studentId(), null, e.getVersion())); // After commit
+        return new EnrollmentRes(req.studentId(), req.classId(), null, e.getVersion()); // Return DTO
     }
 
     public void unenrollStudent(Long studentId, Long classId) { // Remove an enrollment
@@ -126,5 +305,137 @@ public class AdminService { // Service exposing admin capabilities (classes, use
         id.setStudentId(studentId); // Set student key part
         id.setClassId(classId); // Set class key part
         enrollRepo.deleteById(id); // Delete by composite key
+        dashboards.touchStudent(studentId); // Class removed from the dashboard
+        stats.unenrolled(classId, studentId); // Drop from class statistics
+        events.publish(new MarkEventRes("unenrolled", classId, studentId, null, null)); // After commit
+    }
+
+    // ---- Rosters ----
+    // Both operations diff the request against the class's current enrollments
+    // (one query), validate the new student ids in bulk, then apply inserts and
+    // deletes as JDBC batches in one transaction. With an Idempotency-Key a retry
+    // gets the original outcome instead of a second (empty) diff.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // Transaction runs inside the idempotency guard
+    public RosterRes replaceRoster(Long classId, RosterReq req, String idempotencyKey) { // Roster := exactly these students
+        Set<Long> wanted = studentIds(req);
+        return idempotency.run(idempotencyKey, new RosterOp("replace", classId, wanted),
+                () -> applyRoster(classId, wanted, true));
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // Transaction runs inside the idempotency guard
+    public RosterRes addToRoster(Long classId, RosterReq req, String idempotencyKey) { // Enroll many; already enrolled is fine
+        Set<Long> wanted = studentIds(req);
+        return idempotency.run(idempotencyKey, new RosterOp("add", classId, wanted),
+                () -> applyRoster(classId, wanted, false));
+    }
+
+    private RosterRes applyRoster(Long classId, Set<Long> wanted, boolean replace) {
+        lookups.classroom(classId); // Validate class (cached)
+        try {
+            return tx.execute(status -> {
+                Set<Long> current = new HashSet<>(enrollRepo.findStudentIdsByClassId(classId)); // One index-only query
+                List<Long> added = wanted.stream().filter(id -> !current.contains(id)).toList();
+                List<Long> removed = replace
+                        ? current.stream().filter(id -> !wanted.contains(id)).sorted().toList()
+                        : List.of();
+                requireStudents(added); // Only new ids need checking (and must be this school's)
+                Long schoolId = schools.currentSchoolId(); // Plain JDBC: Hibernate doesn't stamp these rows
+                jdbc.batchUpdate(INSERT_ENROLLMENT, added, BATCH_SIZE, (ps, studentId) -> {
+                    ps.setLong(1, studentId);
+                    ps.setLong(2, classId);
+                    ps.setLong(3, schoolId);
+                });
+                jdbc.batchUpdate(DELETE_ENROLLMENT, removed, BATCH_SIZE, (ps, studentId) -> {
+                    ps.setLong(1, classId);
+                    ps.setLong(2, studentId);
+                });
+                for (Long studentId : added) {
+                    dashboards.touchStudent(studentId); // New class on the dashboard
+                    events.publish(new MarkEventRes("enrolled", classId, studentId, null, 0L));
+                }
+                for (Long studentId : removed) {
+                    dashboards.touchStudent(studentId); // Class removed from the dashboard
+                    events.publish(new MarkEventRes("unenrolled", classId, studentId, null, null));
+                }
+                if (!added.isEmpty() || !removed.isEmpty())
+                    stats.invalidate(classId); // Reloaded with one query on the next read
+                return new RosterRes(classId, added, removed, wanted.size() - added.size());
+            });
+        } catch (DataIntegrityViolationException ex) { // Someone enrolled/deleted one of these students meanwhile
+            throw new ConflictException("The roster changed while it was being saved; retry the request");
+        }
+    }
+
+    private static List<Long> distinctIds(List<Long> ids) { // Drop nulls/duplicates; 400 when nothing is left
+        if (ids == null || ids.stream().allMatch(Objects::isNull))
+            throw new BadRequestException("ids is required");
+        return ids.stream().filter(Objects::nonNull).distinct().toList();
+    }
+
+    private static List<List<Long>> chunks(List<Long> ids) { // BATCH_SIZE ids per IN list
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE)
+            chunks.add(ids.subList(from, Math.min(ids.size(), from + BATCH_SIZE)));
+        return chunks;
+    }
+
+    private static Set<Long> studentIds(RosterReq req) { // Request → de-duplicated id set (request order)
+        if (req == null || req.studentIds() == null)
+            throw new BadRequestException("studentIds is required");
+        if (req.studentIds().contains(null))
+            throw new BadRequestException("studentIds must not contain null");
+        return new LinkedHashSet<>(req.studentIds());
+    }
+
+    private void requireStudents(List<Long> ids) { // Bulk existence check, BATCH_SIZE ids per query
+        List<Long> unknown = new ArrayList<>();
+        for (List<Long> chunk : chunks(ids)) {
+            Set<Long> found = new HashSet<>(studentRepo.findExistingIds(chunk));
+            for (Long id : chunk)
+                if (!found.contains(id))
+                    unknown.add(id);
+        }
+        if (!unknown.isEmpty())
+            throw new BadRequestException("Unknown student ids: "
+                    + (unknown.size() > 20 ? unknown.subList(0, 20) + " and " + (unknown.size() - 20) + " more" : unknown));
+    }
+
+    // ---- Search ----
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // Index loads outside any snapshot
+    public List<SearchHitRes> search(String q, String type, Integer limit) { // Typeahead over names and emails
+        return search.search(q, type, limit); // Delegate to search service
+    }
+
+    // ---- Statistics ----
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // Statistics load outside any snapshot
+    public SchoolStatsRes schoolStats() { // Every class plus the school-wide distribution
+        return stats.schoolStats(); // Delegate to statistics service
+    }
+
+    // ---- Audit ----
+    @Transactional(readOnly = true) // Pure read
+    public PageRes<MarkAuditRes> markAudit(Long studentId, Long classId, String cursor, Integer limit) { // Mark history page
+        return audit.page(studentId, classId, cursor, limit); // Delegate to audit service
+    }
+
+    // ---- Caches ----
+    @Transactional(readOnly = true) // Pure read
+    public List<CacheStatsRes> cacheStats() { // Hit/miss/eviction counters per cache
+        return lookups.stats(); // Delegate to lookup service
+    }
+
+    // ---- Load shedding ----
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // In memory; must answer even when the pool is exhausted
+    public List<LimitStatsRes> limits() { // Current limit, in-flight and rejections per endpoint group
+        return limits.stats();
+    }
+
+    // ---- Entity → DTO ----
+    private static StudentRes toRes(Student s) {
+        return new StudentRes(s.getId(), s.getName(), s.getEmail(), s.getRole());
+    }
+
+    private static TeacherRes toRes(Teacher t, ClassroomRes classroom) {
+        return new TeacherRes(t.getId(), t.getName(), t.getEmail(), t.getRole(), classroom);
     }
 }
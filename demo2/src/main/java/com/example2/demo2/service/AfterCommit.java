@@ -0,0 +1,25 @@
+package com.example2.demo2.service; // Package for service-layer classes
+
+import org.springframework.transaction.support.TransactionSynchronization; // After-commit callback
+import org.springframework.transaction.support.TransactionSynchronizationManager; // Current transaction state
+
+// Runs in-memory bookkeeping only once the data it describes is visible to other
+// transactions; on rollback the callback is dropped.
+final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    static void run(Runnable action) { // Defer to commit, or run now when no transaction is active
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run(); // No transaction: the write is already visible
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example2.demo2.service; // Package for service-layer classes
+
+import com.example2.demo2.config.AuthTokens; // Bearer tokens for the per-user endpoints
+import com.example2.demo2.config.ReadReplicas; // Logins read the primary
+import com.example2.demo2.dto.LoginReq; // Login payload
+import com.example2.demo2.dto.LoginRes; // Login result
+import com.example2.demo2.error.UnauthorizedException; // 401 for bad credentials
+import com.example2.demo2.repo.AdminRepository; // Admin lookups by email
+import com.example2.demo2.repo.StudentRepository; // Student lookups by email
+import com.example2.demo2.repo.TeacherRepository; // Teacher lookups by email
+import org.springframework.stereotype.Service; // Spring service annotation
+import org.springframework.transaction.PlatformTransactionManager; // Builds the lookup transactions
+import org.springframework.transaction.annotation.Propagation; // Transaction propagation modes
+import org.springframework.transaction.annotation.Transactional; // Transaction boundaries
+import org.springframework.transaction.support.TransactionTemplate; // One short read per email lookup
+
+// BCrypt may wait for a free worker on the hashing pool, so no transaction (and no
+// pooled connection) spans a login: each email lookup is its own short read-only
+// transaction and the password is checked after it has committed.
+@Service // Register as a Spring service bean
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // Lookups open their own transactions
+public class AuthService { // Resolves an email/password pair to an account
+
+    private final StudentRepository studentRepo; // Access students
+    private final TeacherRepository teacherRepo; // Access teachers
+    private final AdminRepository adminRepo; // Access admins
+    private final PasswordHashingService hashing; // Verifies BCrypt hashes off the request thread
+    private final CredentialCache credentialCache; // Skips BCrypt for recently verified logins
+    private final AuthTokens tokens; // Signs the token returned with a successful login
+    private final TransactionTemplate reads; // Read-only transaction per lookup
+
+    // Constructor injection of dependencies
+    public AuthService(StudentRepository studentRepo,
+            TeacherRepository teacherRepo,
+            AdminRepository adminRepo,
+            PasswordHashingService hashing,
+            CredentialCache credentialCache,
+            AuthTokens tokens,
+            PlatformTransactionManager txManager) {
+        this.studentRepo = studentRepo; // Assign student repo
+        this.teacherRepo = teacherRepo; // Assign teacher repo
+        this.adminRepo = adminRepo; // Assign admin repo
+        this.hashing = hashing; // Assign hashing service
+        this.credentialCache = credentialCache; // Assign credential cache
+        this.tokens = tokens; // Assign token issuer
+        this.reads = new TransactionTemplate(txManager); // Connection is returned when each lookup commits
+        this.reads.setReadOnly(true);
+    }
+
+    // Primary, not a replica: a new account or a changed password must work at once.
+    public LoginRes login(LoginReq req) { // Check each account table by email (unique per school, indexed)
+        return ReadReplicas.callOnPrimary(() -> check(req));
+    }
+
+    private LoginRes check(LoginReq req) {
+        if (req.email() == null || req.password() == null)
+            throw new UnauthorizedException("Invalid email or password"); // Nothing to check
+        String email = req.email().trim(); // Normalize input
+
+        var student = reads.execute(s -> studentRepo.findByEmail(email)); // Students are the most common login
+        if (student.isPresent() && matches(req.password(), student.get().getPassword()))
+            return res("STUDENT", student.get().getId(), student.get().getName(), null);
+
+        var teacher = reads.execute(s -> teacherRepo.findByEmail(email)); // Then teachers
+        if (teacher.isPresent() && matches(req.password(), teacher.get().getPassword()))
+            return res("TEACHER", teacher.get().getId(), teacher.get().getName(),
+                    teacher.get().getClassroom().getId()); // Owned class goes into the token (proxy id, no select)
+
+        var admin = reads.execute(s -> adminRepo.findByEmail(email)); // Finally admins
+        if (admin.isPresent() && matches(req.password(), admin.get().getPassword()))
+            return res("ADMIN", admin.get().getId(), admin.get().getName(), null);
+
+        throw new UnauthorizedException("Invalid email or password"); // Same message for unknown email / bad password
+    }
+
+    private LoginRes res(String role, Long id, String name, Long classId) { // Login result with its signed token
+        return new LoginRes(role, id, name, tokens.issue(role, id, classId));
+    }
+
+    private boolean matches(String rawPassword, String storedHash) { // BCrypt check with cache in front
+        if (credentialCache.isVerified(storedHash, rawPassword))
+            return true; // Verified recently → no BCrypt work
+        if (!hashing.matches(rawPassword, storedHash)) // Bounded BCrypt pool (429 when saturated)
+            return false; // Wrong password (never cached)
+        credentialCache.remember(storedHash, rawPassword); // Remember the success
+        return true;
+    }
+}
@@ -0,0 +1,114 @@
+package com.example2.demo2.service; // Package for service-layer classes
+
+import java.util.ArrayList; // Histogram bins
+import java.util.Collection; // Classes to merge
+import java.util.HashMap; // Student → bucket
+import java.util.List; // Java List
+import java.util.Map; // Student → bucket
+
+// Running mark distribution of one class. Graded marks are counted per 0.1-point
+// bucket in a Fenwick (binary indexed) tree, so changing one mark, computing a
+// rank and finding any percentile are all O(log buckets) — no scan of the class.
+final class ClassStats {
+
+    private final long[] tree = new long[MarkScale.BUCKETS + 1]; // Fenwick tree, 1-based
+    private final long[] counts = new long[MarkScale.BUCKETS]; // Plain per-bucket counts (for merging)
+    private final Map<Long, Integer> bucketOf = new HashMap<>(); // Enrolled student → bucket (or UNGRADED)
+    private long enrolled; // Students in the class (graded or not)
+    private long graded; // Students with a recognised mark
+    private long bucketSum; // Sum of graded buckets (for the mean)
+
+    synchronized void put(Long studentId, int bucket) { // Student's mark is now `bucket` (absolute, idempotent)
+        Integer old = bucketOf.put(studentId, bucket);
+        if (old == null)
+            enrolled++;
+        else if (old != MarkScale.UNGRADED)
+            add(old, -1);
+        if (bucket != MarkScale.UNGRADED)
+            add(bucket, 1);
+    }
+
+    synchronized void remove(Long studentId) { // Student left the class
+        Integer old = bucketOf.remove(studentId);
+        if (old == null)
+            return;
+        enrolled--;
+        if (old != MarkScale.UNGRADED)
+            add(old, -1);
+    }
+
+    synchronized Summary summary() { // Consistent snapshot of the distribution
+        List<Long> histogram = new ArrayList<>(10);
+        for (int bin = 0; bin < 10; bin++) { // [0,10), [10,20), ..., [90,100]
+            int lo = bin * 100;
+            int hi = bin == 9 ? MarkScale.BUCKETS - 1 : lo + 99;
+            histogram.add(atMost(hi) - atMost(lo - 1));
+        }
+        if (graded == 0)
+            return new Summary(enrolled, 0, null, null, null, null, null, null, null, histogram);
+        return new Summary(enrolled, graded, bucketSum / 10.0 / graded,
+                percentile(0), percentile(25), percentile(50), percentile(75), percentile(90), percentile(100),
+                histogram);
+    }
+
+    synchronized Rank rank(Long studentId) { // Position of one student, or null if not enrolled
+        Integer b = bucketOf.get(studentId);
+        if (b == null)
+            return null;
+        if (b == MarkScale.UNGRADED)
+            return new Rank(null, null, graded, null);
+        long below = atMost(b - 1);
+        long same = atMost(b) - below;
+        long above = graded - below - same;
+        return new Rank(MarkScale.score(b), above + 1, graded, 100.0 * (below + same / 2.0) / graded); // Ties share a rank
+    }
+
+    static ClassStats merge(Collection<ClassStats> all) { // Combined distribution (school-wide view)
+        ClassStats merged = new ClassStats();
+        for (ClassStats s : all) {
+            long[] copy;
+            synchronized (s) {
+                copy = s.counts.clone();
+                merged.enrolled += s.enrolled;
+            }
+            for (int b = 0; b < copy.length; b++)
+                if (copy[b] != 0)
+                    merged.add(b, copy[b]);
+        }
+        return merged;
+    }
+
+    private void add(int bucket, long delta) {
+        counts[bucket] += delta;
+        graded += delta;
+        bucketSum += delta * bucket;
+        for (int i = bucket + 1; i <= MarkScale.BUCKETS; i += i & -i)
+            tree[i] += delta;
+    }
+
+    private long atMost(int bucket) { // Graded students with bucket <= `bucket`
+        long c = 0;
+        for (int i = Math.min(bucket, MarkScale.BUCKETS - 1) + 1; i > 0; i -= i & -i)
+            c += tree[i];
+        return c;
+    }
+
+    private Double percentile(int p) { // Nearest-rank percentile (0 = min, 100 = max)
+        long k = Math.max(1, (long) Math.ceil(p / 100.0 * graded));
+        int pos = 0; // Fenwick descent: largest prefix with fewer than k students
+        for (int step = Integer.highestOneBit(MarkScale.BUCKETS); step > 0; step >>= 1) {
+            if (pos + step <= MarkScale.BUCKETS && tree[pos + step] < k) {
+                pos += step;
+                k -= tree[pos];
+            }
+        }
+        return MarkScale.score(pos); // 1-based index pos + 1 → bucket pos
+    }
+
+    record Summary(long enrolled, long graded, Double mean, Double min, Double p25, Double median, Double p75,
+            Double p90, Double max, List<Long> histogram) {
+    }
+
+    record Rank(Double score, Long rank, long graded, Double percentile) {
+    }
+}
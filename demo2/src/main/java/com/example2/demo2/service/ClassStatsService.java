@@ -0,0 +1,134 @@
+package com.example2.demo2.service; // Package for service-layer classes
+
+import com.example2.demo2.config.ReadReplicas; // Loads read the primary
+import com.example2.demo2.dto.ClassStatsRes; // Per-class summary
+import com.example2.demo2.dto.ClassroomRes; // Cached classroom
+import com.example2.demo2.dto.RankRes; // One student's rank
+import com.example2.demo2.dto.SchoolStatsRes; // School-wide summary
+import com.example2.demo2.dto.StudentMarkRes; // (studentId, mark) projection row
+import com.example2.demo2.repo.EnrollmentRepository; // Marks of one class
+import com.github.benmanes.caffeine.cache.Caffeine; // Loaded classes with a maximum age
+import com.github.benmanes.caffeine.cache.Expiry; // Age counted from the load, not the last update
+import org.springframework.beans.factory.annotation.Value; // Inject settings from application.properties
+import org.springframework.stereotype.Service; // Marks as Spring service
+
+import java.util.ArrayList; // Result list
+import java.util.List; // Java List
+import java.util.NoSuchElementException; // Student not in class
+import java.time.Duration; // Maximum age
+import java.util.concurrent.ConcurrentMap; // Class id → stats
+
+// Per-class mark statistics kept in memory. A class is loaded from the database the
+// first time it is asked for; after that every mark write updates it in O(log n)
+// once its transaction commits, so queries never rescan the enrollments.
+// Updates carry the student's new absolute mark, so a write that races with the
+// initial load is simply applied on top of it. Writes this process does not see
+// (other instances, direct SQL) show up when the class is reloaded, at the latest
+// app.stats.max-age-minutes after it was loaded.
+//
+// Deliberately not @Transactional: the initial load must see everything committed
+// before it starts, which a snapshot opened earlier in a caller's transaction
+// (MySQL REPEATABLE READ) would not.
+@Service // Register as a Spring service bean
+public class ClassStatsService {
+
+    private final EnrollmentRepository enrollRepo; // Initial load per class
+    private final LookupService lookups; // Cached classrooms / class list
+    private final ConcurrentMap<Long, ClassStats> byClass; // Loaded classes
+
+    public ClassStatsService(EnrollmentRepository enrollRepo, LookupService lookups,
+            @Value("${app.stats.max-age-minutes:10}") long maxAgeMinutes) { // Constructor injection
+        this.enrollRepo = enrollRepo; // Assign repository
+        this.lookups = lookups; // Assign cached lookups
+        long maxAgeNanos = Duration.ofMinutes(Math.max(1, maxAgeMinutes)).toNanos();
+        this.byClass = Caffeine.newBuilder()
+                .expireAfter(new Expiry<Long, ClassStats>() { // Mark updates must not keep a busy class forever
+                    @Override
+                    public long expireAfterCreate(Long id, ClassStats s, long now) {
+                        return maxAgeNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long id, ClassStats s, long now, long remaining) {
+                        return remaining;
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long id, ClassStats s, long now, long remaining) {
+                        return remaining;
+                    }
+                })
+                .<Long, ClassStats>build()
+                .asMap(); // Same atomic compute* as a ConcurrentHashMap
+    }
+
+    public ClassStatsRes classStats(Long classId) { // Summary of one class
+        ClassroomRes c = lookups.classroom(classId); // Throws for unknown classes
+        return toRes(c.id(), c.name(), stats(classId).summary());
+    }
+
+    public RankRes rank(Long classId, Long studentId) { // One student's position in the class
+        ClassStats.Rank r = stats(classId).rank(studentId);
+        if (r == null)
+            throw new NoSuchElementException("Student is not enrolled in this class");
+        return new RankRes(classId, studentId, r.score(), r.rank(), r.graded(), r.percentile());
+    }
+
+    public SchoolStatsRes schoolStats() { // Every class plus the combined distribution
+        List<ClassStatsRes> classes = new ArrayList<>();
+        List<ClassStats> all = new ArrayList<>();
+        for (ClassroomRes c : lookups.allClasses()) {
+            ClassStats s = stats(c.id());
+            all.add(s);
+            classes.add(toRes(c.id(), c.name(), s.summary()));
+        }
+        return new SchoolStatsRes(toRes(null, "All classes", ClassStats.merge(all).summary()), classes);
+    }
+
+    // ---- Write hooks (called inside the writing transaction, applied after commit) ----
+
+    public void markChanged(Long classId, Long studentId, String mark) { // Mark set, or student enrolled (null mark)
+        int bucket = MarkScale.bucket(mark);
+        AfterCommit.run(() -> byClass.computeIfPresent(classId, (id, s) -> {
+            s.put(studentId, bucket);
+            return s;
+        })); // Classes not loaded yet will read the new mark when they are
+    }
+
+    public void unenrolled(Long classId, Long studentId) { // Student removed from a class
+        AfterCommit.run(() -> byClass.computeIfPresent(classId, (id, s) -> {
+            s.remove(studentId);
+            return s;
+        }));
+    }
+
+    public void invalidate(Long classId) { // Class deleted: forget it
+        AfterCommit.run(() -> byClass.remove(classId));
+    }
+
+    public void invalidateAll() { // Bulk change (imports, student deletes): reload lazily
+        AfterCommit.run(byClass::clear);
+    }
+
+    private ClassStats stats(Long classId) {
+        // computeIfAbsent holds the map entry while loading, so a concurrent update for the
+        // same class waits and is applied to the freshly loaded stats.
+        return byClass.computeIfAbsent(classId, this::load);
+    }
+
+    private ClassStats load(Long classId) { // One projection query over the class's enrollments
+        ClassStats s = new ClassStats();
+        for (StudentMarkRes r : ReadReplicas.callOnPrimary(() -> enrollRepo.findMarksByClassId(classId))) // Not a lagging replica
+            s.put(r.studentId(), MarkScale.bucket(r.mark()));
+        return s;
+    }
+
+    private static ClassStatsRes toRes(Long classId, String className, ClassStats.Summary s) {
+        return new ClassStatsRes(classId, className, s.enrolled(), s.graded(), round(s.mean()), s.min(), s.p25(),
+                s.median(), s.p75(), s.p90(), s.max(), s.histogram());
+    }
+
+    private static Double round(Double v) { // Two decimals for display
+        return v == null ? null : Math.round(v * 100) / 100.0;
+    }
+}
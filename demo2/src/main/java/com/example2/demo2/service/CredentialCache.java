@@ -0,0 +1,70 @@
+package com.example2.demo2.service; // Package for service-layer classes
+
+import org.springframework.beans.factory.annotation.Value; // Inject settings from application.properties
+import org.springframework.stereotype.Component; // Marks as Spring component
+
+import java.nio.charset.StandardCharsets; // UTF-8 encoding for digests
+import java.security.MessageDigest; // SHA-256 + constant-time compare
+import java.security.NoSuchAlgorithmException; // Checked exception from MessageDigest
+import java.security.SecureRandom; // Per-process salt
+import java.util.Map; // Map interface
+import java.util.concurrent.ConcurrentHashMap; // Thread-safe map for concurrent logins
+
+// Short-lived memory of credentials that already passed a BCrypt check.
+// Entries are keyed by the stored BCrypt hash (unique per account thanks to its salt,
+// and replaced whenever the password changes) and hold a salted SHA-256 of the raw
+// password, so a repeat login costs one digest instead of a full BCrypt round.
+@Component // Register as a Spring bean
+public class CredentialCache {
+
+    private record Entry(byte[] digest, long expiresAt) {} // Cached digest + absolute expiry (millis)
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>(); // storedHash -> verified digest
+    private final byte[] salt = new byte[32]; // Random salt so digests are useless outside this process
+    private final long ttlMillis; // How long a verified credential is trusted
+    private final int maxEntries; // Upper bound on cache size
+
+    public CredentialCache(@Value("${app.auth.credential-cache.ttl-seconds:300}") long ttlSeconds,
+            @Value("${app.auth.credential-cache.max-entries:10000}") int maxEntries) {
+        this.ttlMillis = ttlSeconds * 1000; // Convert to millis once
+        this.maxEntries = maxEntries; // Keep size bound
+        new SecureRandom().nextBytes(salt); // Fresh salt per process start
+    }
+
+    public boolean isVerified(String storedHash, String rawPassword) { // True if this pair passed BCrypt recently
+        if (ttlMillis <= 0)
+            return false; // Cache disabled
+        Entry e = entries.get(storedHash); // O(1) lookup
+        if (e == null)
+            return false; // Never verified (or evicted)
+        if (e.expiresAt() < System.currentTimeMillis()) { // Past its lifetime
+            entries.remove(storedHash, e); // Drop stale entry
+            return false;
+        }
+        return MessageDigest.isEqual(e.digest(), digest(storedHash, rawPassword)); // Constant-time compare
+    }
+
+    public void remember(String storedHash, String rawPassword) { // Record a successful BCrypt check
+        if (ttlMillis <= 0)
+            return; // Cache disabled
+        if (entries.size() >= maxEntries) { // Full: clear out expired entries first
+            long now = System.currentTimeMillis();
+            entries.values().removeIf(e -> e.expiresAt() < now);
+            if (entries.size() >= maxEntries)
+                return; // Still full of live entries → just skip caching
+        }
+        entries.put(storedHash, new Entry(digest(storedHash, rawPassword), System.currentTimeMillis() + ttlMillis));
+    }
+
+    private byte[] digest(String storedHash, String rawPassword) { // SHA-256(salt || storedHash || password)
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            md.update(salt);
+            md.update(storedHash.getBytes(StandardCharsets.UTF_8));
+            md.update((byte) 0); // Separator between hash and password
+            return md.digest(rawPassword.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException ex) { // SHA-256 is mandatory on every JVM
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example2.demo2.service; // Package for service-layer classes
+
+import org.springframework.stereotype.Component; // Marks as Spring component
+
+import java.util.concurrent.ThreadLocalRandom; // Startup epoch
+import java.util.concurrent.atomic.AtomicLong; // Global version
+import java.util.concurrent.atomic.AtomicLongArray; // Striped per-student versions
+
+// In-memory version counters behind the student dashboard ETag. Every write that
+// can change a dashboard bumps the student's counter (or the global one) after its
+// transaction commits, so an unchanged ETag can be answered with 304 without a
+// database query. Students are hashed onto a fixed number of stripes: memory stays
+// constant, and a bump at worst also invalidates a few unrelated students.
+@Component // Register as a Spring bean
+public class DashboardVersions {
+
+    private static final int STRIPES = 4096; // Power of two → mask instead of modulo
+
+    private final long epoch = ThreadLocalRandom.current().nextLong(Long.MAX_VALUE); // New tags after restart
+    private final AtomicLong global = new AtomicLong(); // Bumped when every dashboard may change
+    private final AtomicLongArray stripes = new AtomicLongArray(STRIPES); // Per-student (striped) versions
+
+    public String etag(Long studentId) { // Current strong ETag for one student's dashboard
+        return "\"" + Long.toString(epoch, 36) + "-" + global.get() + "-" + stripes.get(stripe(studentId)) + "\"";
+    }
+
+    public void touchStudent(Long studentId) { // One student's dashboard changed
+        AfterCommit.run(() -> stripes.incrementAndGet(stripe(studentId)));
+    }
+
+    public void touchAll() { // Shared data changed (e.g. a class was renamed)
+        AfterCommit.run(global::incrementAndGet);
+    }
+
+    private static int stripe(Long studentId) { // Spread ids over the stripes
+        long h = studentId * 0x9E3779B97F4A7C15L; // Fibonacci hashing
+        return (int) (h >>> 52) & (STRIPES - 1);
+    }
+}
@@ -0,0 +1,119 @@
+package com.example2.demo2.service; // Package for service-layer classes
+
+import com.example2.demo2.dto.GradebookRowRes; // Flat enrollment row
+import com.example2.demo2.error.BadRequestException; // 400 for unknown formats
+import com.example2.demo2.repo.EnrollmentRepository; // Streaming enrollment queries
+import com.fasterxml.jackson.core.JsonGenerator; // Incremental JSON writer
+import com.fasterxml.jackson.databind.ObjectMapper; // Shared Jackson config
+import com.fasterxml.jackson.databind.SequenceWriter; // Writes a sequence of root values
+import org.springframework.stereotype.Service; // Marks as Spring service
+import org.springframework.transaction.annotation.Transactional; // Keeps the cursor open while streaming
+
+import java.io.BufferedWriter; // Buffered text output
+import java.io.IOException; // Write failures
+import java.io.OutputStream; // Response body
+import java.io.OutputStreamWriter; // Byte → char bridge
+import java.io.UncheckedIOException; // Rethrow inside stream lambdas
+import java.nio.charset.StandardCharsets; // UTF-8 output
+import java.util.Locale; // Case-insensitive format names
+import java.util.stream.Stream; // Forward-only result stream
+
+// Writes enrollment rows straight from a database cursor to the HTTP response.
+// Each row is formatted and written as it arrives, so heap use does not depend on
+// how many rows are exported.
+@Service // Register as a Spring service bean
+@Transactional(readOnly = true) // Cursor must stay open for the whole export
+public class ExportService {
+
+    public enum Format { CSV, NDJSON } // Supported output formats
+
+    private static final String CSV_HEADER = "classId,className,studentId,studentName,studentEmail,mark";
+
+    private final EnrollmentRepository enrollRepo; // Streaming queries
+    private final ObjectMapper mapper; // JSON writer factory
+
+    public ExportService(EnrollmentRepository enrollRepo, ObjectMapper mapper) { // Constructor injection
+        this.enrollRepo = enrollRepo; // Assign repository
+        this.mapper = mapper; // Assign mapper
+    }
+
+    public static Format parseFormat(String format) { // Query param → Format (default CSV)
+        if (format == null || format.isBlank())
+            return Format.CSV;
+        try {
+            return Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Unknown export format: " + format);
+        }
+    }
+
+    public void writeEnrollments(OutputStream out, Format format) throws IOException { // Every enrollment
+        try (Stream<GradebookRowRes> rows = enrollRepo.streamAllRows()) {
+            write(rows, out, format);
+        }
+    }
+
+    public void writeRoster(Long classId, OutputStream out, Format format) throws IOException { // One class
+        try (Stream<GradebookRowRes> rows = enrollRepo.streamRowsByClassId(classId)) {
+            write(rows, out, format);
+        }
+    }
+
+    private void write(Stream<GradebookRowRes> rows, OutputStream out, Format format) throws IOException {
+        if (format == Format.NDJSON) {
+            writeNdjson(rows, out);
+        } else {
+            writeCsv(rows, out);
+        }
+    }
+
+    private void writeCsv(Stream<GradebookRowRes> rows, OutputStream out) throws IOException { // CSV with header
+        BufferedWriter w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        w.write(CSV_HEADER);
+        w.write("\r\n");
+        try {
+            rows.forEach(r -> {
+                try {
+                    w.write(r.classId() + "," + csv(r.className()) + "," + r.studentId() + ","
+                            + csv(r.studentName()) + "," + csv(r.email()) + "," + csv(r.mark()) + "\r\n");
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex); // Client went away: abort the stream
+                }
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        w.flush(); // Push the tail; the container closes the stream
+    }
+
+    private void writeNdjson(Stream<GradebookRowRes> rows, OutputStream out) throws IOException { // One JSON object per line
+        SequenceWriter seq = mapper.writer() // Streams into the response buffer
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET) // Container owns the stream
+                .withRootValueSeparator("\n") // One object per line
+                .writeValues(out);
+        boolean[] wrote = { false }; // Any row written (set from the lambda)
+        try {
+            rows.forEach(r -> {
+                try {
+                    seq.write(r);
+                    wrote[0] = true;
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        seq.flush();
+        if (wrote[0])
+            out.write('\n'); // Terminate the last line; no rows means an empty body
+    }
+
+    private static String csv(String value) { // Quote a CSV field when needed
+        if (value == null)
+            return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0)
+            return value;
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,72 @@
+package com.example2.demo2.service; // Package for service-layer classes
+
+import com.example2.demo2.config.SchoolContext; // Current school (tenant)
+import com.example2.demo2.error.BadRequestException; // 400 for a reused or oversized key
+import com.github.benmanes.caffeine.cache.Cache; // Bounded, expiring map
+import com.github.benmanes.caffeine.cache.Caffeine; // Cache builder
+import org.springframework.beans.factory.annotation.Value; // Inject settings from application.properties
+import org.springframework.stereotype.Service; // Marks as Spring service
+
+import java.time.Duration; // Entry lifetime
+import java.util.concurrent.CompletableFuture; // Outcome shared with concurrent retries
+import java.util.concurrent.CompletionException; // Unwrap a failed first attempt
+import java.util.function.Supplier; // The guarded operation
+
+// Makes write endpoints safe to retry: the outcome of a request carrying an
+// Idempotency-Key is kept for app.idempotency.ttl-seconds and replayed to any
+// retry with the same key instead of applying the request again. A retry that
+// arrives while the first attempt is still running waits for it. A failed
+// attempt is forgotten so the client can try again; a key reused for a different
+// request is rejected. Outcomes live in this process's memory only.
+@Service // Register as a Spring service bean
+public class IdempotencyService {
+
+    private record Entry(Object request, CompletableFuture<Object> outcome) {} // What was asked + its result
+
+    private final Cache<String, Entry> entries; // school/Idempotency-Key → entry
+    private final SchoolContext schools; // Keys are per school
+
+    public IdempotencyService(SchoolContext schools,
+            @Value("${app.idempotency.ttl-seconds:86400}") long ttlSeconds,
+            @Value("${app.idempotency.max-entries:10000}") long maxEntries) {
+        this.schools = schools; // Assign school context
+        this.entries = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(Math.max(1, ttlSeconds)))
+                .maximumSize(Math.max(1, maxEntries))
+                .build();
+    }
+
+    // Runs action once per key. request must identify the operation and its
+    // payload (compared with equals) so a reused key can be told apart from a retry.
+    // Call outside any transaction so only committed outcomes are replayed.
+    @SuppressWarnings("unchecked")
+    public <T> T run(String key, Object request, Supplier<T> action) {
+        if (key == null || key.isBlank())
+            return action.get(); // No key: plain request
+        if (key.length() > 255)
+            throw new BadRequestException("Idempotency-Key is longer than 255 characters");
+        String scoped = schools.currentSchoolId() + "/" + key; // Two schools may pick the same key
+        Entry mine = new Entry(request, new CompletableFuture<>());
+        Entry existing = entries.asMap().putIfAbsent(scoped, mine);
+        if (existing == null) { // First attempt
+            try {
+                T result = action.get();
+                mine.outcome().complete(result);
+                return result;
+            } catch (RuntimeException | Error ex) {
+                entries.asMap().remove(scoped, mine); // Not applied: allow a retry
+                mine.outcome().completeExceptionally(ex); // Fail any retries already waiting
+                throw ex;
+            }
+        }
+        if (!existing.request().equals(request))
+            throw new BadRequestException("Idempotency-Key was already used for a different request");
+        try {
+            return (T) existing.outcome().join(); // Replay (waits if still running)
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException re)
+                throw re;
+            throw ex;
+        }
+    }
+}
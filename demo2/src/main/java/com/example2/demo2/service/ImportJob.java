@@ -0,0 +1,57 @@
+package com.example2.demo2.service; // Package for service-layer classes
+
+import com.example2.demo2.dto.ImportErrorRes; // One rejected line
+import com.example2.demo2.dto.ImportJobRes; // Progress snapshot DTO
+
+import java.util.ArrayList; // Error list
+import java.util.List; // Java List
+import java.util.concurrent.atomic.AtomicLong; // Counters updated by the worker, read by status calls
+
+// Mutable progress of one bulk import, updated by the import worker and read
+// concurrently by status requests.
+public class ImportJob {
+
+    public enum Status { QUEUED, RUNNING, DONE, FAILED } // Job lifecycle
+
+    private final String id; // Job id returned to the client
+    private final String kind; // students / teachers / enrollments
+    private final int maxErrors; // Cap on stored error lines
+    private volatile Status status = Status.QUEUED; // Current state
+    private final AtomicLong linesRead = new AtomicLong(); // Data lines parsed so far
+    private final AtomicLong imported = new AtomicLong(); // Rows inserted
+    private final AtomicLong failed = new AtomicLong(); // Rows rejected
+    private final List<ImportErrorRes> errors = new ArrayList<>(); // First maxErrors rejections (guarded by this)
+
+    public ImportJob(String id, String kind, int maxErrors) {
+        this.id = id; // Keep id
+        this.kind = kind; // Keep kind
+        this.maxErrors = maxErrors; // Keep error cap
+    }
+
+    public String getId() {
+        return id;
+    } // Getter for id
+
+    public void setStatus(Status status) {
+        this.status = status;
+    } // Setter for status
+
+    public void lineRead() { // Count one parsed data line
+        linesRead.incrementAndGet();
+    }
+
+    public void imported(long n) { // Count inserted rows
+        imported.addAndGet(n);
+    }
+
+    public synchronized void error(long line, String message) { // Record one rejected line
+        failed.incrementAndGet();
+        if (errors.size() < maxErrors)
+            errors.add(new ImportErrorRes(line, message)); // Keep only the first few for the report
+    }
+
+    public synchronized ImportJobRes snapshot() { // Consistent copy for the status endpoint
+        return new ImportJobRes(id, kind, status.name(), linesRead.get(), imported.get(), failed.get(),
+                List.copyOf(errors));
+    }
+}
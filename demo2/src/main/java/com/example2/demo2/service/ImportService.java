@@ -0,0 +1,382 @@
+package com.example2.demo2.service; // Package for service-layer classes
+
+import com.example2.demo2.config.ReadReplicas; // Jobs read the primary
+import com.example2.demo2.config.SchoolContext; // Current school (tenant)
+import com.example2.demo2.dto.ImportJobRes; // Progress snapshot DTO
+import com.example2.demo2.repo.ClassroomRepository; // Class id checks
+import com.example2.demo2.repo.StudentRepository; // Student id checks
+import com.example2.demo2.error.BadRequestException; // 400 for unknown kinds/formats
+import com.fasterxml.jackson.core.type.TypeReference; // Generic type for NDJSON objects
+import com.fasterxml.jackson.databind.ObjectMapper; // NDJSON line parser
+import jakarta.annotation.PreDestroy; // Stop workers with the context
+import org.slf4j.Logger; // Logging API
+import org.slf4j.LoggerFactory; // Logger factory
+import org.springframework.beans.factory.annotation.Value; // Inject settings from application.properties
+import org.springframework.core.NestedExceptionUtils; // Root-cause messages for DB errors
+import org.springframework.dao.DataAccessException; // Spring JDBC failures
+import org.springframework.jdbc.core.JdbcTemplate; // Batched inserts
+import org.springframework.stereotype.Service; // Marks as Spring service
+import org.springframework.transaction.support.TransactionTemplate; // One transaction per chunk
+import org.springframework.web.multipart.MultipartFile; // Uploaded file
+
+import java.io.BufferedReader; // Line-by-line reading
+import java.io.IOException; // I/O failures
+import java.nio.charset.StandardCharsets; // UTF-8 input
+import java.nio.file.Files; // Temp file handling
+import java.nio.file.Path; // Temp file path
+import java.util.*; // Collections
+import java.util.concurrent.ExecutorService; // Job workers
+import java.util.concurrent.Executors; // Pool factory
+
+// Streaming bulk import of students, teachers and enrollments from CSV or NDJSON.
+// The upload is read one record at a time (an NDJSON line, or a CSV line plus any
+// lines a quoted field runs on to) and processed in chunks: passwords in a
+// chunk are hashed in parallel on the PasswordHashingService pool, then the chunk
+// is written with a single JDBC batch insert in its own transaction. If a batch
+// fails (duplicate email, unknown class id...), that chunk is retried row by row
+// so only the offending lines are rejected.
+@Service // Register as a Spring service bean
+public class ImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportService.class);
+
+    private enum Kind { STUDENTS, TEACHERS, ENROLLMENTS } // What a file contains
+
+    private record Row(long line, Map<String, String> fields) {} // One parsed data line
+    private record Prepared(long line, Object[] args) {} // Validated row ready for the insert statement
+
+    private static final int MAX_CSV_RECORD = 16 * 1024; // Longest multi-line CSV record (far beyond any valid row)
+
+    private static final String INSERT_STUDENT = // Plain JDBC insert (id is assigned by the database)
+            "insert into students (name, email, role, password, school_id) values (?, ?, 'STUDENT', ?, ?)";
+    private static final String INSERT_TEACHER =
+            "insert into teachers (name, email, role, password, class_id, school_id) values (?, ?, 'TEACHER', ?, ?, ?)";
+    private static final String INSERT_ENROLLMENT =
+            "insert into enrollments (student_id, class_id, mark, school_id) values (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbc; // Batched inserts
+    private final TransactionTemplate tx; // Per-chunk transactions
+    private final PasswordHashingService hashing; // Parallel BCrypt
+    private final DashboardVersions dashboards; // Student dashboard ETag versions
+    private final ClassStatsService stats; // Incremental class statistics
+    private final SearchService search; // Typeahead index
+    private final ClassroomRepository classRepo; // Class ids of the importing school
+    private final StudentRepository studentRepo; // Student ids of the importing school
+    private final SchoolContext schools; // School the upload belongs to
+    private final ObjectMapper mapper; // NDJSON parsing
+    private final int chunkSize; // Rows per batch insert
+    private final int maxErrors; // Error lines kept per job
+    private final ExecutorService workers; // Runs jobs off the request thread
+    private final Map<String, ImportJob> jobs; // Recent jobs by id (bounded)
+
+    public ImportService(JdbcTemplate jdbc,
+            TransactionTemplate tx,
+            PasswordHashingService hashing,
+            DashboardVersions dashboards,
+            ClassStatsService stats,
+            SearchService search,
+            ClassroomRepository classRepo,
+            StudentRepository studentRepo,
+            SchoolContext schools,
+            ObjectMapper mapper,
+            @Value("${app.import.chunk-size:1000}") int chunkSize,
+            @Value("${app.import.max-errors:1000}") int maxErrors,
+            @Value("${app.import.concurrent-jobs:2}") int concurrentJobs,
+            @Value("${app.import.retained-jobs:100}") int retainedJobs) {
+        this.jdbc = jdbc; // Assign JDBC template
+        this.tx = tx; // Assign transaction template
+        this.hashing = hashing; // Assign hashing service
+        this.dashboards = dashboards; // Assign dashboard versions
+        this.stats = stats; // Assign statistics service
+        this.search = search; // Assign search index
+        this.classRepo = classRepo; // Assign classroom repo
+        this.studentRepo = studentRepo; // Assign student repo
+        this.schools = schools; // Assign school context
+        this.mapper = mapper; // Assign JSON mapper
+        this.chunkSize = chunkSize; // Keep chunk size
+        this.maxErrors = maxErrors; // Keep error cap
+        this.workers = Executors.newFixedThreadPool(concurrentJobs); // At most N imports at a time
+        this.jobs = Collections.synchronizedMap(new LinkedHashMap<>() { // Forget the oldest jobs
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ImportJob> eldest) {
+                return size() > retainedJobs;
+            }
+        });
+    }
+
+    public ImportJobRes start(String kind, MultipartFile file, String format) throws IOException { // Queue an import
+        Kind k = parseKind(kind); // Validate kind up front
+        boolean ndjson = isNdjson(file, format); // Decide the parser
+        Path tmp = Files.createTempFile("import-", ".tmp"); // Spring deletes the upload after the request
+        file.transferTo(tmp); // Move (or stream-copy) the upload; the content is never held in memory
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), k.name().toLowerCase(), maxErrors);
+        Long schoolId = schools.currentSchoolId(); // Workers have no request: carry the school over
+        jobs.put(jobKey(schoolId, job.getId()), job); // Make it visible to this school's status calls
+        workers.submit(() -> SchoolContext.runAs(schoolId, // Id checks must see classes/students created just before
+                () -> ReadReplicas.runOnPrimary(() -> run(job, k, tmp, ndjson, schoolId))));
+        return job.snapshot();
+    }
+
+    public ImportJobRes status(String jobId) { // Current progress of a job
+        ImportJob job = jobs.get(jobKey(schools.currentSchoolId(), jobId));
+        if (job == null)
+            throw new NoSuchElementException("Unknown import job"); // Expired or never existed
+        return job.snapshot();
+    }
+
+    private static String jobKey(Long schoolId, String jobId) { // Jobs are only visible to their own school
+        return schoolId + "/" + jobId;
+    }
+
+    private void run(ImportJob job, Kind kind, Path file, boolean ndjson, Long schoolId) { // Worker body
+        job.setStatus(ImportJob.Status.RUNNING);
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String[] header = ndjson ? null : parseHeader(in.readLine()); // CSV needs a header line
+            long lineNo = ndjson ? 0 : 1; // Header is line 1 for CSV
+            List<Row> chunk = new ArrayList<>(chunkSize);
+            for (String line; (line = in.readLine()) != null;) { // Stream: only one chunk in memory
+                lineNo++;
+                if (line.isBlank())
+                    continue; // Skip empty lines
+                long start = lineNo; // A record is reported by its first line
+                if (!ndjson && oddQuotes(line)) { // A quoted field continues on the next line(s)
+                    StringBuilder record = new StringBuilder(line);
+                    boolean open = true;
+                    for (String next; open && record.length() <= MAX_CSV_RECORD && (next = in.readLine()) != null;) {
+                        lineNo++;
+                        record.append('\n').append(next); // Line break is part of the field
+                        open ^= oddQuotes(next);
+                    }
+                    line = record.toString(); // Still open at EOF or past the cap: splitCsv rejects it
+                }
+                job.lineRead();
+                try {
+                    chunk.add(new Row(start, ndjson ? parseJson(line) : parseCsv(header, line)));
+                } catch (IllegalArgumentException ex) { // Malformed line
+                    job.error(start, ex.getMessage());
+                }
+                if (chunk.size() >= chunkSize) {
+                    writeChunk(job, kind, chunk, schoolId);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty())
+                writeChunk(job, kind, chunk, schoolId); // Tail chunk
+            job.setStatus(ImportJob.Status.DONE);
+        } catch (Exception ex) { // I/O or unexpected failure: stop the job
+            log.warn("Import {} failed", job.getId(), ex);
+            job.error(0, "Import aborted: " + ex.getMessage());
+            job.setStatus(ImportJob.Status.FAILED);
+        } finally {
+            try {
+                Files.deleteIfExists(file); // Clean up the temp copy
+            } catch (IOException ignored) {
+                // Temp dir cleanup will get it eventually
+            }
+        }
+    }
+
+    private void writeChunk(ImportJob job, Kind kind, List<Row> rows, Long schoolId) { // Validate, hash, batch insert
+        List<Prepared> valid = new ArrayList<>(rows.size());
+        for (Row r : rows) {
+            try {
+                valid.add(new Prepared(r.line(), validate(kind, r.fields(), schoolId)));
+            } catch (IllegalArgumentException ex) {
+                job.error(r.line(), ex.getMessage()); // Missing/invalid field
+            }
+        }
+        List<Prepared> ready = ownReferences(job, kind, valid);
+        if (ready.isEmpty())
+            return;
+
+        if (kind != Kind.ENROLLMENTS) { // Replace raw passwords (3rd column) with BCrypt hashes
+            List<String> hashes = hashing.encodeAll(ready.stream().map(p -> (String) p.args()[2]).toList());
+            for (int i = 0; i < ready.size(); i++)
+                ready.get(i).args()[2] = hashes.get(i);
+        }
+
+        String sql = insertSql(kind);
+        try {
+            tx.executeWithoutResult(s -> jdbc.batchUpdate(sql, ready.stream().map(Prepared::args).toList()));
+            job.imported(ready.size()); // Whole chunk went in as one batch
+        } catch (DataAccessException batchFailure) { // Some row violates a constraint: isolate it
+            for (Prepared p : ready) {
+                try {
+                    tx.executeWithoutResult(s -> jdbc.update(sql, p.args()));
+                    job.imported(1);
+                } catch (DataAccessException rowFailure) {
+                    job.error(p.line(), firstLine(NestedExceptionUtils.getMostSpecificCause(rowFailure).getMessage()));
+                }
+            }
+        }
+        if (kind == Kind.ENROLLMENTS) { // Chunk already committed
+            dashboards.touchAll(); // New enrollments may show on any dashboard
+            stats.invalidateAll(); // Reload class statistics lazily
+        } else {
+            search.invalidate(); // New students/teachers: rebuild the school's index on its next search
+        }
+    }
+
+    private static Object[] validate(Kind kind, Map<String, String> f, Long schoolId) { // Field checks → insert parameters
+        return switch (kind) {
+            case STUDENTS -> new Object[] { text(f, "name", 50), text(f, "email", 50), text(f, "password", 255),
+                    schoolId };
+            case TEACHERS -> new Object[] { text(f, "name", 50), text(f, "email", 50), text(f, "password", 255),
+                    id(f, "classId"), schoolId };
+            case ENROLLMENTS -> new Object[] { id(f, "studentId"), id(f, "classId"), optionalText(f, "mark", 10),
+                    schoolId };
+        };
+    }
+
+    // Foreign keys only prove a class/student exists somewhere: rows pointing at
+    // another school's ids are rejected here (one id query per chunk and table).
+    private List<Prepared> ownReferences(ImportJob job, Kind kind, List<Prepared> rows) {
+        if (kind == Kind.STUDENTS || rows.isEmpty())
+            return rows;
+        int classCol = kind == Kind.TEACHERS ? 3 : 1;
+        Set<Long> classes = new HashSet<>(classRepo.findExistingIds(
+                rows.stream().map(p -> (Long) p.args()[classCol]).distinct().toList()));
+        Set<Long> students = kind == Kind.ENROLLMENTS
+                ? new HashSet<>(studentRepo.findExistingIds(rows.stream().map(p -> (Long) p.args()[0]).distinct().toList()))
+                : Set.of();
+        List<Prepared> own = new ArrayList<>(rows.size());
+        for (Prepared p : rows) {
+            if (!classes.contains((Long) p.args()[classCol]))
+                job.error(p.line(), "Unknown classId " + p.args()[classCol]);
+            else if (kind == Kind.ENROLLMENTS && !students.contains((Long) p.args()[0]))
+                job.error(p.line(), "Unknown studentId " + p.args()[0]);
+            else
+                own.add(p);
+        }
+        return own;
+    }
+
+    private static String text(Map<String, String> f, String name, int maxLen) { // Required string column
+        String v = optionalText(f, name, maxLen);
+        if (v == null)
+            throw new IllegalArgumentException(name + " is required");
+        return v;
+    }
+
+    private static String optionalText(Map<String, String> f, String name, int maxLen) { // Optional string column
+        String v = f.get(name);
+        if (v == null || v.isBlank())
+            return null;
+        v = v.trim();
+        if (v.length() > maxLen)
+            throw new IllegalArgumentException(name + " is longer than " + maxLen + " characters");
+        return v;
+    }
+
+    private static Long id(Map<String, String> f, String name) { // Required numeric id column
+        String v = text(f, name, 20);
+        try {
+            return Long.valueOf(v);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException(name + " is not a number");
+        }
+    }
+
+    private static String firstLine(String message) { // Driver messages often append the full SQL statement
+        if (message == null)
+            return "Rejected by the database";
+        int cut = message.indexOf('\n');
+        return (cut < 0 ? message : message.substring(0, cut)).replaceFirst("; SQL statement:$", "");
+    }
+
+    private static String insertSql(Kind kind) { // Statement per kind
+        return switch (kind) {
+            case STUDENTS -> INSERT_STUDENT;
+            case TEACHERS -> INSERT_TEACHER;
+            case ENROLLMENTS -> INSERT_ENROLLMENT;
+        };
+    }
+
+    private Map<String, String> parseJson(String line) { // One NDJSON object → field map
+        try {
+            Map<String, Object> obj = mapper.readValue(line, new TypeReference<Map<String, Object>>() {});
+            Map<String, String> fields = new HashMap<>();
+            obj.forEach((k, v) -> fields.put(k, v == null ? null : v.toString()));
+            return fields;
+        } catch (IOException ex) {
+            throw new IllegalArgumentException("Invalid JSON");
+        }
+    }
+
+    private static String[] parseHeader(String line) { // CSV header → column names
+        if (line == null || line.isBlank())
+            throw new IllegalArgumentException("CSV header line is missing");
+        List<String> cols = splitCsv(line);
+        return cols.stream().map(String::trim).toArray(String[]::new);
+    }
+
+    private static Map<String, String> parseCsv(String[] header, String record) { // One CSV record → field map
+        List<String> values = splitCsv(record);
+        if (values.size() != header.length)
+            throw new IllegalArgumentException("Expected " + header.length + " columns but found " + values.size());
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < header.length; i++)
+            fields.put(header[i], values.get(i));
+        return fields;
+    }
+
+    private static boolean oddQuotes(String line) { // Odd number of quotes: the line opens or closes a quoted field
+        return line.chars().filter(c -> c == '"').count() % 2 == 1;
+    }
+
+    static List<String> splitCsv(String line) { // RFC 4180 field splitting of one record ("" escapes a quote, line breaks stay in quoted fields)
+        List<String> out = new ArrayList<>();
+        StringBuilder cur = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cur.append('"'); // Escaped quote
+                    i++;
+                } else if (c == '"') {
+                    quoted = false; // Closing quote
+                } else {
+                    cur.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true; // Opening quote
+            } else if (c == ',') {
+                out.add(cur.toString()); // Field boundary
+                cur.setLength(0);
+            } else {
+                cur.append(c);
+            }
+        }
+        if (quoted)
+            throw new IllegalArgumentException("Unterminated quoted field");
+        out.add(cur.toString()); // Last field
+        return out;
+    }
+
+    private static Kind parseKind(String kind) { // Path segment → Kind
+        try {
+            return Kind.valueOf(kind.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Unknown import kind: " + kind);
+        }
+    }
+
+    private static boolean isNdjson(MultipartFile file, String format) { // Explicit format, else file name / type
+        if (format != null && !format.isBlank()) {
+            if (format.equalsIgnoreCase("ndjson") || format.equalsIgnoreCase("jsonl"))
+                return true;
+            if (format.equalsIgnoreCase("csv"))
+                return false;
+            throw new BadRequestException("Unknown import format: " + format);
+        }
+        String name = Objects.requireNonNullElse(file.getOriginalFilename(), "").toLowerCase(Locale.ROOT);
+        String type = Objects.requireNonNullElse(file.getContentType(), "");
+        return name.endsWith(".ndjson") || name.endsWith(".jsonl") || type.contains("ndjson");
+    }
+
+    @PreDestroy
+    public void shutdown() { // Stop workers on context close
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,66 @@
+package com.example2.demo2.service; // Package for service-layer classes
+
+import com.example2.demo2.dto.PageRes; // Page response DTO
+import com.example2.demo2.error.BadRequestException; // 400 for malformed cursors
+import org.springframework.beans.factory.annotation.Value; // Inject settings from application.properties
+import org.springframework.data.domain.Limit; // Spring Data result limit
+import org.springframework.stereotype.Component; // Marks as Spring component
+
+import java.nio.charset.StandardCharsets; // Cursor text encoding
+import java.util.Base64; // URL-safe cursor tokens
+import java.util.List; // Java List
+import java.util.function.Function; // Extracts the id of a row
+
+// Helpers for keyset ("seek") pagination on a Long id column.
+// A cursor is an opaque token for "the last id the client has seen"; the next page is
+// "id > cursor order by id limit n", which uses the primary key index at any depth.
+@Component // Register as a Spring bean
+public class KeysetPaging {
+
+    private final int defaultSize; // Page size when the client does not ask for one
+    private final int maxSize; // Hard cap on page size
+
+    public KeysetPaging(@Value("${app.paging.default-size:50}") int defaultSize,
+            @Value("${app.paging.max-size:200}") int maxSize) {
+        this.defaultSize = defaultSize; // Keep default
+        this.maxSize = maxSize; // Keep cap
+    }
+
+    public int size(Integer requested) { // Clamp the requested page size into [1, maxSize]
+        if (requested == null)
+            return defaultSize;
+        return Math.max(1, Math.min(requested, maxSize));
+    }
+
+    public Limit probe(int size) { // Fetch one extra row to learn whether another page exists
+        return Limit.of(size + 1);
+    }
+
+    public long after(String cursor) { // Decode a cursor into the last seen id (0 = start)
+        if (cursor == null || cursor.isBlank())
+            return 0L; // First page
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException ex) { // Bad base64 or not a number
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    public String cursor(long lastId) { // Encode the last id of a page as an opaque token
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public <T> PageRes<T> page(List<T> rows, int size, Function<T, Long> idOf) { // Trim the probe row + build cursor
+        if (rows.size() <= size)
+            return new PageRes<>(rows, null); // Nothing beyond this page
+        List<T> items = rows.subList(0, size); // Drop the extra probe row
+        return new PageRes<>(items, cursor(idOf.apply(items.get(size - 1)))); // Cursor = last id on this page
+    }
+
+    public static String likePrefix(String prefix) { // Escape LIKE wildcards so user input is a literal prefix
+        if (prefix == null || prefix.isBlank())
+            return null; // No filter
+        return prefix.trim().replace("!", "!!").replace("%", "!%").replace("_", "!_"); // '!' is the escape char
+    }
+}
@@ -0,0 +1,66 @@
+package com.example2.demo2.service; // Package for service-layer classes
+
+import com.example2.demo2.config.CacheNames; // Cache names
+import com.example2.demo2.config.ReadReplicas; // Cache misses read the primary
+import com.example2.demo2.dto.CacheStatsRes; // Cache counters DTO
+import com.example2.demo2.dto.ClassroomRes; // Immutable classroom DTO (safe to share from a cache)
+import com.example2.demo2.repo.ClassroomRepository; // Classroom lookups
+import com.example2.demo2.repo.TeacherRepository; // Teacher → class lookups
+import org.springframework.cache.CacheManager; // Access to the configured caches
+import org.springframework.cache.annotation.Cacheable; // Read-through caching
+import com.github.benmanes.caffeine.cache.Cache; // Native Caffeine cache (for stats)
+import org.springframework.stereotype.Service; // Marks as Spring service
+import org.springframework.transaction.annotation.Propagation; // Transaction propagation modes
+import org.springframework.transaction.annotation.Transactional; // Transaction boundaries
+
+import java.util.List; // Java List
+import java.util.Objects; // Null filter
+
+// Read-through cache in front of near-static lookups: the class list, classrooms
+// by id and which class each teacher owns. Entries are evicted by AdminService
+// whenever the underlying rows change, and expire after the configured TTL.
+// Misses read the primary, outside any caller transaction: an entry filled from a
+// lagging replica would stay stale until the next eviction.
+@Service // Register as a Spring service bean
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // Misses run their own query, not the caller's transaction
+public class LookupService {
+
+    private final ClassroomRepository classRepo; // Classroom source of truth
+    private final TeacherRepository teacherRepo; // Teacher source of truth
+    private final CacheManager cacheManager; // For stats reporting
+
+    public LookupService(ClassroomRepository classRepo, TeacherRepository teacherRepo, CacheManager cacheManager) {
+        this.classRepo = classRepo; // Assign classroom repo
+        this.teacherRepo = teacherRepo; // Assign teacher repo
+        this.cacheManager = cacheManager; // Assign cache manager
+    }
+
+    @Cacheable(CacheNames.CLASSES) // One shared copy of the (small) class list
+    public List<ClassroomRes> allClasses() {
+        return ReadReplicas.callOnPrimary(classRepo::findAllRes);
+    }
+
+    @Cacheable(CacheNames.CLASSROOMS) // Classroom by id (missing ids throw and are not cached)
+    public ClassroomRes classroom(Long id) {
+        return ReadReplicas.callOnPrimary(() -> classRepo.findResById(id)).orElseThrow();
+    }
+
+    @Cacheable(CacheNames.TEACHER_CLASS) // Teacher id → owned class id, without loading the Teacher
+    public Long classIdOfTeacher(Long teacherId) {
+        return ReadReplicas.callOnPrimary(() -> teacherRepo.findClassIdByTeacherId(teacherId)).orElseThrow();
+    }
+
+    public List<CacheStatsRes> stats() { // Hit/miss/eviction counters per cache
+        return cacheManager.getCacheNames().stream()
+                .map(cacheManager::getCache)
+                .filter(Objects::nonNull)
+                .filter(c -> c.getNativeCache() instanceof Cache<?, ?>) // Caches are wrapped per school
+                .map(c -> {
+                    var nativeCache = (Cache<?, ?>) c.getNativeCache();
+                    var s = nativeCache.stats(); // Requires "recordStats" in the cache spec
+                    return new CacheStatsRes(c.getName(), nativeCache.estimatedSize(), s.hitCount(), s.missCount(),
+                            s.evictionCount(), s.hitRate());
+                })
+                .toList();
+    }
+}
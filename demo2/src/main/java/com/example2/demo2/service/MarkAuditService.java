@@ -0,0 +1,180 @@
+package com.example2.demo2.service; // Package for service-layer classes
+
+import com.example2.demo2.config.SchoolContext; // Current school (tenant)
+import com.example2.demo2.dto.MarkAuditRes; // Audit row projection
+import com.example2.demo2.dto.PageRes; // Page response DTO
+import com.example2.demo2.error.BadRequestException; // 400 when no filter is given
+import com.example2.demo2.repo.MarkHistoryRepository; // Keyset reads of the history table
+import io.micrometer.core.instrument.Counter; // Dropped-entry counter
+import io.micrometer.core.instrument.Gauge; // Queue depth gauge
+import io.micrometer.core.instrument.MeterRegistry; // Micrometer registry (exposed by Actuator)
+import jakarta.annotation.PreDestroy; // Final flush on context close
+import org.slf4j.Logger; // Logging API
+import org.slf4j.LoggerFactory; // Logger factory
+import org.springframework.beans.factory.annotation.Value; // Inject settings from application.properties
+import org.springframework.jdbc.core.JdbcTemplate; // JDBC batch inserts
+import org.springframework.stereotype.Service; // Marks as Spring service
+
+import java.sql.Timestamp; // JDBC timestamp
+import java.sql.Types; // Null teacher id
+import java.time.Instant; // Change time
+import java.util.ArrayList; // Current flush batch
+import java.util.List; // Java List
+import java.util.Locale; // Case-insensitive mode names
+import java.util.concurrent.ArrayBlockingQueue; // Bounded in-memory queue
+import java.util.concurrent.BlockingQueue; // Queue interface
+import java.util.concurrent.Executors; // Flusher thread factory
+import java.util.concurrent.ScheduledExecutorService; // Periodic flushes
+import java.util.concurrent.TimeUnit; // Flush interval unit
+import java.util.concurrent.atomic.AtomicBoolean; // One pending early flush at a time
+import java.util.concurrent.locks.ReentrantLock; // One flush at a time (keeps id order = change order)
+
+// Append-only audit trail of mark changes (enrollment_mark_history).
+// In "batched" mode (the default) a change is queued in memory once its transaction
+// has committed, and a background thread inserts the queue in JDBC batches every
+// flush interval or as soon as a full batch is waiting. A mark write therefore costs
+// no extra statement; changes still queued when the process dies are lost.
+// In "sync" mode the history row is inserted in the same transaction as the mark.
+@Service // Register as a Spring service bean
+public class MarkAuditService {
+
+    public enum Mode { SYNC, BATCHED } // Durability of audit entries
+
+    private static final Logger log = LoggerFactory.getLogger(MarkAuditService.class);
+
+    private static final String INSERT_SQL = "insert into enrollment_mark_history "
+            + "(class_id, student_id, teacher_id, old_mark, new_mark, changed_at, school_id) values (?, ?, ?, ?, ?, ?, ?)";
+
+    private record Entry(Long classId, Long studentId, Long teacherId, String oldMark, String newMark,
+            Instant changedAt, Long schoolId) {
+    }
+
+    private final JdbcTemplate jdbc; // Batch inserts
+    private final MarkHistoryRepository historyRepo; // Audit queries
+    private final KeysetPaging paging; // Cursor/page-size helpers
+    private final SchoolContext schools; // School of each entry (captured on the writing thread)
+    private final Mode mode; // sync or batched
+    private final int batchSize; // Rows per INSERT batch
+    private final BlockingQueue<Entry> queue; // Committed changes waiting to be written
+    private final List<Entry> batch = new ArrayList<>(); // Batch being written (kept for retry if the insert fails)
+    private final ReentrantLock flushLock = new ReentrantLock(); // Guards batch; one writer at a time
+    private final AtomicBoolean flushRequested = new AtomicBoolean(); // Early flush already submitted
+    private final ScheduledExecutorService flusher; // Background writer
+    private final Counter dropped; // Entries lost because the queue stayed full
+
+    public MarkAuditService(JdbcTemplate jdbc,
+            MarkHistoryRepository historyRepo,
+            KeysetPaging paging,
+            SchoolContext schools,
+            MeterRegistry registry,
+            @Value("${app.audit.mode:batched}") String mode,
+            @Value("${app.audit.batch-size:500}") int batchSize,
+            @Value("${app.audit.flush-interval-ms:1000}") long flushIntervalMs,
+            @Value("${app.audit.queue-capacity:100000}") int queueCapacity) {
+        this.jdbc = jdbc; // Assign JDBC template
+        this.historyRepo = historyRepo; // Assign repository
+        this.paging = paging; // Assign paging helper
+        this.schools = schools; // Assign school context
+        this.mode = Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT)); // Fail fast on a typo
+        this.batchSize = Math.max(1, batchSize);
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "mark-audit");
+            t.setDaemon(true); // Never block JVM shutdown
+            return t;
+        });
+        long interval = Math.max(1, flushIntervalMs);
+        if (this.mode == Mode.BATCHED)
+            flusher.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        Gauge.builder("app.audit.queue", queue, BlockingQueue::size)
+                .description("Mark changes waiting to be written to the audit table").register(registry);
+        this.dropped = Counter.builder("app.audit.dropped")
+                .description("Mark changes not audited because the queue was full").register(registry);
+    }
+
+    // Records one mark change. Call inside the transaction that writes the mark:
+    // in batched mode nothing is queued unless that transaction commits.
+    public void record(Long teacherId, Long classId, Long studentId, String oldMark, String newMark) {
+        Entry e = new Entry(classId, studentId, teacherId, oldMark, newMark, Instant.now(),
+                schools.currentSchoolId()); // The flusher thread has no school of its own
+        if (mode == Mode.SYNC) {
+            insert(List.of(e)); // Same transaction (and connection) as the mark write
+            return;
+        }
+        AfterCommit.run(() -> enqueue(e));
+    }
+
+    public PageRes<MarkAuditRes> page(Long studentId, Long classId, String cursor, Integer limit) { // History, oldest first
+        int size = paging.size(limit); // Clamp page size
+        long after = paging.after(cursor); // Last id already seen
+        List<MarkAuditRes> rows;
+        if (studentId != null && classId != null)
+            rows = historyRepo.findPageByStudentAndClass(studentId, classId, after, paging.probe(size));
+        else if (studentId != null)
+            rows = historyRepo.findPageByStudent(studentId, after, paging.probe(size));
+        else if (classId != null)
+            rows = historyRepo.findPageByClass(classId, after, paging.probe(size));
+        else
+            throw new BadRequestException("studentId or classId is required");
+        return paging.page(rows, size, MarkAuditRes::id); // Trim probe row + next cursor
+    }
+
+    public void flush() { // Write everything queued so far; throws if the database rejects a batch
+        flushLock.lock();
+        try {
+            while (true) {
+                if (batch.isEmpty())
+                    queue.drainTo(batch, batchSize); // Else: retry the batch that failed last time
+                if (batch.isEmpty())
+                    return;
+                insert(batch);
+                batch.clear();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void enqueue(Entry e) { // After commit: hand the entry to the flusher
+        if (!queue.offer(e)) { // Flusher is behind (or the database is down): write on this thread
+            flushQuietly();
+            if (!queue.offer(e)) {
+                dropped.increment();
+                log.warn("Audit queue full; mark change for student {} in class {} was not audited",
+                        e.studentId(), e.classId());
+                return;
+            }
+        }
+        if (queue.size() >= batchSize && flushRequested.compareAndSet(false, true)) // Full batch: don't wait for the timer
+            flusher.execute(() -> {
+                flushRequested.set(false);
+                flushQuietly();
+            });
+    }
+
+    private void flushQuietly() { // Background flush: keep the entries and try again next time
+        try {
+            flush();
+        } catch (RuntimeException ex) {
+            log.warn("Writing mark audit entries failed ({} queued); will retry: {}", queue.size(), ex.toString());
+        }
+    }
+
+    private void insert(List<Entry> entries) { // One JDBC batch
+        jdbc.batchUpdate(INSERT_SQL, entries, entries.size(), (ps, e) -> {
+            ps.setLong(1, e.classId());
+            ps.setLong(2, e.studentId());
+            ps.setObject(3, e.teacherId(), Types.BIGINT);
+            ps.setString(4, e.oldMark());
+            ps.setString(5, e.newMark());
+            ps.setTimestamp(6, Timestamp.from(e.changedAt()));
+            ps.setLong(7, e.schoolId());
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() { // Stop the timer and write what is left while the database is still up
+        flusher.shutdownNow();
+        flushQuietly();
+    }
+}
@@ -0,0 +1,199 @@
+package com.example2.demo2.service; // Package for service-layer classes
+
+import com.example2.demo2.dto.MarkEventRes; // Pushed event payload
+import io.micrometer.core.instrument.Counter; // Dropped-subscriber counter
+import io.micrometer.core.instrument.Gauge; // Open-connection gauge
+import io.micrometer.core.instrument.MeterRegistry; // Micrometer registry (exposed by Actuator)
+import jakarta.annotation.PreDestroy; // Close streams on context close
+import org.springframework.beans.factory.annotation.Qualifier; // Pick Boot's task executor
+import org.springframework.beans.factory.annotation.Value; // Inject settings from application.properties
+import org.springframework.core.task.AsyncTaskExecutor; // Runs sender tasks
+import org.springframework.core.task.TaskRejectedException; // Executor shutting down
+import org.springframework.http.MediaType; // Event data as JSON
+import org.springframework.stereotype.Service; // Marks as Spring service
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter; // Server-sent events response
+
+import java.io.IOException; // Client went away
+import java.util.List; // Fan-out targets
+import java.util.Map; // Channel → subscribers
+import java.util.Set; // Subscribers of one channel
+import java.util.concurrent.ArrayBlockingQueue; // Bounded per-subscriber buffer
+import java.util.concurrent.BlockingQueue; // Queue interface
+import java.util.concurrent.ConcurrentHashMap; // Thread-safe channels
+import java.util.concurrent.Executors; // Heartbeat thread factory
+import java.util.concurrent.ScheduledExecutorService; // Periodic heartbeats
+import java.util.concurrent.TimeUnit; // Heartbeat interval unit
+import java.util.concurrent.atomic.AtomicBoolean; // Sender scheduled / closed flags
+import java.util.concurrent.atomic.AtomicInteger; // Open connection count
+
+// In-process fan-out of enrollment and mark changes to server-sent event streams:
+// one channel per student (their dashboard) and one per class (its teacher's
+// gradebook). Events are published only once the change has committed.
+// Publishing never touches a socket: each subscriber has a small bounded buffer,
+// and a sender task on Boot's application task executor drains it. A subscriber
+// whose buffer overflows is disconnected; the browser's EventSource reconnects
+// and re-fetches. Idle streams hold no thread (async servlet requests), and with
+// spring.threads.virtual.enabled=true the sender tasks run on virtual threads.
+@Service // Register as a Spring service bean
+public class MarkEventHub {
+
+    private record Outgoing(String name, Object data) { // One buffered event (name null = heartbeat comment)
+    }
+
+    private static final Outgoing HEARTBEAT = new Outgoing(null, null);
+
+    private final Map<Long, Set<Subscriber>> byStudent = new ConcurrentHashMap<>(); // studentId → streams
+    private final Map<Long, Set<Subscriber>> byClass = new ConcurrentHashMap<>(); // classId → streams
+    private final AsyncTaskExecutor senders; // Runs drain tasks (virtual threads when enabled)
+    private final ScheduledExecutorService heartbeat; // Keeps idle streams alive through proxies
+    private final int bufferSize; // Events buffered per subscriber before it is dropped
+    private final long timeoutMs; // Stream lifetime before the client reconnects
+    private final AtomicInteger open = new AtomicInteger(); // Open streams
+    private final Counter dropped; // Slow consumers disconnected
+
+    public MarkEventHub(@Qualifier("applicationTaskExecutor") AsyncTaskExecutor senders,
+            MeterRegistry registry,
+            @Value("${app.events.buffer-size:32}") int bufferSize,
+            @Value("${app.events.timeout-ms:1800000}") long timeoutMs,
+            @Value("${app.events.heartbeat-seconds:25}") long heartbeatSeconds) {
+        this.senders = senders; // Assign executor
+        this.bufferSize = Math.max(1, bufferSize);
+        this.timeoutMs = timeoutMs;
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "sse-heartbeat");
+            t.setDaemon(true); // Never block JVM shutdown
+            return t;
+        });
+        long every = Math.max(1, heartbeatSeconds);
+        heartbeat.scheduleWithFixedDelay(this::sendHeartbeats, every, every, TimeUnit.SECONDS);
+        Gauge.builder("app.events.subscribers", open, AtomicInteger::get)
+                .description("Open server-sent event streams").register(registry);
+        this.dropped = Counter.builder("app.events.dropped")
+                .description("Streams disconnected because the client could not keep up").register(registry);
+    }
+
+    public SseEmitter subscribeStudent(Long studentId) { // Stream of one student's enrollment/mark changes
+        return subscribe(byStudent, studentId);
+    }
+
+    public SseEmitter subscribeClass(Long classId) { // Stream of every enrollment/mark change in one class
+        return subscribe(byClass, classId);
+    }
+
+    // Call inside the transaction that makes the change: subscribers hear about it
+    // after commit, and never about a rolled-back change.
+    public void publish(MarkEventRes event) {
+        AfterCommit.run(() -> {
+            Outgoing out = new Outgoing(event.type(), event);
+            deliver(byStudent.get(event.studentId()), out);
+            deliver(byClass.get(event.classId()), out);
+        });
+    }
+
+    private SseEmitter subscribe(Map<Long, Set<Subscriber>> channels, Long key) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber sub = new Subscriber(emitter, channels, key);
+        channels.compute(key, (k, subs) -> { // Add under the map lock (close() may be removing the set)
+            Set<Subscriber> s = subs != null ? subs : ConcurrentHashMap.<Subscriber>newKeySet();
+            s.add(sub);
+            return s;
+        });
+        open.incrementAndGet();
+        emitter.onCompletion(sub::close); // Client closed, timed out or errored: stop delivering
+        emitter.onTimeout(sub::close);
+        emitter.onError(ex -> sub.close());
+        sub.offer(new Outgoing("ready", key)); // Commits the response headers so proxies start streaming
+        return emitter;
+    }
+
+    private static void deliver(Set<Subscriber> subs, Outgoing out) {
+        if (subs != null)
+            for (Subscriber s : subs)
+                s.offer(out);
+    }
+
+    private void sendHeartbeats() {
+        for (Map<Long, Set<Subscriber>> channels : List.of(byStudent, byClass))
+            for (Set<Subscriber> subs : channels.values())
+                deliver(subs, HEARTBEAT);
+    }
+
+    @PreDestroy
+    public void shutdown() { // End every stream so the container can stop
+        heartbeat.shutdownNow();
+        for (Map<Long, Set<Subscriber>> channels : List.of(byStudent, byClass))
+            for (Set<Subscriber> subs : channels.values())
+                for (Subscriber s : subs)
+                    s.complete();
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter; // The HTTP stream
+        private final Map<Long, Set<Subscriber>> channels; // Where this subscriber is registered
+        private final Long key; // Its channel key
+        private final BlockingQueue<Outgoing> buffer = new ArrayBlockingQueue<>(bufferSize); // Pending events
+        private final AtomicBoolean sending = new AtomicBoolean(); // A drain task is scheduled or running
+        private final AtomicBoolean closed = new AtomicBoolean(); // Removed from its channel
+
+        Subscriber(SseEmitter emitter, Map<Long, Set<Subscriber>> channels, Long key) {
+            this.emitter = emitter;
+            this.channels = channels;
+            this.key = key;
+        }
+
+        void offer(Outgoing out) { // Publisher side: never blocks
+            if (closed.get())
+                return;
+            if (!buffer.offer(out)) { // Slow consumer: disconnect rather than hold events for it
+                dropped.increment();
+                complete();
+                return;
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (!sending.compareAndSet(false, true))
+                return; // The running drain task will pick the event up
+            try {
+                senders.execute(this::drain);
+            } catch (TaskRejectedException ex) { // Shutting down
+                sending.set(false);
+                complete();
+            }
+        }
+
+        private void drain() { // Sender side: write buffered events to the socket
+            try {
+                Outgoing out;
+                while (!closed.get() && (out = buffer.poll()) != null) {
+                    if (out.name() == null)
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    else
+                        emitter.send(SseEmitter.event().name(out.name()).data(out.data(), MediaType.APPLICATION_JSON));
+                }
+            } catch (IOException | IllegalStateException ex) { // Client went away or stream already completed
+                close();
+            } finally {
+                sending.set(false);
+            }
+            if (!closed.get() && !buffer.isEmpty())
+                schedule(); // An event arrived after the last poll
+        }
+
+        void complete() { // Server side end of stream
+            close();
+            emitter.complete();
+        }
+
+        void close() { // Unregister (idempotent)
+            if (!closed.compareAndSet(false, true))
+                return;
+            open.decrementAndGet();
+            channels.computeIfPresent(key, (k, subs) -> {
+                subs.remove(this);
+                return subs.isEmpty() ? null : subs;
+            });
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example2.demo2.service; // Package for service-layer classes
+
+import java.util.Locale; // Case-insensitive letter grades
+import java.util.Map; // Letter → score table
+
+// Maps the free-form Enrollment.mark text onto one numeric 0-100 scale, stored as
+// a bucket index in steps of 0.1 (0..1000). Accepted forms: plain numbers ("87",
+// "87.5"), percentages ("87%"), fractions ("42/50") and letter grades, which map
+// to the middle of their usual percentage band. Anything else counts as ungraded.
+final class MarkScale {
+
+    static final int BUCKETS = 1001; // 0.0, 0.1, ..., 100.0
+    static final int UNGRADED = -1; // Null, blank or unrecognised mark
+
+    private static final Map<String, Double> LETTERS = Map.ofEntries(
+            Map.entry("A+", 98.5), Map.entry("A", 95.0), Map.entry("A-", 91.0),
+            Map.entry("B+", 88.0), Map.entry("B", 85.0), Map.entry("B-", 81.0),
+            Map.entry("C+", 78.0), Map.entry("C", 75.0), Map.entry("C-", 71.0),
+            Map.entry("D+", 68.0), Map.entry("D", 65.0), Map.entry("D-", 61.0),
+            Map.entry("E", 30.0), Map.entry("F", 30.0)); // Failing band is 0-59
+
+    private MarkScale() {
+    }
+
+    static int bucket(String mark) { // Mark text → bucket index, or UNGRADED
+        if (mark == null || mark.isBlank())
+            return UNGRADED;
+        String m = mark.trim().toUpperCase(Locale.ROOT);
+        Double letter = LETTERS.get(m);
+        if (letter != null)
+            return toBucket(letter);
+        try {
+            if (m.endsWith("%"))
+                return toBucket(Double.parseDouble(m.substring(0, m.length() - 1).trim()));
+            int slash = m.indexOf('/');
+            if (slash > 0) { // "42/50"
+                double total = Double.parseDouble(m.substring(slash + 1).trim());
+                return total > 0 ? toBucket(100.0 * Double.parseDouble(m.substring(0, slash).trim()) / total) : UNGRADED;
+            }
+            return toBucket(Double.parseDouble(m));
+        } catch (NumberFormatException ex) {
+            return UNGRADED; // e.g. "absent", "n/a"
+        }
+    }
+
+    static double score(int bucket) { // Bucket index → 0-100 score
+        return bucket / 10.0;
+    }
+
+    private static int toBucket(double score) {
+        if (!(score >= 0 && score <= 100)) // Also rejects NaN
+            return UNGRADED;
+        return (int) Math.round(score * 10);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example2.demo2.service; // Package for service-layer classes
+
+import com.example2.demo2.error.TooManyRequestsException; // 429 when the hashing queue is full
+import jakarta.annotation.PreDestroy; // Shut the pool down with the context
+import org.springframework.beans.factory.annotation.Value; // Inject settings from application.properties
+import org.springframework.security.crypto.password.PasswordEncoder; // BCrypt encoder from AppConfig
+import org.springframework.stereotype.Service; // Marks as Spring service
+
+import java.util.ArrayList; // Result list
+import java.util.List; // Java List
+import java.util.concurrent.CompletableFuture; // Async hashing tasks
+import java.util.concurrent.CompletionException; // Unwrap task failures
+import java.util.concurrent.ExecutorService; // Worker pool type
+import java.util.concurrent.Executors; // Pool factory
+import java.util.concurrent.Semaphore; // Bounds running + queued tasks
+import java.util.concurrent.atomic.AtomicInteger; // Thread name counter
+import java.util.function.Supplier; // One hashing task
+
+// Runs all BCrypt work (hashing and verification) on a fixed pool capped at the core
+// count, so CPU-heavy hashing never runs on request threads and cannot starve
+// IO-bound requests — which matters most when requests run on virtual threads.
+// At most threads + queue-capacity interactive tasks (login, create user) may be
+// pending; beyond that they get a 429. Bulk imports have their own budget of one
+// task in flight per thread and wait for room instead, so an import never uses up
+// the interactive slots and a login only queues behind the hashes already running.
+@Service // Register as a Spring service bean
+public class PasswordHashingService {
+
+    private final PasswordEncoder encoder; // BCrypt encoder
+    private final ExecutorService pool; // Bounded worker pool for hashing
+    private final Semaphore slots; // Running + queued interactive task limit (backpressure)
+    private final Semaphore bulkSlots; // Bulk tasks in flight (at most one per thread)
+
+    public PasswordHashingService(PasswordEncoder encoder,
+            @Value("${app.hashing.threads:0}") int threads, // 0 = one thread per core
+            @Value("${app.hashing.queue-capacity:64}") int queueCapacity) { // Waiting tasks before 429
+        this.encoder = encoder; // Keep encoder
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors(); // Resolve pool size
+        this.slots = new Semaphore(size + Math.max(0, queueCapacity)); // Workers + queue
+        this.bulkSlots = new Semaphore(size); // Never more bulk work than workers
+        AtomicInteger n = new AtomicInteger(); // For readable thread names
+        this.pool = Executors.newFixedThreadPool(size, r -> {
+            Thread t = new Thread(r, "pw-hash-" + n.incrementAndGet());
+            t.setDaemon(true); // Never block JVM shutdown
+            return t;
+        });
+    }
+
+    public String encode(String rawPassword) { // Hash one password for a request; 429 when saturated
+        return run(() -> encoder.encode(rawPassword));
+    }
+
+    public boolean matches(String rawPassword, String hash) { // Verify one password for a request; 429 when saturated
+        return run(() -> encoder.matches(rawPassword, hash));
+    }
+
+    public List<String> encodeAll(List<String> rawPasswords) { // Hash many passwords in parallel, keeping order
+        List<CompletableFuture<String>> futures = new ArrayList<>(rawPasswords.size());
+        for (String raw : rawPasswords) {
+            bulkSlots.acquireUninterruptibly(); // Bulk work waits for room instead of failing
+            futures.add(submit(bulkSlots, () -> raw == null ? null : encoder.encode(raw)));
+        }
+        List<String> hashes = new ArrayList<>(rawPasswords.size());
+        for (CompletableFuture<String> f : futures)
+            hashes.add(f.join()); // Wait for each (all run concurrently)
+        return hashes;
+    }
+
+    private <T> T run(Supplier<T> task) { // Offload one task and wait for its result
+        if (!slots.tryAcquire())
+            throw new TooManyRequestsException("Password hashing is busy, try again shortly");
+        try {
+            return submit(slots, task).join(); // Caller blocks (cheap on a virtual thread); CPU work stays on the pool
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException re)
+                throw re; // e.g. IllegalArgumentException for a malformed hash
+            throw ex;
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(Semaphore held, Supplier<T> task) { // Caller already holds a slot of held
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return task.get();
+                } finally {
+                    held.release(); // Free the slot once the work is done
+                }
+            }, pool);
+        } catch (RuntimeException ex) { // Pool shut down
+            held.release();
+            throw ex;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() { // Stop worker threads on context close
+        pool.shutdownNow();
+    }
+}
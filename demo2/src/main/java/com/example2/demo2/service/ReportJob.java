@@ -0,0 +1,98 @@
+package com.example2.demo2.service; // Package for service-layer classes
+
+import com.example2.demo2.dto.ReportJobRes; // Progress snapshot DTO
+
+import java.nio.file.Path; // Finished ZIP
+import java.util.concurrent.atomic.AtomicLong; // Counter updated by the worker, read by status calls
+
+// Mutable progress of one report card job, updated by the report worker and read
+// concurrently by status, download and cancel requests.
+public class ReportJob {
+
+    public enum Status { QUEUED, RUNNING, DONE, FAILED, CANCELLED } // Job lifecycle
+
+    private final String id; // Job id returned to the client
+    private final String term; // Label printed on every report card
+    private volatile Status status = Status.QUEUED; // Current state
+    private volatile boolean cancelRequested; // Checked by the worker between students
+    private volatile long studentsTotal; // Students of the school when the job started
+    private final AtomicLong studentsDone = new AtomicLong(); // Report cards written to the ZIP
+    private volatile long startedNanos; // When the worker picked the job up
+    private volatile long finishedNanos; // When it stopped (0 while running)
+    private volatile Path file; // Finished ZIP (DONE only)
+    private volatile long zipBytes; // Size of the finished ZIP
+    private volatile String error; // Why the job failed
+
+    public ReportJob(String id, String term) {
+        this.id = id; // Keep id
+        this.term = term; // Keep term label
+    }
+
+    public String getId() {
+        return id;
+    } // Getter for id
+
+    public String getTerm() {
+        return term;
+    } // Getter for term
+
+    public Status getStatus() {
+        return status;
+    } // Getter for status
+
+    public Path getFile() {
+        return file;
+    } // Getter for the finished ZIP
+
+    public boolean isFinished() {
+        return status == Status.DONE || status == Status.FAILED || status == Status.CANCELLED;
+    } // True once the worker has stopped (the file no longer changes)
+
+    public boolean isCancelRequested() {
+        return cancelRequested;
+    } // True once cancel() was called
+
+    public void cancel() { // Ask the worker to stop after the current student
+        cancelRequested = true;
+    }
+
+    public void started(long total) { // Worker picked the job up
+        studentsTotal = total;
+        startedNanos = System.nanoTime();
+        status = Status.RUNNING;
+    }
+
+    public void studentsDone(long n) { // Count report cards written
+        studentsDone.addAndGet(n);
+    }
+
+    public void done(Path zip, long bytes) { // ZIP complete and ready for download
+        file = zip;
+        zipBytes = bytes;
+        finish(Status.DONE);
+    }
+
+    public void failed(String message) {
+        error = message;
+        finish(Status.FAILED);
+    }
+
+    public void cancelled() {
+        finish(Status.CANCELLED);
+    }
+
+    private void finish(Status s) {
+        finishedNanos = System.nanoTime();
+        status = s;
+    }
+
+    public ReportJobRes snapshot() { // Copy for the status endpoint
+        long done = studentsDone.get();
+        long start = startedNanos;
+        long end = finishedNanos != 0 ? finishedNanos : System.nanoTime();
+        double seconds = start == 0 ? 0 : (end - start) / 1e9;
+        double rate = seconds > 0 ? done / seconds : 0; // Throughput so far (or overall once finished)
+        return new ReportJobRes(id, term, status.name(), studentsTotal, done, Math.round(rate * 10) / 10.0,
+                zipBytes, error);
+    }
+}
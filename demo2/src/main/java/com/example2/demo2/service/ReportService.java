@@ -0,0 +1,312 @@
+package com.example2.demo2.service; // Package for service-layer classes
+
+import com.example2.demo2.config.SchoolContext; // Current school (tenant)
+import com.example2.demo2.dto.GradebookRowRes; // Flat (student, class, mark) row
+import com.example2.demo2.dto.ReportJobRes; // Progress snapshot DTO
+import com.example2.demo2.error.ConflictException; // 409 for downloads of unfinished jobs
+import com.example2.demo2.error.TooManyRequestsException; // 429 when every job slot is still active
+import com.example2.demo2.repo.EnrollmentRepository; // Streaming report query
+import com.example2.demo2.repo.StudentRepository; // Student count for progress
+import io.micrometer.core.instrument.Counter; // Report cards written
+import io.micrometer.core.instrument.MeterRegistry; // Micrometer registry (exposed by Actuator)
+import io.micrometer.core.instrument.Timer; // Job duration
+import jakarta.annotation.PreDestroy; // Stop workers with the context
+import org.slf4j.Logger; // Logging API
+import org.slf4j.LoggerFactory; // Logger factory
+import org.springframework.beans.factory.annotation.Value; // Inject settings from application.properties
+import org.springframework.stereotype.Service; // Marks as Spring service
+import org.springframework.transaction.PlatformTransactionManager; // Read-only transaction for the cursor
+import org.springframework.transaction.support.TransactionTemplate; // Keeps the cursor open while streaming
+
+import java.io.BufferedOutputStream; // Buffered ZIP output
+import java.io.IOException; // I/O failures
+import java.io.UncheckedIOException; // Rethrow inside the transaction callback
+import java.nio.charset.StandardCharsets; // UTF-8 report cards
+import java.nio.file.Files; // Temp file handling
+import java.nio.file.Path; // ZIP location
+import java.util.*; // Collections
+import java.util.concurrent.CancellationException; // Cancelled between students
+import java.util.concurrent.CompletableFuture; // Batch rendered on the render pool
+import java.util.concurrent.ExecutorService; // Job workers
+import java.util.concurrent.Executors; // Pool factory
+import java.util.concurrent.ForkJoinPool; // Render pool
+import java.util.stream.Stream; // Forward-only result stream
+import java.util.zip.ZipEntry; // One report card
+import java.util.zip.ZipOutputStream; // Streaming ZIP writer
+
+// End-of-term report cards for every student of a school, as one ZIP of HTML
+// pages. A job reads every (student, class, mark) row from one cursor ordered by
+// student, groups the rows of each student, renders batches of students in
+// parallel on the render pool and appends the finished pages to a ZIP on disk in
+// student order. At most a few batches per render thread are in flight, so heap
+// use does not depend on the number of students. At most app.reports.retained-jobs
+// jobs are kept: a new job pushes out the oldest finished one (and deletes its ZIP);
+// when every slot holds a queued or running job, new jobs are refused with 429.
+// ZIPs are also deleted when a job is discarded or the application stops.
+@Service // Register as a Spring service bean
+public class ReportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportService.class);
+
+    private record Student(Long id, String name, String email, List<GradebookRowRes> classes) {} // One report card's data
+    private record Page(String name, byte[] html) {} // Rendered report card
+
+    private final EnrollmentRepository enrollRepo; // Streaming report query
+    private final StudentRepository studentRepo; // Student count
+    private final SchoolContext schools; // School the job belongs to
+    private final TransactionTemplate readOnlyTx; // Cursor transaction (a replica, when configured)
+    private final int batchSize; // Students per render task
+    private final int inFlight; // Render tasks queued or running per job
+    private final ForkJoinPool renderPool; // Renders report cards
+    private final ExecutorService workers; // Runs jobs off the request thread
+    private final Map<String, ReportJob> jobs; // Recent jobs by school/id (bounded)
+    private final int retainedJobs; // Jobs kept, active or finished
+    private final Counter cards; // Report cards written (rate = throughput)
+    private final MeterRegistry registry; // Job timers
+
+    public ReportService(EnrollmentRepository enrollRepo,
+            StudentRepository studentRepo,
+            SchoolContext schools,
+            PlatformTransactionManager txManager,
+            MeterRegistry registry,
+            @Value("${app.reports.parallelism:0}") int parallelism,
+            @Value("${app.reports.batch-size:200}") int batchSize,
+            @Value("${app.reports.concurrent-jobs:1}") int concurrentJobs,
+            @Value("${app.reports.retained-jobs:20}") int retainedJobs) {
+        this.enrollRepo = enrollRepo; // Assign enrollment repo
+        this.studentRepo = studentRepo; // Assign student repo
+        this.schools = schools; // Assign school context
+        this.readOnlyTx = new TransactionTemplate(txManager);
+        this.readOnlyTx.setReadOnly(true); // Pure read; may go to a read replica
+        this.registry = registry;
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.batchSize = Math.max(1, batchSize);
+        this.inFlight = 2 * threads; // Keeps every render thread busy while the ZIP is written
+        this.renderPool = new ForkJoinPool(threads);
+        this.workers = Executors.newFixedThreadPool(Math.max(1, concurrentJobs)); // At most N jobs at a time
+        this.jobs = Collections.synchronizedMap(new LinkedHashMap<>()); // Oldest first
+        this.retainedJobs = Math.max(1, retainedJobs);
+        this.cards = Counter.builder("app.reports.cards")
+                .description("Report cards written by report jobs")
+                .register(registry);
+    }
+
+    public ReportJobRes start(String term) { // Queue a report card job for the current school
+        String label = term == null || term.isBlank() ? "End of term" : term.trim();
+        ReportJob job = new ReportJob(UUID.randomUUID().toString(), label);
+        Long schoolId = schools.currentSchoolId(); // Workers have no request: carry the school over
+        synchronized (jobs) {
+            if (jobs.size() >= retainedJobs && !evictOldestFinished())
+                throw new TooManyRequestsException("Too many report jobs are queued or running; try again later");
+            jobs.put(jobKey(schoolId, job.getId()), job); // Make it visible to this school's status calls
+        }
+        workers.submit(() -> SchoolContext.runAs(schoolId, () -> run(job)));
+        return job.snapshot();
+    }
+
+    public ReportJobRes status(String jobId) { // Current progress of a job
+        return job(jobId).snapshot();
+    }
+
+    public Path file(String jobId) { // Finished ZIP of a job
+        ReportJob job = job(jobId);
+        if (job.getStatus() != ReportJob.Status.DONE)
+            throw new ConflictException("Report job is " + job.getStatus().name().toLowerCase(Locale.ROOT));
+        return job.getFile();
+    }
+
+    public ReportJobRes cancel(String jobId) { // Stop a queued/running job, or discard a finished one
+        ReportJob job = job(jobId);
+        job.cancel(); // The worker stops at the next student
+        if (job.isFinished()) {
+            jobs.remove(jobKey(schools.currentSchoolId(), jobId));
+            discard(job);
+        }
+        return job.snapshot();
+    }
+
+    private boolean evictOldestFinished() { // Caller holds the jobs lock; a running job's file is never dropped
+        for (Iterator<ReportJob> it = jobs.values().iterator(); it.hasNext();) {
+            ReportJob job = it.next();
+            if (job.isFinished()) {
+                it.remove();
+                discard(job);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ReportJob job(String jobId) {
+        ReportJob job = jobs.get(jobKey(schools.currentSchoolId(), jobId));
+        if (job == null)
+            throw new NoSuchElementException("Unknown report job"); // Expired or never existed
+        return job;
+    }
+
+    private static String jobKey(Long schoolId, String jobId) { // Jobs are only visible to their own school
+        return schoolId + "/" + jobId;
+    }
+
+    private void run(ReportJob job) { // Worker body
+        if (job.isCancelRequested()) {
+            job.cancelled(); // Cancelled while queued
+            return;
+        }
+        Timer.Sample sample = Timer.start(registry);
+        Path file = null;
+        try {
+            job.started(studentRepo.count());
+            file = Files.createTempFile("report-cards-", ".zip");
+            try (ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+                readOnlyTx.executeWithoutResult(s -> { // Cursor stays open for the whole pass
+                    try (Stream<GradebookRowRes> rows = enrollRepo.streamReportRows()) {
+                        write(job, rows.iterator(), zip);
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            }
+            job.done(file, Files.size(file));
+        } catch (CancellationException ex) {
+            job.cancelled();
+            delete(file);
+        } catch (Exception ex) { // I/O or unexpected failure: stop the job
+            log.warn("Report job {} failed", job.getId(), ex);
+            job.failed(ex.getMessage());
+            delete(file);
+        } finally {
+            sample.stop(Timer.builder("app.reports.duration")
+                    .description("Report card job run time")
+                    .tag("status", job.getStatus().name().toLowerCase(Locale.ROOT))
+                    .register(registry));
+        }
+    }
+
+    // Groups consecutive rows into students and hands them to the render pool in
+    // batches. Pages are written in submission order; once inFlight batches are
+    // pending, reading waits for the oldest one.
+    private void write(ReportJob job, Iterator<GradebookRowRes> rows, ZipOutputStream zip) throws IOException {
+        Deque<CompletableFuture<List<Page>>> pending = new ArrayDeque<>();
+        List<Student> batch = new ArrayList<>(batchSize);
+        Student current = null;
+        while (rows.hasNext()) {
+            GradebookRowRes r = rows.next();
+            if (current == null || !current.id().equals(r.studentId())) { // Next student
+                if (job.isCancelRequested())
+                    throw new CancellationException();
+                if (current != null)
+                    batch.add(current);
+                if (batch.size() >= batchSize) {
+                    submit(job, batch, pending, zip);
+                    batch = new ArrayList<>(batchSize);
+                }
+                current = new Student(r.studentId(), r.studentName(), r.email(), new ArrayList<>());
+            }
+            if (r.classId() != null) // The row of a student without classes carries none
+                current.classes().add(r);
+        }
+        if (current != null)
+            batch.add(current);
+        if (!batch.isEmpty())
+            submit(job, batch, pending, zip);
+        while (!pending.isEmpty())
+            append(job, pending.poll(), zip);
+    }
+
+    private void submit(ReportJob job, List<Student> batch, Deque<CompletableFuture<List<Page>>> pending,
+            ZipOutputStream zip) throws IOException {
+        String term = job.getTerm();
+        pending.add(CompletableFuture.supplyAsync(() -> batch.stream().map(s -> render(term, s)).toList(), renderPool));
+        while (pending.size() > inFlight)
+            append(job, pending.poll(), zip);
+    }
+
+    private void append(ReportJob job, CompletableFuture<List<Page>> rendered, ZipOutputStream zip) throws IOException {
+        List<Page> pages = rendered.join(); // Usually done already
+        for (Page p : pages) {
+            zip.putNextEntry(new ZipEntry(p.name()));
+            zip.write(p.html());
+            zip.closeEntry();
+        }
+        job.studentsDone(pages.size());
+        cards.increment(pages.size());
+    }
+
+    private static Page render(String term, Student s) { // One student's report card as an HTML page
+        List<GradebookRowRes> classes = new ArrayList<>(s.classes());
+        classes.sort(Comparator.comparing(GradebookRowRes::className, Comparator.nullsLast(String::compareToIgnoreCase)));
+        StringBuilder html = new StringBuilder(1024 + 96 * classes.size());
+        html.append("<!DOCTYPE html>\n<html><head><meta charset=\"utf-8\"><title>Report card - ")
+                .append(escape(s.name())).append("</title></head>\n<body>\n<h1>Report card</h1>\n<p>")
+                .append(escape(term)).append("</p>\n<p>").append(escape(s.name())).append(" (")
+                .append(escape(s.email())).append("), student #").append(s.id()).append("</p>\n");
+        double sum = 0;
+        int graded = 0;
+        if (classes.isEmpty()) {
+            html.append("<p>Not enrolled in any class.</p>\n");
+        } else {
+            html.append("<table>\n<tr><th>Class</th><th>Mark</th></tr>\n");
+            for (GradebookRowRes c : classes) {
+                html.append("<tr><td>").append(escape(c.className())).append("</td><td>")
+                        .append(c.mark() == null ? "-" : escape(c.mark())).append("</td></tr>\n");
+                int bucket = MarkScale.bucket(c.mark());
+                if (bucket != MarkScale.UNGRADED) {
+                    sum += MarkScale.score(bucket);
+                    graded++;
+                }
+            }
+            html.append("</table>\n");
+        }
+        if (graded > 0)
+            html.append(String.format(Locale.ROOT, "<p>Average: %.1f / 100 over %d graded class%s</p>\n",
+                    sum / graded, graded, graded == 1 ? "" : "es"));
+        html.append("</body></html>\n");
+        return new Page(s.id() + "-" + slug(s.name()) + ".html", html.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String escape(String text) { // HTML text content
+        if (text == null)
+            return "";
+        StringBuilder out = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                default -> out.append(c);
+            }
+        }
+        return out.toString();
+    }
+
+    private static String slug(String name) { // File-name-safe part of the student's name
+        String s = name == null ? "" : name.replaceAll("[^A-Za-z0-9]+", "-").replaceAll("^-|-$", "");
+        return s.length() > 40 ? s.substring(0, 40) : s;
+    }
+
+    private static void discard(ReportJob job) { // Delete a finished job's ZIP
+        delete(job.getFile());
+    }
+
+    private static void delete(Path file) {
+        if (file == null)
+            return;
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            log.warn("Could not delete {}", file, ex);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() { // Stop workers and remove the ZIPs on context close
+        workers.shutdownNow();
+        renderPool.shutdownNow();
+        synchronized (jobs) {
+            jobs.values().forEach(ReportService::discard);
+        }
+    }
+}
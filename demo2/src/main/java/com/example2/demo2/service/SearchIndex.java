@@ -0,0 +1,653 @@
+package com.example2.demo2.service; // Package for service-layer classes
+
+import java.util.ArrayList; // Result lists
+import java.util.Arrays; // Sorting and binary search
+import java.util.BitSet; // Deleted base documents
+import java.util.Collection; // Bulk removals
+import java.util.Comparator; // Ranking order
+import java.util.HashMap; // Build-time term ids, delta documents
+import java.util.HashSet; // Removals seen while loading
+import java.util.LinkedHashSet; // Query tokens (order kept, no duplicates)
+import java.util.List; // Java List
+import java.util.Locale; // Case folding
+import java.util.Map; // Delta documents
+import java.util.PriorityQueue; // Top-k heap
+import java.util.Set; // Kinds filter
+import java.util.concurrent.locks.ReentrantReadWriteLock; // Many searches, few writes
+import java.util.function.Supplier; // Initial load
+
+// Typeahead index over one school's student, teacher and class names and emails.
+// Text is split into lower-case letter/digit tokens. The bulk of the documents
+// live in an immutable segment made of primitive arrays:
+//   - the sorted, distinct tokens ("terms"), which double as an implicit trie:
+//     every term sharing a prefix sits in one contiguous range (the wide upper
+//     levels also get explicit child lists);
+//   - postings in CSR form (termStart/termDocs), so a term range maps to one
+//     contiguous slice of document numbers;
+//   - each document's term ids (docTermStart/docTerms) for multi-token queries.
+// Query tokens match terms exactly (score 3), as a prefix (2) or, for tokens of 4+
+// characters, as a prefix within 1-2 typos (1; Damerau-Levenshtein walked down the
+// trie, pruning branches that are already too far away). Every token must match;
+// hits are ranked by total score, then shorter name, then id. Documents are
+// numbered in that tie-break order, so a scan can stop early (see searchBase).
+// Writes go to a small delta map plus a deleted bit per replaced base document;
+// the segment is rebuilt once the delta passes 1/16 of it or deletions pass 1/4.
+final class SearchIndex {
+
+    enum Kind { STUDENT, TEACHER, CLASS } // Indexed entity types
+
+    record Doc(Kind kind, long id, String name, String email) { // One indexed row (email null for classes)
+        Doc {
+            name = name == null ? "" : name;
+        }
+
+        long key() { // Unique across kinds, orders by id then kind
+            return key(kind, id);
+        }
+
+        static long key(Kind kind, long id) {
+            return id << 2 | kind.ordinal();
+        }
+    }
+
+    record Hit(Doc doc, int score) {} // One ranked result
+
+    static final int EXACT = 3; // Token equals a term
+    static final int PREFIX = 2; // Token is a prefix of a term
+    static final int FUZZY = 1; // Token is within a few typos of a term prefix
+    private static final int MAX_TOKENS = 5; // Query tokens considered
+    private static final Kind[] KINDS = Kind.values(); // Kind by ordinal, without copying values()
+    private static final int MIN_COMPACTION = 1024; // Delta size that never triggers a rebuild
+
+    private static final Comparator<Hit> WORST_FIRST = Comparator.comparingInt(Hit::score) // Heap order
+            .thenComparing(Comparator.comparingInt((Hit h) -> h.doc().name().length()).reversed())
+            .thenComparing(Comparator.comparingLong((Hit h) -> h.doc().key()).reversed());
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock(); // Searches share, writes exclude
+    private final Object loadLock = new Object(); // One initial load at a time
+    private volatile boolean loaded; // Initial load done
+    private Segment base = Segment.build(List.of()); // Immutable bulk of the documents
+    private final BitSet deleted = new BitSet(); // Base documents removed or replaced since the build
+    private final Map<Long, Doc> delta = new HashMap<>(); // Documents added or changed since the build
+    private final Set<Long> removedWhileLoading = new HashSet<>(); // Keys deleted before the base existed
+
+    // ---- Loading and writes ----
+
+    void loadIfNeeded(Supplier<List<Doc>> rows) { // First search builds the segment from the database
+        if (loaded)
+            return;
+        synchronized (loadLock) {
+            if (loaded)
+                return;
+            Segment built = Segment.build(rows.get()); // Slow part, outside the write lock
+            lock.writeLock().lock();
+            try {
+                base = built;
+                deleted.clear();
+                for (Long key : delta.keySet()) // Writes that landed while loading win over the rows read
+                    markDeleted(key);
+                for (Long key : removedWhileLoading)
+                    markDeleted(key);
+                removedWhileLoading.clear();
+                loaded = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    void put(Doc doc) { // Document created or changed
+        lock.writeLock().lock();
+        try {
+            markDeleted(doc.key());
+            delta.put(doc.key(), doc);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(Kind kind, Collection<Long> ids) { // Documents deleted
+        lock.writeLock().lock();
+        try {
+            for (Long id : ids) {
+                long key = Doc.key(kind, id);
+                markDeleted(key);
+                delta.remove(key);
+                if (!loaded)
+                    removedWhileLoading.add(key);
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void markDeleted(long key) {
+        int doc = base.indexOf(key);
+        if (doc >= 0)
+            deleted.set(doc);
+    }
+
+    private void compactIfNeeded() { // Fold the delta into a new segment once it is no longer small
+        if (!loaded)
+            return;
+        int threshold = Math.max(MIN_COMPACTION, base.size() / 16);
+        if (delta.size() <= threshold && deleted.cardinality() <= Math.max(MIN_COMPACTION, base.size() / 4))
+            return;
+        List<Doc> live = new ArrayList<>(base.size() - deleted.cardinality() + delta.size());
+        for (int doc = deleted.nextClearBit(0); doc < base.size(); doc = deleted.nextClearBit(doc + 1))
+            live.add(base.doc(doc));
+        live.addAll(delta.values());
+        base = Segment.build(live);
+        deleted.clear();
+        delta.clear();
+    }
+
+    // ---- Search ----
+
+    List<Hit> search(String query, Set<Kind> kinds, int limit) { // Top `limit` documents matching every token
+        List<String> tokens = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (tokens.isEmpty() || limit <= 0)
+            return List.of();
+        if (tokens.size() > MAX_TOKENS)
+            tokens = tokens.subList(0, MAX_TOKENS);
+        PriorityQueue<Hit> top = new PriorityQueue<>(limit + 1, WORST_FIRST);
+        lock.readLock().lock();
+        try {
+            searchBase(tokens, kinds, limit, top);
+            searchDelta(tokens, kinds, limit, top);
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Hit> hits = new ArrayList<>(top);
+        hits.sort(WORST_FIRST.reversed());
+        return hits;
+    }
+
+    // Segment document numbers follow the tie-break order (shorter name, then key), so
+    // a candidate's rank fits in one long: score in the high half, inverted document
+    // number in the low half. Once `limit` candidates are held, a posting whose best
+    // possible rank cannot beat the worst of them is skipped with a single comparison;
+    // broad prefixes ("j") touch every posting but do almost no work per posting.
+    private void searchBase(List<String> tokens, Set<Kind> kinds, int limit, PriorityQueue<Hit> top) {
+        Ranges[] matches = new Ranges[tokens.size()];
+        int driver = 0; // Token with the fewest postings drives the scan
+        for (int t = 0; t < tokens.size(); t++) {
+            matches[t] = base.match(tokens.get(t), maxEdits(tokens.get(t).length()));
+            if (matches[t].postings(base) < matches[driver].postings(base))
+                driver = t;
+        }
+        int others = 0; // Most the other tokens can add to a document's score
+        for (int t = 0; t < matches.length; t++)
+            if (t != driver)
+                others += matches[t].maxScore();
+        if (matches[driver].size == 0 || others < matches.length - 1)
+            return; // Some token matches nothing
+        PriorityQueue<Long> best = new PriorityQueue<>(limit + 1); // Ranks, worst first
+        long worst = Long.MIN_VALUE; // Rank to beat once the queue is full
+        Ranges r = matches[driver];
+        for (int score = EXACT; score >= FUZZY; score--) { // Best matches first: a document's first sighting is its best
+            long ceiling = (long) (score + others) << 32;
+            for (int i = 0; i < r.size; i++) {
+                if (r.score[i] != score)
+                    continue;
+                for (int term = r.from[i]; term < r.to[i]; term++) {
+                    for (int p = base.termStart[term]; p < base.termStart[term + 1]; p++) {
+                        int doc = base.termDocs[p];
+                        if ((ceiling | rankBits(doc)) <= worst)
+                            break; // Neither this posting nor the later (worse ranked) ones can make the top
+                        if (deleted.get(doc) || !kinds.contains(base.kind(doc)))
+                            continue;
+                        int total = score;
+                        for (int t = 0; t < matches.length && total > 0; t++)
+                            if (t != driver) {
+                                int s = base.bestScore(doc, matches[t]);
+                                total = s == 0 ? 0 : total + s;
+                            }
+                        long rank = (long) total << 32 | rankBits(doc);
+                        if (total == 0 || rank <= worst || holds(best, doc))
+                            continue; // No match, not good enough, or already held with a better score
+                        best.add(rank);
+                        if (best.size() > limit)
+                            best.poll(); // Drop the worst
+                        if (best.size() == limit)
+                            worst = best.peek();
+                    }
+                }
+            }
+        }
+        for (long rank : best) // At most `limit` objects per search
+            offer(top, limit, new Hit(base.doc(Integer.MAX_VALUE - (int) rank), (int) (rank >>> 32)));
+    }
+
+    private static long rankBits(int doc) { // Lower document number = better rank
+        return Integer.MAX_VALUE - doc;
+    }
+
+    private static boolean holds(PriorityQueue<Long> best, int doc) { // Document already a candidate
+        for (long rank : best)
+            if ((rank & 0xffffffffL) == rankBits(doc))
+                return true;
+        return false;
+    }
+
+    private void searchDelta(List<String> tokens, Set<Kind> kinds, int limit, PriorityQueue<Hit> top) {
+        for (Doc d : delta.values()) { // Small by construction: a plain scan
+            if (!kinds.contains(d.kind()))
+                continue;
+            List<String> terms = tokenize(d.name(), d.email());
+            int total = 0;
+            for (String token : tokens) {
+                int best = 0;
+                for (String term : terms)
+                    best = Math.max(best, score(token, term));
+                if (best == 0) {
+                    total = 0;
+                    break;
+                }
+                total += best;
+            }
+            if (total > 0 && beats(top, limit, total, d.name().length(), d.key()))
+                offer(top, limit, new Hit(d, total));
+        }
+    }
+
+    private static boolean beats(PriorityQueue<Hit> top, int limit, int score, int nameLength, long key) { // Delta candidates
+        if (top.size() < limit)
+            return true;
+        Hit worst = top.peek();
+        if (score != worst.score())
+            return score > worst.score();
+        if (nameLength != worst.doc().name().length())
+            return nameLength < worst.doc().name().length();
+        return key < worst.doc().key();
+    }
+
+    private static void offer(PriorityQueue<Hit> top, int limit, Hit hit) {
+        top.add(hit);
+        if (top.size() > limit)
+            top.poll(); // Drop the worst
+    }
+
+    // ---- Text helpers ----
+
+    static List<String> tokenize(String... texts) { // Lower-case runs of letters/digits
+        List<String> out = new ArrayList<>();
+        for (String text : texts) {
+            if (text == null)
+                continue;
+            String s = text.toLowerCase(Locale.ROOT);
+            int start = -1;
+            for (int i = 0; i <= s.length(); i++) {
+                boolean word = i < s.length() && Character.isLetterOrDigit(s.charAt(i));
+                if (word && start < 0)
+                    start = i;
+                else if (!word && start >= 0) {
+                    out.add(s.substring(start, i));
+                    start = -1;
+                }
+            }
+        }
+        return out;
+    }
+
+    static int maxEdits(int length) { // Typos tolerated for a query token of this length
+        return length < 4 ? 0 : length < 8 ? 1 : 2;
+    }
+
+    static int score(String token, String term) { // Delta scoring, same rules as the segment walk
+        if (term.startsWith(token))
+            return term.length() == token.length() ? EXACT : PREFIX;
+        int k = maxEdits(token.length());
+        if (k == 0)
+            return 0;
+        int m = token.length();
+        int[] prev = null;
+        int[] row = firstRow(m);
+        char last = 0;
+        for (int i = 0; i < term.length(); i++) {
+            int[] next = new int[m + 1];
+            step(token, row, prev, last, term.charAt(i), next);
+            if (next[m] <= k)
+                return FUZZY;
+            if (min(next) > k)
+                return 0;
+            prev = row;
+            row = next;
+            last = term.charAt(i);
+        }
+        return 0;
+    }
+
+    private static int[] firstRow(int m) { // Distance from the empty prefix
+        int[] row = new int[m + 1];
+        for (int i = 0; i <= m; i++)
+            row[i] = i;
+        return row;
+    }
+
+    // Next Damerau-Levenshtein (optimal string alignment) row after appending c to the
+    // term prefix; row[x] is the distance between that prefix and token[0, x).
+    private static void step(String token, int[] row, int[] prev, char last, char c, int[] next) {
+        int m = token.length();
+        next[0] = row[0] + 1;
+        for (int x = 1; x <= m; x++) {
+            char q = token.charAt(x - 1);
+            int v = Math.min(Math.min(row[x] + 1, next[x - 1] + 1), row[x - 1] + (q == c ? 0 : 1));
+            if (prev != null && x > 1 && q == last && token.charAt(x - 2) == c)
+                v = Math.min(v, prev[x - 2] + 1); // Swapped neighbours
+            next[x] = v;
+        }
+    }
+
+    private static int min(int[] row) {
+        int m = row[0];
+        for (int v : row)
+            m = Math.min(m, v);
+        return m;
+    }
+
+    // ---- Segment ----
+
+    // Term ranges matched by one query token, in term order (disjoint).
+    private static final class Ranges {
+        int[] from = new int[4]; // First term id (inclusive)
+        int[] to = new int[4]; // Last term id (exclusive)
+        int[] score = new int[4]; // EXACT, PREFIX or FUZZY
+        int size;
+
+        void add(int f, int t, int s) {
+            if (f >= t)
+                return;
+            if (size > 0 && to[size - 1] == f && score[size - 1] == s) { // Adjacent sibling ranges: one range
+                to[size - 1] = t;
+                return;
+            }
+            if (size == from.length) {
+                from = Arrays.copyOf(from, size * 2);
+                to = Arrays.copyOf(to, size * 2);
+                score = Arrays.copyOf(score, size * 2);
+            }
+            from[size] = f;
+            to[size] = t;
+            score[size++] = s;
+        }
+
+        int maxScore() { // Best score of any range, or 0
+            int best = 0;
+            for (int i = 0; i < size; i++)
+                best = Math.max(best, score[i]);
+            return best;
+        }
+
+        int scoreOf(int term) { // Score of the range containing term, or 0
+            int lo = 0, hi = size - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (term < from[mid])
+                    hi = mid - 1;
+                else if (term >= to[mid])
+                    lo = mid + 1;
+                else
+                    return score[mid];
+            }
+            return 0;
+        }
+
+        long postings(Segment s) { // Documents the ranges point at (with repeats)
+            long n = 0;
+            for (int i = 0; i < size; i++)
+                n += s.termStart[to[i]] - s.termStart[from[i]];
+            return n;
+        }
+    }
+
+    private static final class Segment {
+        private static final int TRIE_MIN_TERMS = 64; // Smaller term ranges are split by binary search
+
+        final long[] keys; // Key of each document; documents are ordered by name length, then key
+        final long[] sortedKeys; // Keys in ascending order, for lookups by key
+        final int[] docOfSortedKey; // Document number of each sortedKeys entry
+        final String[] names; // Display name per document
+        final String[] emails; // Email per document (null for classes)
+        final String[] terms; // Distinct tokens, sorted
+        final int[] termStart; // termDocs slice of each term (length terms + 1)
+        final int[] termDocs; // Postings: document numbers, ascending within a term
+        final int[] docTermStart; // docTerms slice of each document (length docs + 1)
+        final int[] docTerms; // Term ids of each document, ascending
+
+        // Child lists of the implicit trie's upper levels, where term ranges are wide and
+        // finding every child by binary search would dominate a fuzzy walk. Node n's
+        // children are slots [nodeChildren[n], nodeChildren[n + 1]); node 0 is the root.
+        final int[] nodeChildren;
+        final char[] childChar; // Next character of each child
+        final int[] childEnd; // End (exclusive) of the child's term range; it starts where the previous child ends
+        final int[] childNode; // Child's node, or -1 for a range of at most TRIE_MIN_TERMS terms
+
+        private Segment(long[] keys, String[] names, String[] emails, String[] terms, int[] termStart,
+                int[] termDocs, int[] docTermStart, int[] docTerms) {
+            this.keys = keys;
+            this.names = names;
+            this.emails = emails;
+            this.terms = terms;
+            this.termStart = termStart;
+            this.termDocs = termDocs;
+            this.docTermStart = docTermStart;
+            this.docTerms = docTerms;
+
+            Integer[] byKey = new Integer[keys.length];
+            for (int d = 0; d < keys.length; d++)
+                byKey[d] = d;
+            Arrays.sort(byKey, Comparator.comparingLong(d -> keys[d]));
+            sortedKeys = new long[keys.length];
+            docOfSortedKey = new int[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                docOfSortedKey[i] = byKey[i];
+                sortedKeys[i] = keys[byKey[i]];
+            }
+
+            TrieBuilder trie = new TrieBuilder(terms);
+            trie.node(0, terms.length, 0);
+            nodeChildren = Arrays.copyOf(trie.nodeChildren, trie.nodes + 1);
+            nodeChildren[trie.nodes] = trie.slots;
+            childChar = Arrays.copyOf(trie.childChar, trie.slots);
+            childEnd = Arrays.copyOf(trie.childEnd, trie.slots);
+            childNode = Arrays.copyOf(trie.childNode, trie.slots);
+        }
+
+        static Segment build(Collection<Doc> rows) {
+            Doc[] docs = rows.toArray(Doc[]::new);
+            Arrays.sort(docs, Comparator.comparingInt((Doc d) -> d.name().length()).thenComparingLong(Doc::key));
+            int n = docs.length;
+            long[] keys = new long[n];
+            String[] names = new String[n];
+            String[] emails = new String[n];
+            String[][] tokens = new String[n][];
+            Map<String, Integer> ids = new HashMap<>(); // Build-time only
+            for (int d = 0; d < n; d++) {
+                keys[d] = docs[d].key();
+                names[d] = docs[d].name();
+                emails[d] = docs[d].email();
+                tokens[d] = new LinkedHashSet<>(tokenize(names[d], emails[d])).toArray(String[]::new);
+                for (String t : tokens[d])
+                    ids.putIfAbsent(t, 0);
+            }
+            String[] terms = ids.keySet().toArray(String[]::new);
+            Arrays.sort(terms);
+            for (int i = 0; i < terms.length; i++)
+                ids.put(terms[i], i);
+
+            int[] docTermStart = new int[n + 1];
+            for (int d = 0; d < n; d++)
+                docTermStart[d + 1] = docTermStart[d] + tokens[d].length;
+            int[] docTerms = new int[docTermStart[n]];
+            int[] termStart = new int[terms.length + 1];
+            for (int d = 0; d < n; d++) {
+                int p = docTermStart[d];
+                for (String t : tokens[d]) {
+                    int id = ids.get(t);
+                    docTerms[p++] = id;
+                    termStart[id + 1]++;
+                }
+                Arrays.sort(docTerms, docTermStart[d], p);
+            }
+            for (int i = 0; i < terms.length; i++)
+                termStart[i + 1] += termStart[i];
+            int[] termDocs = new int[docTerms.length];
+            int[] fill = Arrays.copyOf(termStart, terms.length);
+            for (int d = 0; d < n; d++) // Documents in order, so every posting list ends up ascending
+                for (int p = docTermStart[d]; p < docTermStart[d + 1]; p++)
+                    termDocs[fill[docTerms[p]]++] = d;
+            return new Segment(keys, names, emails, terms, termStart, termDocs, docTermStart, docTerms);
+        }
+
+        int size() {
+            return keys.length;
+        }
+
+        int indexOf(long key) { // Document number, or negative
+            int i = Arrays.binarySearch(sortedKeys, key);
+            return i < 0 ? -1 : docOfSortedKey[i];
+        }
+
+        Kind kind(int doc) {
+            return KINDS[(int) (keys[doc] & 3)];
+        }
+
+        Doc doc(int doc) {
+            return new Doc(kind(doc), keys[doc] >>> 2, names[doc], emails[doc]);
+        }
+
+        int bestScore(int doc, Ranges r) { // Best score of any of the document's terms
+            int best = 0;
+            for (int p = docTermStart[doc]; p < docTermStart[doc + 1] && best < EXACT; p++)
+                best = Math.max(best, r.scoreOf(docTerms[p]));
+            return best;
+        }
+
+        Ranges match(String token, int k) { // Term ranges within k edits of a prefix of the token
+            Ranges out = new Ranges();
+            int[][] rows = new int[token.length() + k + 2][token.length() + 1]; // One per depth: rows past m + k + 1 prune
+            rows[0] = firstRow(token.length());
+            visit(token, k, 0, terms.length, 0, nodeChildren.length > 1 ? 0 : -1, rows, (char) 0, out);
+            return out;
+        }
+
+        // Every term in [lo, hi) starts with the same `depth` characters; rows[depth] is the
+        // edit-distance row of that shared prefix (last: its final character) and node its
+        // trie node (-1 when the range is small).
+        private void visit(String token, int k, int lo, int hi, int depth, int node, int[][] rows, char last,
+                Ranges out) {
+            int m = token.length();
+            int[] row = rows[depth];
+            int[] prev = depth > 0 ? rows[depth - 1] : null;
+            int d = row[m];
+            int best = min(row);
+            if (best > k || lo >= hi)
+                return; // Nothing below can come back within k edits
+            if (d <= k && (d == 0 || best > 0)) { // Whole subtree matches with d edits; going deeper cannot reach 0
+                if (d > 0) {
+                    out.add(lo, hi, FUZZY);
+                } else if (terms[lo].length() == depth) {
+                    out.add(lo, lo + 1, EXACT);
+                    out.add(lo + 1, hi, PREFIX);
+                } else {
+                    out.add(lo, hi, PREFIX);
+                }
+                return;
+            }
+            if (terms[lo].length() == depth) { // The shared prefix is itself a term
+                if (d <= k)
+                    out.add(lo, lo + 1, FUZZY);
+                lo++;
+            }
+            // d <= k here means the shared prefix is token[0, depth) itself: everything below
+            // matches with d edits, and only the child that keeps following the token can do better.
+            boolean matched = d <= k;
+            char follow = matched ? token.charAt(depth) : 0;
+            if (node >= 0) { // Precomputed children
+                for (int slot = nodeChildren[node], i = lo; slot < nodeChildren[node + 1]; slot++) {
+                    char c = childChar[slot];
+                    if (matched && c != follow) {
+                        out.add(i, childEnd[slot], FUZZY);
+                    } else {
+                        step(token, row, prev, last, c, rows[depth + 1]);
+                        visit(token, k, i, childEnd[slot], depth + 1, childNode[slot], rows, c, out);
+                    }
+                    i = childEnd[slot];
+                }
+                return;
+            }
+            for (int i = lo; i < hi;) { // One child per distinct next character
+                char c = terms[i].charAt(depth);
+                int j = runEnd(terms, i, hi, depth, c);
+                if (matched && c != follow) {
+                    out.add(i, j, FUZZY);
+                } else {
+                    step(token, row, prev, last, c, rows[depth + 1]);
+                    visit(token, k, i, j, depth + 1, -1, rows, c, out);
+                }
+                i = j;
+            }
+        }
+
+        private static int runEnd(String[] terms, int lo, int hi, int depth, char c) { // First index in [lo, hi) whose char at depth is > c
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (terms[mid].charAt(depth) <= c)
+                    lo = mid + 1;
+                else
+                    hi = mid;
+            }
+            return lo;
+        }
+
+        // Lays out the child lists depth-first: a node reserves all of its child slots
+        // before any of its children becomes a node, so node ids and slots both grow in
+        // step and every node's slots are contiguous.
+        private static final class TrieBuilder {
+            final String[] terms;
+            int[] nodeChildren = new int[16];
+            char[] childChar = new char[64];
+            int[] childEnd = new int[64];
+            int[] childNode = new int[64];
+            int nodes;
+            int slots;
+
+            TrieBuilder(String[] terms) {
+                this.terms = terms;
+            }
+
+            int node(int lo, int hi, int depth) { // Node for terms[lo, hi) sharing `depth` characters, or -1
+                if (hi - lo <= TRIE_MIN_TERMS)
+                    return -1;
+                if (terms[lo].length() == depth)
+                    lo++; // The shared prefix itself: not a child
+                if (nodes == nodeChildren.length)
+                    nodeChildren = Arrays.copyOf(nodeChildren, nodes * 2);
+                int id = nodes++;
+                int first = slots;
+                nodeChildren[id] = first;
+                for (int i = lo; i < hi;) {
+                    char c = terms[i].charAt(depth);
+                    int j = runEnd(terms, i, hi, depth, c);
+                    if (slots == childChar.length) {
+                        childChar = Arrays.copyOf(childChar, slots * 2);
+                        childEnd = Arrays.copyOf(childEnd, slots * 2);
+                        childNode = Arrays.copyOf(childNode, slots * 2);
+                    }
+                    childChar[slots] = c;
+                    childEnd[slots++] = j;
+                    i = j;
+                }
+                for (int slot = first, i = lo, end = slots; slot < end; slot++) {
+                    int child = node(i, childEnd[slot], depth + 1); // May grow the arrays: assign afterwards
+                    childNode[slot] = child;
+                    i = childEnd[slot];
+                }
+                return id;
+            }
+        }
+    }
+}
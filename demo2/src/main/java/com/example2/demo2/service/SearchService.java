@@ -0,0 +1,151 @@
+package com.example2.demo2.service; // Package for service-layer classes
+
+import com.example2.demo2.config.ReadReplicas; // Loads read the primary
+import com.example2.demo2.config.SchoolContext; // School of the current request
+import com.example2.demo2.dto.ClassroomRes; // Class rows for the initial load
+import com.example2.demo2.dto.SearchHitRes; // Search result
+import com.example2.demo2.dto.StudentRes; // Student rows for the initial load
+import com.example2.demo2.dto.TeacherRes; // Teacher rows for the initial load
+import com.example2.demo2.error.BadRequestException; // 400 for bad queries
+import com.example2.demo2.repo.ClassroomRepository; // Class names
+import com.example2.demo2.repo.StudentRepository; // Student names/emails
+import com.example2.demo2.repo.TeacherRepository; // Teacher names/emails
+import com.github.benmanes.caffeine.cache.Cache; // School id → index
+import com.github.benmanes.caffeine.cache.Caffeine; // Cache builder
+import org.springframework.beans.factory.annotation.Value; // Inject settings from application.properties
+import org.springframework.stereotype.Service; // Marks as Spring service
+
+import java.time.Duration; // Index lifetime
+import java.util.ArrayList; // Load / result lists
+import java.util.Collection; // Deleted ids
+import java.util.EnumSet; // Kinds filter
+import java.util.List; // Java List
+import java.util.Locale; // Type parameter parsing
+import java.util.Set; // Kinds filter
+
+// Typeahead search over student, teacher and class names and emails
+// (GET /admin/search), answered from an in-memory SearchIndex per school instead of
+// LIKE '%q%' scans. A school's index is built on its first search and then kept up
+// to date by AdminService's write hooks once each write commits. Writes this
+// process does not see (other instances, direct SQL) show up when the index is
+// rebuilt, at the latest app.search.max-age-minutes after it was built.
+//
+// Deliberately not @Transactional, like ClassStatsService: the initial load must
+// see everything committed before it starts.
+@Service // Register as a Spring service bean
+public class SearchService {
+
+    private final StudentRepository studentRepo; // Initial load
+    private final TeacherRepository teacherRepo; // Initial load
+    private final ClassroomRepository classRepo; // Initial load
+    private final SchoolContext schools; // School of the current request
+    private final Cache<Long, SearchIndex> bySchool; // Loaded schools
+    private final int defaultLimit; // Hits when the client names no limit
+    private final int maxLimit; // Upper bound on limit
+
+    public SearchService(StudentRepository studentRepo,
+            TeacherRepository teacherRepo,
+            ClassroomRepository classRepo,
+            SchoolContext schools,
+            @Value("${app.search.max-age-minutes:60}") long maxAgeMinutes,
+            @Value("${app.search.max-schools:1000}") long maxSchools,
+            @Value("${app.search.default-limit:10}") int defaultLimit,
+            @Value("${app.search.max-limit:50}") int maxLimit) { // Constructor injection
+        this.studentRepo = studentRepo; // Assign student repo
+        this.teacherRepo = teacherRepo; // Assign teacher repo
+        this.classRepo = classRepo; // Assign classroom repo
+        this.schools = schools; // Assign school context
+        this.bySchool = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(maxAgeMinutes)) // Periodic rebuild picks up outside writes
+                .maximumSize(maxSchools) // Idle schools give their memory back
+                .build();
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    public List<SearchHitRes> search(String q, String type, Integer limit) { // Best matches for a typeahead query
+        if (q == null || q.isBlank())
+            throw new BadRequestException("q is required");
+        int n = limit == null ? defaultLimit : Math.max(1, Math.min(limit, maxLimit));
+        Set<SearchIndex.Kind> kinds = kinds(type);
+        SearchIndex index = bySchool.get(schools.currentSchoolId(), school -> new SearchIndex());
+        index.loadIfNeeded(() -> ReadReplicas.callOnPrimary(this::loadDocs)); // Only the first search of a school waits; never from a lagging replica
+        List<SearchHitRes> out = new ArrayList<>();
+        for (SearchIndex.Hit h : index.search(q, kinds, n)) {
+            SearchIndex.Doc d = h.doc();
+            out.add(new SearchHitRes(d.kind().name().toLowerCase(Locale.ROOT), d.id(), d.name(), d.email(), h.score()));
+        }
+        return out;
+    }
+
+    // ---- Write hooks (called inside the writing transaction, applied after commit) ----
+
+    public void studentSaved(StudentRes s) { // Student created or renamed
+        put(new SearchIndex.Doc(SearchIndex.Kind.STUDENT, s.id(), s.name(), s.email()));
+    }
+
+    public void teacherSaved(TeacherRes t) { // Teacher created or renamed
+        put(new SearchIndex.Doc(SearchIndex.Kind.TEACHER, t.id(), t.name(), t.email()));
+    }
+
+    public void classSaved(ClassroomRes c) { // Class created or renamed
+        put(new SearchIndex.Doc(SearchIndex.Kind.CLASS, c.id(), c.name(), null));
+    }
+
+    public void studentsDeleted(Collection<Long> ids) {
+        remove(SearchIndex.Kind.STUDENT, ids);
+    }
+
+    public void teacherDeleted(Long id) {
+        remove(SearchIndex.Kind.TEACHER, List.of(id));
+    }
+
+    public void classesDeleted(Collection<Long> ids) {
+        remove(SearchIndex.Kind.CLASS, ids);
+    }
+
+    public void invalidate() { // Bulk changes (imports): rebuild the school's index on its next search
+        Long school = schools.currentSchoolId();
+        AfterCommit.run(() -> bySchool.invalidate(school));
+    }
+
+    private void put(SearchIndex.Doc doc) {
+        Long school = schools.currentSchoolId(); // Resolved now, on the writing request's thread
+        AfterCommit.run(() -> {
+            SearchIndex index = bySchool.getIfPresent(school);
+            if (index != null) // Schools not loaded yet will read the row when they are
+                index.put(doc);
+        });
+    }
+
+    private void remove(SearchIndex.Kind kind, Collection<Long> ids) {
+        Long school = schools.currentSchoolId();
+        List<Long> copy = List.copyOf(ids);
+        AfterCommit.run(() -> {
+            SearchIndex index = bySchool.getIfPresent(school);
+            if (index != null)
+                index.remove(kind, copy);
+        });
+    }
+
+    private List<SearchIndex.Doc> loadDocs() { // Every searchable row of the current school
+        List<SearchIndex.Doc> docs = new ArrayList<>();
+        for (StudentRes s : studentRepo.findAllRes())
+            docs.add(new SearchIndex.Doc(SearchIndex.Kind.STUDENT, s.id(), s.name(), s.email()));
+        for (TeacherRes t : teacherRepo.findAllRes())
+            docs.add(new SearchIndex.Doc(SearchIndex.Kind.TEACHER, t.id(), t.name(), t.email()));
+        for (ClassroomRes c : classRepo.findAllRes())
+            docs.add(new SearchIndex.Doc(SearchIndex.Kind.CLASS, c.id(), c.name(), null));
+        return docs;
+    }
+
+    private static Set<SearchIndex.Kind> kinds(String type) { // "student", "teacher", "class" or all
+        if (type == null || type.isBlank())
+            return EnumSet.allOf(SearchIndex.Kind.class);
+        try {
+            return EnumSet.of(SearchIndex.Kind.valueOf(type.trim().toUpperCase(Locale.ROOT)));
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("type must be student, teacher or class");
+        }
+    }
+}
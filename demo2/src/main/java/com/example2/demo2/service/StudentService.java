@@ -1,23 +1,57 @@
 package com.example2.demo2.service; // Package for service-layer classes
 
-import com.example2.demo2.model.Enrollment; // Enrollment entity
+import com.example2.demo2.config.ReadReplicas; // Dashboard reads the primary
+import com.example2.demo2.dto.DashboardMarkRes; // (classId, className, mark) row
+import com.example2.demo2.dto.StudentDashboardRes; // Dashboard response
 import com.example2.demo2.repo.EnrollmentRepository; // Repository for enrollment queries
+import com.example2.demo2.repo.StudentRepository; // Repository for student queries
 import org.springframework.stereotype.Service; // Marks as Spring service
+import org.springframework.transaction.annotation.Propagation; // Transaction propagation modes
 import org.springframework.transaction.annotation.Transactional; // For transaction config
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter; // Server-sent events stream
 
 import java.util.List; // Java List
+import java.util.NoSuchElementException; // Unknown student
 
 @Service // Register as a Spring service bean
 @Transactional(readOnly = true) // All methods run in read-only transactions by default
 public class StudentService { // Service focused on student-facing operations
 
     private final EnrollmentRepository enrollRepo; // Dependency to access enrollments
+    private final StudentRepository studentRepo; // Dependency to access students
+    private final DashboardVersions versions; // In-memory dashboard versions (ETag source)
+    private final MarkEventHub events; // Push channel for dashboard changes
 
-    public StudentService(EnrollmentRepository enrollRepo) { // Constructor injection
+    public StudentService(EnrollmentRepository enrollRepo, StudentRepository studentRepo,
+            DashboardVersions versions, MarkEventHub events) { // Constructor injection
         this.enrollRepo = enrollRepo; // Assign repository
+        this.studentRepo = studentRepo; // Assign repository
+        this.versions = versions; // Assign version tracker
+        this.events = events; // Assign event hub
     }
 
-    public List<Enrollment> myMarks(Long studentId) { // Return all enrollments/marks for student
-        return enrollRepo.findByStudentId(studentId); // Query by student id
+    public List<DashboardMarkRes> myMarks(Long studentId) { // Return (classId, className, mark) per enrollment
+        return enrollRepo.findDashboardMarks(studentId); // One projection query over Enrollment → Classroom
+    }
+
+    // Served under an ETag taken from in-memory versions, which may already count writes a
+    // replica has not applied yet: read the primary so the tag never labels stale data.
+    public StudentDashboardRes dashboard(Long studentId) { // Name + classes + marks
+        return ReadReplicas.callOnPrimary(() -> {
+            String name = studentRepo.findNameById(studentId).orElseThrow(); // Student row (name only)
+            return new StudentDashboardRes(studentId, name, enrollRepo.findDashboardMarks(studentId)); // One join query
+        });
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // Pure in-memory lookup: no transaction/connection
+    public String dashboardEtag(Long studentId) { // Current ETag of the student's dashboard
+        return versions.etag(studentId);
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // Don't hold a connection for the stream's lifetime
+    public SseEmitter events(Long studentId) { // Marks/enrollments of this student as they change
+        if (!ReadReplicas.callOnPrimary(() -> studentRepo.existsById(studentId))) // Also just-created students
+            throw new NoSuchElementException("Student not found");
+        return events.subscribeStudent(studentId);
     }
 }
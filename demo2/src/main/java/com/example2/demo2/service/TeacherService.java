@@ -1,44 +1,199 @@
 package com.example2.demo2.service; // Package for service-layer classes
 
+import com.example2.demo2.config.ReadReplicas; // Mark reads hit the primary
+import com.example2.demo2.dto.ClassStatsRes; // Class statistics response
+import com.example2.demo2.dto.EnrollmentRes; // Updated enrollment response
+import com.example2.demo2.dto.GradebookRes; // Gradebook response
+import com.example2.demo2.dto.GradebookRowRes; // Gradebook projection row
+import com.example2.demo2.dto.MarkEntryReq; // One row of a batch mark update
+import com.example2.demo2.dto.MarkEventRes; // Pushed mark change
+import com.example2.demo2.dto.MarkResultRes; // Per-row batch outcome
 import com.example2.demo2.dto.MarkUpdateReq; // DTO containing new mark value
+import com.example2.demo2.dto.RankRes; // Student rank response
+import com.example2.demo2.dto.StudentRes; // Student projection
 import com.example2.demo2.model.*; // Teacher, Student, Enrollment entities
 import com.example2.demo2.repo.*; // Repositories for entities
-import com.example2.demo2.error.ForbiddenException; // Custom runtime exception for authorization checks
+import com.example2.demo2.error.ConflictException; // 409 when a batch keeps losing races
+import com.example2.demo2.error.PreconditionFailedException; // 412 when If-Match is stale
+import org.springframework.beans.factory.annotation.Value; // Retry limit from properties
+import org.springframework.dao.OptimisticLockingFailureException; // Version check failed at flush
 import org.springframework.stereotype.Service; // Spring service annotation
+import org.springframework.transaction.annotation.Propagation; // Transaction propagation modes
 import org.springframework.transaction.annotation.Transactional; // Transaction boundaries
+import org.springframework.transaction.support.TransactionTemplate; // One transaction per batch attempt
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter; // Server-sent events stream
 
+import java.util.ArrayList; // Result list
 import java.util.List; // Java List
+import java.util.Map; // Lookup by student id
+import java.util.NoSuchElementException; // Unknown teacher
+import java.util.Objects; // Null filter
+import java.util.function.Function; // Identity mapper for toMap
+import java.util.stream.Collectors; // Stream collectors
 
+// Callers are authorized by TokenInterceptor: a teacher's token only reaches
+// /teachers/{teacherId}/classes/{classId}/** for their own id and class, so these
+// methods do no ownership lookups of their own.
 @Service // Register class as a Spring service
 @Transactional // Default transactional behavior for public methods
 public class TeacherService { // Service for teacher-facing operations
 
-    private final TeacherRepository teacherRepo; // Access teachers
+    private static final String STALE_MARK = "Mark was changed by someone else; reload it and retry"; // 412 message
+
     private final StudentRepository studentRepo; // Access students
     private final EnrollmentRepository enrollRepo; // Access enrollments
+    private final LookupService lookups; // Cached teacher → class (event streams)
+    private final DashboardVersions dashboards; // Student dashboard ETag versions
+    private final ClassStatsService stats; // Incremental class statistics
+    private final MarkAuditService audit; // Mark change history
+    private final MarkEventHub events; // Push channel for gradebook/dashboard changes
+    private final TransactionTemplate tx; // Mark write transactions (retried on version conflicts)
+    private final int maxAttempts; // Batch attempts before giving up with 409
 
     // Constructor injection of dependencies
-    public TeacherService(TeacherRepository teacherRepo,
-            StudentRepository studentRepo,
-            EnrollmentRepository enrollRepo) {
-        this.teacherRepo = teacherRepo; // Assign teacher repo
+    public TeacherService(StudentRepository studentRepo,
+            EnrollmentRepository enrollRepo,
+            LookupService lookups,
+            DashboardVersions dashboards,
+            ClassStatsService stats,
+            MarkAuditService audit,
+            MarkEventHub events,
+            TransactionTemplate tx,
+            @Value("${app.marks.max-attempts:3}") int maxAttempts) {
         this.studentRepo = studentRepo; // Assign student repo
         this.enrollRepo = enrollRepo; // Assign enrollment repo
+        this.lookups = lookups; // Assign cached lookups
+        this.dashboards = dashboards; // Assign dashboard versions
+        this.stats = stats; // Assign statistics service
+        this.audit = audit; // Assign audit trail
+        this.events = events; // Assign event hub
+        this.tx = tx; // Assign transaction template
+        this.maxAttempts = Math.max(1, maxAttempts); // At least one attempt
+    }
+
+    @Transactional(readOnly = true) // Pure read
+    public List<StudentRes> studentsOfTeacher(Long teacherId) { // Students in the teacher's class
+        return studentRepo.findStudentsByTeacherId(teacherId); // Projection query joining the class
     }
 
-    public List<Student> studentsOfTeacher(Long teacherId) { // Students in the teacher's class
-        return studentRepo.findStudentsByTeacherId(teacherId); // Custom query joining classroom
+    @Transactional(readOnly = true) // Pure read
+    public GradebookRes gradebook(Long teacherId) { // Class + every student's mark from one projection query
+        List<GradebookRowRes> rows = enrollRepo.findGradebookByTeacherId(teacherId); // Single SQL statement
+        if (rows.isEmpty())
+            throw new NoSuchElementException("Teacher not found"); // Unknown teacher
+        GradebookRowRes first = rows.get(0); // Every row carries the same class
+        List<GradebookRowRes> students = rows.stream()
+                .filter(r -> r.studentId() != null) // Drop the placeholder row of an empty class
+                .toList();
+        return new GradebookRes(first.classId(), first.className(), students);
+    }
+
+    @Transactional(readOnly = true) // Pure read
+    public EnrollmentRes mark(Long teacherId, Long classId, Long studentId) { // One mark + its version (ETag)
+        // Primary: the version comes back as If-Match on the next write, and a replica's may be behind
+        return ReadReplicas.callOnPrimary(() -> enrollRepo.findRes(classId, studentId)).orElseThrow(); // Projection, no entity load
+    }
+
+    // Writes one mark without loading the entity: read the row's (mark, version),
+    // then one compare-and-set UPDATE on the primary key. With expectedVersion (the
+    // request's If-Match) a row that changed since the client read it fails with
+    // 412. Without it, an attempt that loses a race is re-read and retried in a
+    // fresh transaction, up to app.marks.max-attempts times.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // Each attempt runs in its own transaction
+    public EnrollmentRes setMark(Long teacherId, Long classId, Long studentId, MarkUpdateReq req,
+            Long expectedVersion) {
+        for (int attempt = 1;; attempt++) {
+            EnrollmentRes res = tx.execute(status -> writeMark(teacherId, classId, studentId, req.mark(), expectedVersion));
+            if (res != null)
+                return res;
+            if (attempt >= maxAttempts)
+                throw new ConflictException("Mark kept changing while saving; try again");
+        }
+    }
+
+    private EnrollmentRes writeMark(Long teacherId, Long classId, Long studentId, String mark,
+            Long expectedVersion) { // One attempt; null = another writer got there first
+        EnrollmentRes current = enrollRepo.findRes(classId, studentId) // Old mark (for the audit) + version
+                .orElseThrow(() -> new NoSuchElementException("Student is not enrolled in this class"));
+        if (expectedVersion != null && !expectedVersion.equals(current.version()))
+            throw new PreconditionFailedException(STALE_MARK); // Client edited an older mark
+        if (enrollRepo.updateMarkIfVersion(classId, studentId, mark, current.version()) == 0) { // Changed since our read
+            if (expectedVersion != null)
+                throw new PreconditionFailedException(STALE_MARK);
+            return null; // Retry on a fresh read
+        }
+        dashboards.touchStudent(studentId); // Student's dashboard changed
+        stats.markChanged(classId, studentId, mark); // O(log n) statistics update after commit
+        if (!Objects.equals(current.mark(), mark))
+            audit.record(teacherId, classId, studentId, current.mark(), mark); // Queued after commit
+        events.publish(new MarkEventRes("mark", classId, studentId, mark, current.version() + 1)); // Pushed after commit
+        return new EnrollmentRes(studentId, classId, mark, current.version() + 1);
     }
 
-    public Enrollment setMark(Long teacherId, Long classId, Long studentId, MarkUpdateReq req) { // Upsert mark
-        Teacher t = teacherRepo.findById(teacherId).orElseThrow(); // Ensure teacher exists
-        if (!t.getClassroom().getId().equals(classId)) { // Verify teacher owns the class
-            throw new ForbiddenException("Teacher does not own this class"); // Reject if mismatch
+    // Batch writes go through the entities' @Version check. If another writer
+    // changed one of the rows between our load and commit, the whole batch is
+    // rolled back and re-run on fresh rows, up to app.marks.max-attempts times.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // Each attempt runs in its own transaction
+    public List<MarkResultRes> setMarks(Long teacherId, Long classId, List<MarkEntryReq> entries) { // Batch mark update
+        for (int attempt = 1;; attempt++) {
+            try {
+                return tx.execute(status -> applyMarks(teacherId, classId, entries)); // Commit checks every row's version
+            } catch (OptimisticLockingFailureException ex) { // A row changed under us
+                if (attempt >= maxAttempts)
+                    throw new ConflictException("Marks kept changing while saving; try again");
+            }
         }
-        Enrollment e = enrollRepo // Locate the enrollment row
-                .findOneByClassIdAndStudentId(classId, studentId)
-                .orElseThrow(); // 404 if no enrollment exists
-        e.setMark(req.mark()); // Apply new mark value
-        return enrollRepo.save(e); // Persist and return updated enrollment
+    }
+
+    private List<MarkResultRes> applyMarks(Long teacherId, Long classId, List<MarkEntryReq> entries) { // One batch attempt
+        List<Long> studentIds = entries.stream() // Students referenced by the request
+                .map(MarkEntryReq::studentId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        Map<Long, Enrollment> byStudent = studentIds.isEmpty() ? Map.of() // Load all affected rows in one IN query
+                : enrollRepo.findByClassIdAndStudentIds(classId, studentIds).stream()
+                        .collect(Collectors.toMap(e -> e.getId().getStudentId(), Function.identity()));
+
+        List<MarkResultRes> results = new ArrayList<>(entries.size()); // One result per request row
+        for (MarkEntryReq entry : entries) {
+            if (entry.studentId() == null) {
+                results.add(new MarkResultRes(null, false, "studentId is required"));
+                continue;
+            }
+            if (entry.mark() != null && entry.mark().length() > 10) { // Column is varchar(10)
+                results.add(new MarkResultRes(entry.studentId(), false, "Mark is longer than 10 characters"));
+                continue;
+            }
+            Enrollment e = byStudent.get(entry.studentId()); // Managed entity from the IN query
+            if (e == null) {
+                results.add(new MarkResultRes(entry.studentId(), false, "Student is not enrolled in this class"));
+                continue;
+            }
+            if (!Objects.equals(e.getMark(), entry.mark()))
+                audit.record(teacherId, classId, entry.studentId(), e.getMark(), entry.mark()); // Queued after commit
+            e.setMark(entry.mark()); // Dirty-checked; flushed as one JDBC batch at commit
+            events.publish(new MarkEventRes("mark", classId, entry.studentId(), entry.mark(),
+                    e.getVersion() + 1)); // Version after this commit; pushed only if it succeeds
+            dashboards.touchStudent(entry.studentId()); // Student's dashboard changed
+            stats.markChanged(classId, entry.studentId(), entry.mark()); // Statistics update after commit
+            results.add(new MarkResultRes(entry.studentId(), true, null));
+        }
+        return results; // Updates are written when the transaction commits
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // Statistics load outside any snapshot
+    public ClassStatsRes classStats(Long teacherId, Long classId) { // Mean/median/percentiles/histogram
+        return stats.classStats(classId); // Served from in-memory statistics
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // Statistics load outside any snapshot
+    public RankRes rank(Long teacherId, Long classId, Long studentId) { // One student's rank in the class
+        return stats.rank(classId, studentId); // O(log n) rank lookup
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // Don't hold a connection for the stream's lifetime
+    public SseEmitter events(Long teacherId) { // Marks/enrollments of the teacher's class as they change
+        return events.subscribeClass(lookups.classIdOfTeacher(teacherId)); // Cached; throws if unknown teacher
     }
 }
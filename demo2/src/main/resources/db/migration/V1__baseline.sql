@@ -0,0 +1,52 @@
+-- Schema as Hibernate generated it before migrations were introduced.
+-- Existing databases are baselined at this version (spring.flyway.baseline-on-migrate)
+-- so this script only runs against an empty schema.
+
+create table admins (
+    id bigint not null auto_increment,
+    email varchar(50) not null,
+    name varchar(50) not null,
+    password varchar(255) not null,
+    role varchar(50) not null,
+    primary key (id),
+    constraint uk_admins_email unique (email)
+);
+
+create table students (
+    id bigint not null auto_increment,
+    email varchar(50) not null,
+    name varchar(50) not null,
+    password varchar(255) not null,
+    role varchar(50) not null,
+    primary key (id),
+    constraint uk_students_email unique (email)
+);
+
+create table classes (
+    id bigint not null auto_increment,
+    name varchar(50) not null,
+    primary key (id)
+);
+
+create table teachers (
+    id bigint not null auto_increment,
+    email varchar(50) not null,
+    name varchar(50) not null,
+    password varchar(255) not null,
+    role varchar(50) not null,
+    class_id bigint not null,
+    primary key (id),
+    constraint uk_teachers_email unique (email),
+    constraint fk_teacher_class foreign key (class_id) references classes (id)
+);
+
+-- Enrollment.Id's columns in Hibernate's (alphabetical) order: the primary key
+-- leads with class_id, so it serves every per-class lookup.
+create table enrollments (
+    mark varchar(10),
+    class_id bigint not null,
+    student_id bigint not null,
+    primary key (class_id, student_id),
+    constraint fk_enrollments_class foreign key (class_id) references classes (id),
+    constraint fk_enrollments_student foreign key (student_id) references students (id)
+);
@@ -0,0 +1,7 @@
+-- Per-student lookups (dashboard, my marks): student_id first, class_id second so
+-- the join to classes is answered from the index. Supersedes the single-column
+-- index the database created for the student_id foreign key.
+create index idx_enrollments_student_class on enrollments (student_id, class_id);
+
+-- Teachers of a class (and the foreign-key check when a class is deleted).
+create index idx_teachers_class on teachers (class_id);
@@ -0,0 +1,3 @@
+-- Optimistic-locking version for Enrollment (@Version); bumped on every mark write
+-- and served as the mark's ETag. Existing rows start at 0.
+alter table enrollments add column version bigint not null default 0;
@@ -0,0 +1,16 @@
+-- Append-only audit trail of mark changes. No foreign keys: history outlives the
+-- enrollments, students and classes it describes.
+create table enrollment_mark_history (
+    id bigint not null auto_increment,
+    class_id bigint not null,
+    student_id bigint not null,
+    teacher_id bigint,
+    old_mark varchar(10),
+    new_mark varchar(10),
+    changed_at datetime(6) not null,
+    primary key (id)
+);
+
+-- GET /admin/audit pages by student or by class in id order.
+create index idx_mark_history_student on enrollment_mark_history (student_id, id);
+create index idx_mark_history_class on enrollment_mark_history (class_id, id);
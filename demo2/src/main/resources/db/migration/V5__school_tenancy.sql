@@ -0,0 +1,22 @@
+-- One deployment hosts many schools: every row belongs to a school (Hibernate
+-- @TenantId, resolved per request from X-School-Id). Rows that predate tenancy
+-- become school 1, the default school; afterwards every insert must name its school.
+alter table admins add column school_id bigint not null default 1;
+alter table students add column school_id bigint not null default 1;
+alter table teachers add column school_id bigint not null default 1;
+alter table classes add column school_id bigint not null default 1;
+alter table enrollments add column school_id bigint not null default 1;
+alter table enrollment_mark_history add column school_id bigint not null default 1;
+
+alter table admins alter column school_id drop default;
+alter table students alter column school_id drop default;
+alter table teachers alter column school_id drop default;
+alter table classes alter column school_id drop default;
+alter table enrollments alter column school_id drop default;
+alter table enrollment_mark_history alter column school_id drop default;
+
+-- Lists and keyset pages (where school_id = ? and id > ? order by id) read one
+-- school's slice of the index instead of every school's rows.
+create index idx_students_school on students (school_id, id);
+create index idx_teachers_school on teachers (school_id, id);
+create index idx_classes_school on classes (school_id, id);
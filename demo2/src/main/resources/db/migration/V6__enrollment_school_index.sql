@@ -0,0 +1,8 @@
+-- A school's whole enrollment list (GET /admin/export/enrollments: where
+-- school_id = ? order by class, student) reads only that school's slice, in
+-- output order, instead of every school's rows.
+create index idx_enrollments_school on enrollments (school_id, class_id, student_id);
+
+-- enrollment_mark_history needs no such index: audit pages always filter by
+-- student and/or class first (idx_mark_history_student / _class), and ids are
+-- global, so those index ranges already hold a single school's rows.
@@ -0,0 +1,11 @@
+-- Emails only need to be unique within a school: the same person may work at two
+-- schools of one deployment, and per-school databases merged into it may share
+-- addresses. The (school_id, email) keys also serve every login lookup
+-- (where school_id = ? and email = ?), which the global email keys could not seek on.
+alter table students add constraint uk_students_school_email unique (school_id, email);
+alter table teachers add constraint uk_teachers_school_email unique (school_id, email);
+alter table admins add constraint uk_admins_school_email unique (school_id, email);
+
+alter table students drop constraint uk_students_email;
+alter table teachers drop constraint uk_teachers_email;
+alter table admins drop constraint uk_admins_email;
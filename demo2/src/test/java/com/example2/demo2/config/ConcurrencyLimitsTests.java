@@ -0,0 +1,162 @@
+package com.example2.demo2.config;
+
+import com.example2.demo2.config.ConcurrencyLimits.Group;
+import com.example2.demo2.dto.LimitStatsRes;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Drives the AIMD limits with chosen latencies and outcomes. A window closes at
+// its 10th completion once window-ms has passed, so each window() call below is
+// exactly one adjustment.
+class ConcurrencyLimitsTests {
+
+	private static final long WINDOW_MS = 10;
+
+	private final ConcurrencyLimits limits = new ConcurrencyLimits(new SimpleMeterRegistry(), 10, 2, 12, WINDOW_MS);
+
+	@Test
+	void limitGrowsByOneWhileLatencyHoldsAndTheLimitIsUsed() throws Exception {
+		window(Group.STUDENT_READS, 10, 1, false);
+		assertEquals(11, limit(Group.STUDENT_READS));
+		window(Group.STUDENT_READS, 10, 1, false);
+		assertEquals(12, limit(Group.STUDENT_READS));
+		window(Group.STUDENT_READS, 10, 1, false);
+		assertEquals(12, limit(Group.STUDENT_READS)); // max-limit
+
+		window(Group.TEACHER_WRITES, 1, 1, false); // Never more than one in flight: limit not in use
+		assertEquals(10, limit(Group.TEACHER_WRITES));
+	}
+
+	@Test
+	void latencyAboveToleranceShrinksByTheGroupsBackoff() throws Exception {
+		for (Group g : Group.values()) {
+			window(g, 10, 1, false); // Baseline 1 ms, limit 11
+			window(g, 10, 10, false); // 10 ms is far above baseline × tolerance
+		}
+		assertEquals(9, limit(Group.STUDENT_READS)); // 11 × 0.9
+		assertEquals(8, limit(Group.TEACHER_WRITES)); // 11 × 0.8
+		assertEquals(5, limit(Group.ADMIN_WRITES)); // 11 × 0.5
+	}
+
+	@Test
+	void latencyWithinToleranceIsNotOverload() throws Exception {
+		window(Group.STUDENT_READS, 10, 10, false); // Baseline 10 ms
+		window(Group.STUDENT_READS, 10, 19, false); // Below 2 × baseline
+		assertEquals(12, limit(Group.STUDENT_READS));
+		window(Group.ADMIN_WRITES, 10, 10, false);
+		window(Group.ADMIN_WRITES, 10, 19, false); // Above 1.5 × baseline
+		assertEquals(5, limit(Group.ADMIN_WRITES));
+	}
+
+	@Test
+	void failuresShrinkTheLimitDownToTheFloorOnly() throws Exception {
+		int[] expected = { 9, 8, 7, 6, 5, 4, 3, 2, 2, 2 };
+		for (int e : expected) {
+			window(Group.STUDENT_READS, 2, 1, true);
+			assertEquals(e, limit(Group.STUDENT_READS));
+		}
+		int[] halved = { 5, 2, 2 }; // Low priority halves: reaches the floor in two windows
+		for (int e : halved) {
+			window(Group.ADMIN_WRITES, 2, 1, true);
+			assertEquals(e, limit(Group.ADMIN_WRITES));
+		}
+		assertEquals(10, limit(Group.TEACHER_WRITES)); // Other groups untouched
+	}
+
+	@Test
+	void lowerPrioritiesBackOffWhileAHigherOneIsShedding() throws Exception {
+		ConcurrencyLimits tight = new ConcurrencyLimits(new SimpleMeterRegistry(), 4, 1, 10, WINDOW_MS);
+		for (int i = 0; i < 4; i++)
+			assertTrue(tight.tryAcquire(Group.STUDENT_READS));
+		assertFalse(tight.tryAcquire(Group.STUDENT_READS)); // Rejected: student reads are shedding
+		for (int i = 0; i < 4; i++)
+			tight.release(Group.STUDENT_READS, 0, false);
+		assertEquals(1, stats(tight, Group.STUDENT_READS).rejected());
+
+		for (int i = 0; i < 10; i++) { // Healthy admin writes, one at a time, yet they count as overload
+			if (i == 9)
+				Thread.sleep(WINDOW_MS + 1); // Let the 10th completion close the window
+			assertTrue(tight.tryAcquire(Group.ADMIN_WRITES));
+			tight.release(Group.ADMIN_WRITES, TimeUnit.MILLISECONDS.toNanos(1), false);
+		}
+		assertEquals(2, stats(tight, Group.ADMIN_WRITES).limit()); // 4 × 0.5 (otherwise it would stay at 4)
+		assertEquals(0, stats(tight, Group.ADMIN_WRITES).inFlight());
+	}
+
+	@Test
+	void saturatedGroupIsRefusedWith503AndRetryAfter() throws Exception {
+		ConcurrencyLimits one = new ConcurrencyLimits(new SimpleMeterRegistry(), 1, 1, 1, WINDOW_MS);
+		ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(one, true, 3);
+		assertTrue(one.tryAcquire(Group.STUDENT_READS)); // The only slot is taken
+
+		for (String uri : new String[] { "/students/1/marks", "/%73tudents/1/marks", "/students;x=1/1/marks" }) {
+			MockHttpServletResponse response = new MockHttpServletResponse();
+			MockFilterChain chain = new MockFilterChain();
+			filter.doFilter(new MockHttpServletRequest("GET", uri), response, chain);
+			assertEquals(HttpServletResponse.SC_SERVICE_UNAVAILABLE, response.getStatus(), uri);
+			assertEquals("3", response.getHeader(HttpHeaders.RETRY_AFTER));
+			assertNull(chain.getRequest(), uri); // Never reached the application
+		}
+		assertEquals(3, stats(one, Group.STUDENT_READS).rejected());
+
+		for (String uri : new String[] { "/students/1/events", "/students/1/%65vents", "/admin/students" }) {
+			MockFilterChain chain = new MockFilterChain();
+			filter.doFilter(new MockHttpServletRequest("GET", uri), new MockHttpServletResponse(), chain);
+			assertNotNull(chain.getRequest(), uri); // Not a limited group
+		}
+
+		one.release(Group.STUDENT_READS, 0, false);
+		MockFilterChain chain = new MockFilterChain();
+		filter.doFilter(new MockHttpServletRequest("GET", "/students/1/marks"), new MockHttpServletResponse(), chain);
+		assertNotNull(chain.getRequest());
+		assertEquals(0, stats(one, Group.STUDENT_READS).inFlight()); // Slot returned after the request
+	}
+
+	@Test
+	void writesArePutInTheirGroupWhateverTheSpelling() throws Exception {
+		ConcurrencyLimits none = new ConcurrencyLimits(new SimpleMeterRegistry(), 1, 1, 1, WINDOW_MS);
+		ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(none, true, 1);
+		assertTrue(none.tryAcquire(Group.TEACHER_WRITES));
+		assertTrue(none.tryAcquire(Group.ADMIN_WRITES));
+		for (String uri : new String[] { "/%74eachers/1/classes/1/students/1/mark", "/teachers;x/1/classes/1/marks",
+				"/%61dmin/students", "/admin;x=1/enrollments" }) {
+			MockHttpServletResponse response = new MockHttpServletResponse();
+			filter.doFilter(new MockHttpServletRequest("PUT", uri), response, new MockFilterChain());
+			assertEquals(HttpServletResponse.SC_SERVICE_UNAVAILABLE, response.getStatus(), uri);
+		}
+	}
+
+	// One adjustment window: 10 completions, at most "concurrency" at a time.
+	private void window(Group group, int concurrency, long latencyMillis, boolean failed) throws Exception {
+		Thread.sleep(WINDOW_MS + 1); // Long enough that the 10th completion closes the window
+		for (int done = 0; done < 10;) {
+			int n = Math.min(concurrency, 10 - done);
+			for (int i = 0; i < n; i++)
+				assertTrue(limits.tryAcquire(group));
+			for (int i = 0; i < n; i++)
+				limits.release(group, TimeUnit.MILLISECONDS.toNanos(latencyMillis), failed);
+			done += n;
+		}
+	}
+
+	private int limit(Group group) {
+		return stats(limits, group).limit();
+	}
+
+	private static LimitStatsRes stats(ConcurrencyLimits limits, Group group) {
+		return limits.stats().stream().filter(s -> s.group().equals(group.name())).findFirst().orElseThrow();
+	}
+}
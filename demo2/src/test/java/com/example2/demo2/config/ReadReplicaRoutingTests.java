@@ -0,0 +1,89 @@
+package com.example2.demo2.config;
+
+import com.example2.demo2.dto.StudentRes;
+import com.example2.demo2.repo.StudentRepository;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Two in-memory H2 databases stand in for a primary and its replica. Each holds a
+// different student row, so every read shows which database answered it.
+@SpringBootTest(properties = {
+		"spring.datasource.url=" + ReadReplicaRoutingTests.PRIMARY,
+		"app.datasource.replicas.urls=" + ReadReplicaRoutingTests.REPLICA,
+		"app.datasource.replicas.lag-query=select lag_seconds from replica_lag",
+		"app.datasource.replicas.max-lag-seconds=5",
+		"app.datasource.replicas.check-interval-ms=3600000" })
+class ReadReplicaRoutingTests {
+
+	static final String PRIMARY = "jdbc:h2:mem:primary;MODE=MySQL;DB_CLOSE_DELAY=-1";
+	static final String REPLICA = "jdbc:h2:mem:replica;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+	private static final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA, "sa", ""));
+
+	@Autowired
+	private ReadReplicas replicas;
+
+	@Autowired
+	private StudentRepository studentRepo;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private PlatformTransactionManager txManager;
+
+	@BeforeAll
+	static void setUpReplica() {
+		Flyway.configure().dataSource(REPLICA, "sa", "").load().migrate();
+		replica.execute("create table replica_lag (lag_seconds bigint)");
+		replica.update("insert into replica_lag values (0)");
+		replica.update("insert into students (id, email, name, password, role, school_id) "
+				+ "values (1, 'r@x', 'on-replica', 'x', 'STUDENT', 1)");
+	}
+
+	@Test
+	void readOnlyTransactionsReadTheReplicaUntilItLags() {
+		jdbc.update("insert into students (id, email, name, password, role, school_id) "
+				+ "values (1, 'p@x', 'on-primary', 'x', 'STUDENT', 1)");
+		replicas.check();
+
+		assertEquals("on-replica", name(true));
+		assertEquals("on-primary", name(false));
+		assertEquals("on-primary", tx(true).execute(s -> ReadReplicas.callOnPrimary(this::firstName)));
+
+		replica.update("update replica_lag set lag_seconds = 60");
+		replicas.check();
+		assertEquals("on-primary", name(true));
+
+		replica.update("update replica_lag set lag_seconds = 0");
+		replicas.check();
+		assertEquals("on-replica", name(true));
+	}
+
+	private String name(boolean readOnly) {
+		return tx(readOnly).execute(s -> firstName());
+	}
+
+	private String firstName() {
+		List<StudentRes> all = studentRepo.findAllRes();
+		assertEquals(1, all.size());
+		return all.get(0).name();
+	}
+
+	private TransactionTemplate tx(boolean readOnly) {
+		TransactionTemplate t = new TransactionTemplate(txManager);
+		t.setReadOnly(readOnly);
+		return t;
+	}
+}
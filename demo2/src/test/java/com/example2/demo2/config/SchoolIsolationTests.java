@@ -0,0 +1,197 @@
+package com.example2.demo2.config;
+
+import com.example2.demo2.dto.BulkDeleteRes;
+import com.example2.demo2.dto.ClassroomRes;
+import com.example2.demo2.dto.CreateStudentReq;
+import com.example2.demo2.dto.EnrollStudentReq;
+import com.example2.demo2.dto.ReportJobRes;
+import com.example2.demo2.dto.RosterReq;
+import com.example2.demo2.dto.UpdateStudentReq;
+import com.example2.demo2.error.BadRequestException;
+import com.example2.demo2.repo.StudentRepository;
+import com.example2.demo2.service.AdminService;
+import com.example2.demo2.service.LookupService;
+import com.example2.demo2.service.ReportService;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Two schools in one database. Every path that does not go through a plain
+// tenant-filtered query is exercised as school B against school A's rows: loads
+// by id, set-based bulk deletes, the JDBC roster insert, cached lookups and work
+// handed to other threads (streamed exports, report jobs).
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:schools;MODE=MySQL;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+class SchoolIsolationTests {
+
+	private static final Long A = 1L;
+	private static final Long B = 2L;
+
+	// School A: class 100 (teacher 110) with students 120-123.
+	// School B: class 200 with student 220; students 221 and 222 are not enrolled.
+	@BeforeAll
+	static void setUp(@Autowired JdbcTemplate jdbc) {
+		jdbc.update("insert into classes (id, name, school_id) values (100, 'A maths', 1), (200, 'B maths', 2)");
+		jdbc.update("insert into teachers (id, email, name, password, role, class_id, school_id) "
+				+ "values (110, 't110@a', 'A teacher', 'x', 'TEACHER', 100, 1)");
+		jdbc.update("insert into students (id, email, name, password, role, school_id) values "
+				+ "(120, 's120@a', 'A one', 'x', 'STUDENT', 1), (121, 's121@a', 'A two', 'x', 'STUDENT', 1), "
+				+ "(122, 's122@a', 'A three', 'x', 'STUDENT', 1), (123, 's123@a', 'A four', 'x', 'STUDENT', 1), "
+				+ "(220, 's220@b', 'B one', 'x', 'STUDENT', 2), (221, 's221@b', 'B two', 'x', 'STUDENT', 2), "
+				+ "(222, 's222@b', 'B three', 'x', 'STUDENT', 2)");
+		jdbc.update("insert into enrollments (class_id, student_id, mark, version, school_id) "
+				+ "values (100, 120, 'B', 0, 1), (100, 121, null, 0, 1), (200, 220, 'A', 0, 2)");
+	}
+
+	@Autowired
+	private AdminService admin;
+
+	@Autowired
+	private LookupService lookups;
+
+	@Autowired
+	private ReportService reports;
+
+	@Autowired
+	private StudentRepository studentRepo;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private PlatformTransactionManager txManager;
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Test
+	void rowsOfAnotherSchoolAreNotFoundById() {
+		TransactionTemplate tx = new TransactionTemplate(txManager);
+		assertTrue(SchoolContext.callAs(A, () -> tx.execute(s -> studentRepo.findById(120L))).isPresent());
+		assertTrue(SchoolContext.callAs(B, () -> tx.execute(s -> studentRepo.findById(120L))).isEmpty());
+		assertThrows(EntityNotFoundException.class, // Lazy proxy initialised for the wrong school
+				() -> SchoolContext.runAs(B, () -> tx.execute(s -> studentRepo.getReferenceById(120L).getName())));
+		assertThrows(NoSuchElementException.class,
+				() -> SchoolContext.runAs(B, () -> admin.updateStudent(120L, new UpdateStudentReq("Hijacked", "h@b"))));
+		assertEquals("A one", jdbc.queryForObject("select name from students where id = 120", String.class));
+		assertThrows(NoSuchElementException.class,
+				() -> SchoolContext.runAs(B, () -> admin.enrollStudent(new EnrollStudentReq(120L, 200L))));
+	}
+
+	@Test
+	void emailsAreUniquePerSchool() {
+		Long inB = SchoolContext.callAs(B, () -> admin.createStudent(new CreateStudentReq("Same person", "s120@a", "pw"))).id();
+		assertEquals(B, jdbc.queryForObject("select school_id from students where id = ?", Long.class, inB));
+		assertThrows(DataIntegrityViolationException.class, // Still unique within a school
+				() -> SchoolContext.runAs(A, () -> admin.createStudent(new CreateStudentReq("Twin", "s120@a", "pw"))));
+		assertEquals(120L, SchoolContext.callAs(A, () -> tx().execute(s -> studentRepo.findByEmail("s120@a"))).get().getId());
+		assertEquals(inB, SchoolContext.callAs(B, () -> tx().execute(s -> studentRepo.findByEmail("s120@a"))).get().getId());
+	}
+
+	@Test
+	void bulkDeletesOnlyRemoveTheCurrentSchoolsRows() {
+		BulkDeleteRes students = SchoolContext.callAs(B, () -> admin.deleteStudents(List.of(120L, 121L, 221L)));
+		assertEquals(new BulkDeleteRes(1, 0), students); // Only B's own 221
+		BulkDeleteRes classes = SchoolContext.callAs(B, () -> admin.deleteClasses(List.of(100L)));
+		assertEquals(new BulkDeleteRes(0, 0), classes); // A's class is invisible, its teacher too
+		assertEquals(2, count("select count(*) from students where id in (120, 121)"));
+		assertEquals(2, count("select count(*) from enrollments where class_id = 100"));
+		assertEquals(1, count("select count(*) from classes where id = 100"));
+	}
+
+	@Test
+	void rosterInsertsAreCheckedAndStampedWithTheSchool() {
+		assertThrows(NoSuchElementException.class, // A's class
+				() -> SchoolContext.runAs(B, () -> admin.addToRoster(100L, new RosterReq(Arrays.asList(220L)), null)));
+		assertThrows(BadRequestException.class, // A's student
+				() -> SchoolContext.runAs(B, () -> admin.addToRoster(200L, new RosterReq(Arrays.asList(122L)), null)));
+		assertEquals(0, count("select count(*) from enrollments where student_id = 122"));
+
+		SchoolContext.runAs(B, () -> admin.addToRoster(200L, new RosterReq(Arrays.asList(222L)), null));
+		assertEquals(B, jdbc.queryForObject(
+				"select school_id from enrollments where class_id = 200 and student_id = 222", Long.class));
+	}
+
+	@Test
+	void cachedLookupsAreKeptPerSchool() {
+		assertEquals(List.of(100L), SchoolContext.callAs(A, () -> ids(lookups.allClasses())));
+		assertEquals(List.of(200L), SchoolContext.callAs(B, () -> ids(lookups.allClasses()))); // Not A's cached list
+		assertEquals("A maths", SchoolContext.callAs(A, () -> lookups.classroom(100L)).name());
+		assertThrows(NoSuchElementException.class, () -> SchoolContext.callAs(B, () -> lookups.classroom(100L)));
+		assertEquals(100L, SchoolContext.callAs(A, () -> lookups.classIdOfTeacher(110L)));
+		assertThrows(NoSuchElementException.class, () -> SchoolContext.callAs(B, () -> lookups.classIdOfTeacher(110L)));
+	}
+
+	@Test
+	void streamedExportRunsForTheRequestingSchool() throws Exception {
+		MvcResult started = mvc.perform(get("/admin/export/enrollments").header(SchoolContext.HEADER, "2"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		String csv = mvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		assertTrue(csv.contains("s220@b"), csv);
+		assertFalse(csv.contains("@a"), csv);
+	}
+
+	@Test
+	void reportJobRunsForTheSchoolThatStartedIt() throws Exception {
+		String jobId = SchoolContext.callAs(B, () -> reports.start("Term 1")).jobId();
+		assertThrows(NoSuchElementException.class, () -> SchoolContext.callAs(A, () -> reports.status(jobId)));
+		ReportJobRes res = SchoolContext.callAs(B, () -> reports.status(jobId));
+		for (int i = 0; i < 200 && !res.status().equals("DONE") && !res.status().equals("FAILED"); i++) {
+			Thread.sleep(50);
+			res = SchoolContext.callAs(B, () -> reports.status(jobId));
+		}
+		assertEquals("DONE", res.status());
+		assertEquals(count("select count(*) from students where school_id = 2"), res.studentsDone());
+
+		List<String> names = new ArrayList<>();
+		try (InputStream in = Files.newInputStream(SchoolContext.callAs(B, () -> reports.file(jobId)));
+				ZipInputStream zip = new ZipInputStream(in)) {
+			for (ZipEntry e; (e = zip.getNextEntry()) != null;)
+				names.add(e.getName());
+		}
+		assertFalse(names.isEmpty());
+		assertTrue(names.stream().allMatch(n -> n.startsWith("22")), names::toString); // Only B's students
+	}
+
+	private TransactionTemplate tx() {
+		return new TransactionTemplate(txManager);
+	}
+
+	private long count(String sql) {
+		return jdbc.queryForObject(sql, Long.class);
+	}
+
+	private static List<Long> ids(List<ClassroomRes> classes) {
+		return classes.stream().map(ClassroomRes::id).toList();
+	}
+}
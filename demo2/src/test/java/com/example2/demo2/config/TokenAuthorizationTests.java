@@ -0,0 +1,127 @@
+package com.example2.demo2.config;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.net.URI;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Sends requests through the whole MVC stack with login tokens of different
+// users, including paths spelled so that they only match a handler after
+// decoding (%73 = 's', %74 = 't') or after dropping ";" path parameters.
+// Authorization must follow the handler that actually runs, not the raw URI.
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:tokens;MODE=MySQL;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+class TokenAuthorizationTests {
+
+	// School 1: teacher 20 teaches class 10 (student 30); class 11 has student 31.
+	@BeforeAll
+	static void setUp(@Autowired JdbcTemplate jdbc) {
+		jdbc.update("insert into classes (id, name, school_id) values (10, 'Maths', 1), (11, 'Physics', 1)");
+		jdbc.update("insert into teachers (id, email, name, password, role, class_id, school_id) "
+				+ "values (20, 't20@x', 'Teacher', 'x', 'TEACHER', 10, 1)");
+		jdbc.update("insert into students (id, email, name, password, role, school_id) "
+				+ "values (30, 's30@x', 'Ann', 'x', 'STUDENT', 1), (31, 's31@x', 'Bob', 'x', 'STUDENT', 1)");
+		jdbc.update("insert into enrollments (class_id, student_id, mark, version, school_id) "
+				+ "values (10, 30, null, 0, 1), (11, 31, null, 0, 1)");
+	}
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private AuthTokens tokens;
+
+	@Test
+	void studentReadsOnlyTheirOwnMarks() throws Exception {
+		String ann = tokens.issue("STUDENT", 30, null);
+		expect(get("/students/30/marks"), ann, status().isOk());
+		expect(get("/students/31/marks"), ann, status().isForbidden());
+		expect(get("/students/31/marks"), tokens.issue("ADMIN", 1, null), status().isOk());
+	}
+
+	@Test
+	void missingTokenIsRejected() throws Exception {
+		mvc.perform(get("/students/30/marks"))
+				.andExpect(status().isUnauthorized())
+				.andExpect(header().string(HttpHeaders.WWW_AUTHENTICATE, "Bearer"));
+		expect(get("/teachers/20/gradebook"), "not-a-token", status().isUnauthorized());
+	}
+
+	@Test
+	void encodedAndPathParameterSpellingsAreStillGuarded() throws Exception {
+		String ann = tokens.issue("STUDENT", 30, null);
+		for (String path : new String[] { "/%73tudents/31/marks", "/students;x=1/31/marks",
+				"/students/31;x=1/marks" }) {
+			expect(get(URI.create(path)), null, status().isUnauthorized());
+			expect(get(URI.create(path)), ann, status().isForbidden());
+		}
+		expect(get(URI.create("/teachers;x/20/gradebook")), null, status().isUnauthorized());
+		expect(get(URI.create("/%74eachers/20/gradebook")), ann, status().isForbidden());
+	}
+
+	@Test
+	void teacherWritesOnlyTheirOwnClass() throws Exception {
+		String teacher = tokens.issue("TEACHER", 20, 10L);
+		expect(putMark("/teachers/20/classes/10/students/30/mark"), teacher, status().isOk());
+		expect(putMark("/teachers/20/classes/11/students/31/mark"), teacher, status().isForbidden());
+		expect(putMark("/%74eachers/20/classes/11/students/31/mark"), null, status().isUnauthorized());
+		expect(putMark("/%74eachers/20/classes/11/students/31/mark"), teacher, status().isForbidden());
+		expect(putMark("/teachers/20/classes;x=10/11/students/31/mark"), teacher, status().isForbidden());
+		expect(putMark("/teachers/21/classes/10/students/30/mark"), teacher, status().isForbidden());
+	}
+
+	// EventSource cannot send headers, so the event streams take the token from
+	// access_token; no other endpoint does.
+	@Test
+	void queryParameterTokenIsOnlyAcceptedByEventStreams() throws Exception {
+		String ann = tokens.issue("STUDENT", 30, null);
+		String teacher = tokens.issue("TEACHER", 20, 10L);
+		mvc.perform(get("/students/30/events").param("access_token", ann))
+				.andExpect(request().asyncStarted());
+		mvc.perform(get("/teachers/20/events").param("access_token", teacher))
+				.andExpect(request().asyncStarted());
+		mvc.perform(get("/students/31/events").param("access_token", ann))
+				.andExpect(status().isForbidden());
+
+		mvc.perform(get("/students/30/marks").param("access_token", ann))
+				.andExpect(status().isUnauthorized());
+		mvc.perform(get("/teachers/20/gradebook").param("access_token", teacher))
+				.andExpect(status().isUnauthorized());
+		mvc.perform(putMark("/teachers/20/classes/10/students/30/mark").param("access_token", teacher))
+				.andExpect(status().isUnauthorized());
+	}
+
+	@Test
+	void tokenOfAnotherSchoolIsRejected() throws Exception {
+		String ann = tokens.issue("STUDENT", 30, null); // Issued for school 1
+		mvc.perform(get("/students/30/marks").header(SchoolContext.HEADER, "2")
+				.header(HttpHeaders.AUTHORIZATION, "Bearer " + ann))
+				.andExpect(status().isForbidden());
+	}
+
+	private static MockHttpServletRequestBuilder putMark(String path) {
+		return put(URI.create(path)).contentType(MediaType.APPLICATION_JSON).content("{\"mark\":\"A\"}");
+	}
+
+	private void expect(MockHttpServletRequestBuilder request, String token, ResultMatcher status)
+			throws Exception {
+		if (token != null)
+			request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+		mvc.perform(request).andExpect(status);
+	}
+}
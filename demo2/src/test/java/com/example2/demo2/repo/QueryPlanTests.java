@@ -0,0 +1,140 @@
+package com.example2.demo2.repo;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs the hot repository queries, captures the SQL Hibernate sends and EXPLAINs it
+// on H2 (MySQL mode, schema from the Flyway migrations). Fails when any of them
+// plans a full table scan, e.g. because a migration dropped an index or a query
+// stopped filtering on an indexed column.
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+		+ "com.example2.demo2.repo.QueryPlanTests$Recorder")
+@Transactional
+class QueryPlanTests {
+
+	// Hibernate hook that sees every SQL string before it is prepared.
+	public static class Recorder implements StatementInspector {
+		static final List<String> SQL = new CopyOnWriteArrayList<>();
+
+		@Override
+		public String inspect(String sql) {
+			SQL.add(sql);
+			return sql;
+		}
+	}
+
+	@Autowired
+	private EnrollmentRepository enrollRepo;
+
+	@Autowired
+	private StudentRepository studentRepo;
+
+	@Autowired
+	private TeacherRepository teacherRepo;
+
+	@Autowired
+	private AdminRepository adminRepo;
+
+	@Autowired
+	private MarkHistoryRepository historyRepo;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Test
+	void perClassQueriesUseAnIndex() {
+		assertIndexed(() -> enrollRepo.findByClassroomId(1L));
+		assertIndexed(() -> enrollRepo.findMarksByClassId(1L));
+		assertIndexed(() -> enrollRepo.findRes(1L, 1L));
+		assertIndexed(() -> enrollRepo.updateMarkIfVersion(1L, 1L, "A", 0L));
+		assertIndexed(() -> enrollRepo.findByClassIdAndStudentIds(1L, List.of(1L, 2L, 3L)));
+		assertIndexed(() -> studentRepo.findStudentsByClassId(1L));
+		assertIndexed(() -> enrollRepo.findStudentIdsByClassId(1L));
+		assertIndexed(() -> enrollRepo.deleteByClassIds(List.of(1L, 2L)));
+		assertIndexed(() -> studentRepo.findExistingIds(List.of(1L, 2L, 3L)));
+		assertIndexed(() -> {
+			try (Stream<?> rows = enrollRepo.streamRowsByClassId(1L)) {
+				rows.count();
+			}
+		});
+	}
+
+	@Test
+	void perTeacherQueriesUseAnIndex() {
+		assertIndexed(() -> studentRepo.findStudentsByTeacherId(1L));
+		assertIndexed(() -> enrollRepo.findGradebookByTeacherId(1L));
+		assertIndexed(() -> teacherRepo.findClassIdByTeacherId(1L));
+	}
+
+	@Test
+	void perStudentQueriesUseAnIndex() {
+		assertIndexed(() -> enrollRepo.findByStudentId(1L));
+		assertIndexed(() -> enrollRepo.findDashboardMarks(1L));
+		assertIndexed(() -> enrollRepo.deleteByStudentIds(List.of(1L, 2L)));
+	}
+
+	@Test
+	void auditPagesUseAnIndex() {
+		assertIndexed(() -> historyRepo.findPageByStudent(1L, 0L, Limit.of(51)));
+		assertIndexed(() -> historyRepo.findPageByClass(1L, 0L, Limit.of(51)));
+		assertIndexed(() -> historyRepo.findPageByStudentAndClass(1L, 1L, 0L, Limit.of(51)));
+	}
+
+	@Test
+	void schoolWideQueriesUseAnIndex() {
+		assertIndexed(() -> studentRepo.findAllRes());
+		assertIndexed(() -> teacherRepo.findAllRes());
+		assertIndexed(() -> {
+			try (Stream<?> rows = enrollRepo.streamAllRows()) {
+				rows.count();
+			}
+		});
+		assertIndexed(() -> {
+			try (Stream<?> rows = enrollRepo.streamReportRows()) {
+				rows.count();
+			}
+		});
+	}
+
+	@Test
+	void loginLookupsUseAnIndex() {
+		assertIndexed(() -> studentRepo.findByEmail("a@b"));
+		assertIndexed(() -> teacherRepo.findByEmail("a@b"));
+		assertIndexed(() -> adminRepo.findByEmail("a@b"));
+	}
+
+	@Test
+	void teachersByClassUseAnIndex() {
+		// Not a repository query: the lookup the foreign key check makes when a class is deleted
+		assertPlanIndexed("select t.id from teachers t where t.class_id = ?");
+		assertIndexed(() -> teacherRepo.findTaughtClassIds(List.of(1L, 2L)));
+	}
+
+	private void assertIndexed(Runnable query) {
+		Recorder.SQL.clear();
+		query.run();
+		List<String> statements = new ArrayList<>(Recorder.SQL);
+		assertFalse(statements.isEmpty(), "no SQL captured");
+		statements.forEach(this::assertPlanIndexed);
+	}
+
+	private void assertPlanIndexed(String sql) {
+		String plan = jdbc.queryForObject("explain " + sql.replace("?", "1"), String.class);
+		assertTrue(!plan.toLowerCase(Locale.ROOT).contains(".tablescan"),
+				() -> "full table scan in plan for\n  " + sql + "\nplan:\n" + plan);
+	}
+}
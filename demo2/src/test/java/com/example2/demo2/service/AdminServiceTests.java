@@ -0,0 +1,143 @@
+package com.example2.demo2.service;
+
+import com.example2.demo2.repo.EnrollmentRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.hamcrest.Matchers.contains;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:admin;MODE=MySQL;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+class AdminServiceTests {
+
+	@BeforeAll
+	static void setUp(@Autowired JdbcTemplate jdbc) {
+		jdbc.update("insert into classes (id, name, school_id) values (10, 'Maths', 1)");
+		jdbc.update("insert into students (id, email, name, password, role, school_id) "
+				+ "values (30, 's30@x', 'Ann', 'x', 'STUDENT', 1)");
+		for (long id = 11; id <= 13; id++) // One class per roster test
+			jdbc.update("insert into classes (id, name, school_id) values (?, ?, 1)", id, "Class " + id);
+		for (long id = 31; id <= 35; id++)
+			jdbc.update("insert into students (id, email, name, password, role, school_id) values (?, ?, ?, 'x', 'STUDENT', 1)",
+					id, "s" + id + "@x", "Student " + id);
+		jdbc.update("insert into enrollments (class_id, student_id, version, school_id) values (11, 31, 0, 1), (11, 32, 0, 1)");
+	}
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@SpyBean
+	private EnrollmentRepository enrollRepo;
+
+	@Test
+	void enrollingTwiceIsAConflictNotAServerError() throws Exception {
+		String body = "{\"studentId\":30,\"classId\":10}";
+		mvc.perform(post("/admin/enrollments").contentType(MediaType.APPLICATION_JSON).content(body))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.version").value(0));
+		mvc.perform(post("/admin/enrollments").contentType(MediaType.APPLICATION_JSON).content(body))
+				.andExpect(status().isConflict());
+		assertEquals(1, jdbc.queryForObject(
+				"select count(*) from enrollments where class_id = 10 and student_id = 30", Integer.class));
+	}
+
+	@Test
+	void rosterChangesReportWhatTheyDid() throws Exception {
+		mvc.perform(roster(put("/admin/classes/11/roster"), "[32, 33]"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.added", contains(33)))
+				.andExpect(jsonPath("$.removed", contains(31)))
+				.andExpect(jsonPath("$.unchanged").value(1));
+		mvc.perform(roster(post("/admin/classes/11/enrollments"), "[33, 34, 34]"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.added", contains(34)))
+				.andExpect(jsonPath("$.removed").isEmpty())
+				.andExpect(jsonPath("$.unchanged").value(1));
+		assertEquals(List.of(32L, 33L, 34L), enrolled(11L));
+	}
+
+	// A retry with the same key gets the first response back and changes nothing,
+	// even if the roster was edited in between; the key cannot be reused for
+	// another roster or operation.
+	@Test
+	void aRetryReplaysTheFirstResponse() throws Exception {
+		String first = replace(12L, "[31, 32]", "roster-12")
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.added", contains(31, 32)))
+				.andReturn().getResponse().getContentAsString();
+		jdbc.update("delete from enrollments where class_id = 12 and student_id = 31");
+
+		assertEquals(first, replace(12L, "[31, 32]", "roster-12")
+				.andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+		assertEquals(first, replace(12L, "[32, 31]", "roster-12") // Same set in another order
+				.andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+		assertEquals(List.of(32L), enrolled(12L)); // Not applied again
+
+		replace(12L, "[31]", "roster-12").andExpect(status().isBadRequest());
+		mvc.perform(roster(post("/admin/classes/12/enrollments"), "[31, 32]").header("Idempotency-Key", "roster-12"))
+				.andExpect(status().isBadRequest());
+		assertEquals(List.of(32L), enrolled(12L));
+	}
+
+	// Student 35 is enrolled by someone else between the roster read and the batch
+	// insert. The whole batch is refused with 409 and the failed attempt is not
+	// remembered, so retrying with the same key applies the request.
+	@Test
+	void aConcurrentEnrollmentFailsTheBatchWith409() throws Exception {
+		doAnswer(inv -> {
+			Object current = real(inv);
+			CompletableFuture.runAsync(() -> jdbc.update(
+					"insert into enrollments (class_id, student_id, version, school_id) values (13, 35, 0, 1)")).get();
+			return current;
+		}).doAnswer(this::real).when(enrollRepo).findStudentIdsByClassId(13L);
+
+		replace(13L, "[34, 35]", "roster-13").andExpect(status().isConflict());
+		assertEquals(List.of(35L), enrolled(13L)); // 34 was rolled back with the batch
+
+		replace(13L, "[34, 35]", "roster-13")
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.added", contains(34)))
+				.andExpect(jsonPath("$.unchanged").value(1));
+		assertEquals(List.of(34L, 35L), enrolled(13L));
+	}
+
+	private Object real(InvocationOnMock inv) throws Throwable { // Spied repository proxies delegate by default answer
+		return mockingDetails(enrollRepo).getMockCreationSettings().getDefaultAnswer().answer(inv);
+	}
+
+	private ResultActions replace(Long classId, String studentIds, String key) throws Exception {
+		return mvc.perform(roster(put("/admin/classes/" + classId + "/roster"), studentIds).header("Idempotency-Key", key));
+	}
+
+	private static MockHttpServletRequestBuilder roster(MockHttpServletRequestBuilder request, String studentIds) {
+		return request.contentType(MediaType.APPLICATION_JSON).content("{\"studentIds\":" + studentIds + "}");
+	}
+
+	private List<Long> enrolled(Long classId) {
+		return jdbc.queryForList("select student_id from enrollments where class_id = ? order by student_id", Long.class,
+				classId);
+	}
+}
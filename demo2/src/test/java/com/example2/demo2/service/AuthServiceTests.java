@@ -0,0 +1,74 @@
+package com.example2.demo2.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// BCrypt may wait for a free worker; a login must not keep a pooled connection
+// checked out meanwhile.
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:logins;MODE=MySQL;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+class AuthServiceTests {
+
+	@BeforeAll
+	static void setUp(@Autowired JdbcTemplate jdbc, @Autowired PasswordEncoder encoder) {
+		jdbc.update("insert into classes (id, name, school_id) values (10, 'Maths', 1)");
+		jdbc.update("insert into students (id, email, name, password, role, school_id) values (30, 's30@l', 'Ann', ?, 'STUDENT', 1)",
+				encoder.encode("ann-pw"));
+		jdbc.update("insert into teachers (id, email, name, password, role, class_id, school_id) "
+				+ "values (20, 't20@l', 'Teacher', ?, 'TEACHER', 10, 1)", encoder.encode("teacher-pw"));
+	}
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@SpyBean
+	private PasswordHashingService hashing;
+
+	@Test
+	void passwordIsCheckedWithoutHoldingAConnection() throws Exception {
+		List<Integer> active = new CopyOnWriteArrayList<>(); // Connections in use while each hash was checked
+		doAnswer(inv -> {
+			active.add(activeConnections());
+			return inv.callRealMethod();
+		}).when(hashing).matches(any(), any());
+
+		login("s30@l", "ann-pw").andExpect(status().isOk()).andExpect(jsonPath("$.role").value("STUDENT"));
+		login("t20@l", "teacher-pw").andExpect(status().isOk()).andExpect(jsonPath("$.role").value("TEACHER"));
+		login("s30@l", "wrong").andExpect(status().isUnauthorized());
+		assertEquals(List.of(0, 0, 0), active);
+	}
+
+	private ResultActions login(String email, String password) throws Exception {
+		return mvc.perform(post("/auth/login").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}"));
+	}
+
+	private int activeConnections() throws SQLException {
+		return dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean().getActiveConnections();
+	}
+}
@@ -0,0 +1,158 @@
+package com.example2.demo2.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// Every figure ClassStats derives from its Fenwick tree is checked against the
+// same figure computed from a plain sorted array of the class's marks.
+class ClassStatsTests {
+
+	private static final int[] PERCENTILES = { 0, 25, 50, 75, 90, 100 };
+
+	@Test
+	void emptyClass() {
+		ClassStats.Summary s = new ClassStats().summary();
+		assertEquals(0, s.enrolled());
+		assertEquals(0, s.graded());
+		assertNull(s.mean());
+		assertNull(s.median());
+		assertEquals(List.of(0L, 0L, 0L, 0L, 0L, 0L, 0L, 0L, 0L, 0L), s.histogram());
+		assertNull(new ClassStats().rank(1L));
+	}
+
+	@Test
+	void singleStudent() {
+		ClassStats stats = new ClassStats();
+		stats.put(1L, MarkScale.UNGRADED);
+		assertEquals(new ClassStats.Rank(null, null, 0, null), stats.rank(1L));
+		assertNull(stats.summary().max());
+
+		stats.put(1L, 1000); // 100.0
+		ClassStats.Summary s = stats.summary();
+		assertEquals(1, s.enrolled());
+		assertEquals(100.0, s.min());
+		assertEquals(100.0, s.max());
+		assertEquals(100.0, s.mean());
+		assertEquals(1L, s.histogram().get(9)); // The top bin includes 100
+		assertEquals(new ClassStats.Rank(100.0, 1L, 1, 50.0), stats.rank(1L));
+
+		stats.remove(1L);
+		assertEquals(0, stats.summary().enrolled());
+		assertNull(stats.rank(1L));
+	}
+
+	@Test
+	void tiesShareARank() {
+		ClassStats stats = new ClassStats();
+		int[] buckets = { 900, 800, 800, 800, 700 };
+		for (int i = 0; i < buckets.length; i++)
+			stats.put((long) i, buckets[i]);
+		assertEquals(new ClassStats.Rank(90.0, 1L, 5, 90.0), stats.rank(0L));
+		assertEquals(new ClassStats.Rank(80.0, 2L, 5, 50.0), stats.rank(1L)); // 1 below, 3 equal
+		assertEquals(new ClassStats.Rank(80.0, 2L, 5, 50.0), stats.rank(3L));
+		assertEquals(new ClassStats.Rank(70.0, 5L, 5, 10.0), stats.rank(4L));
+	}
+
+	@Test
+	void matchesASortedArrayForRandomClasses() {
+		Random random = new Random(7);
+		for (int round = 0; round < 300; round++) {
+			int size = round < 10 ? round : random.nextInt(400);
+			Map<Long, Integer> marks = new HashMap<>();
+			ClassStats stats = new ClassStats();
+			for (long id = 0; id < size; id++)
+				put(stats, marks, id, randomBucket(random, round));
+			check(stats, marks);
+
+			for (int change = 0; change < size / 2; change++) { // Regrade, unenrol and enrol
+				long id = random.nextInt(size + 10);
+				if (random.nextInt(4) == 0) {
+					stats.remove(id);
+					marks.remove(id);
+				} else {
+					put(stats, marks, id, randomBucket(random, round));
+				}
+			}
+			check(stats, marks);
+		}
+	}
+
+	@Test
+	void mergeEqualsOneClassHoldingEveryMark() {
+		Random random = new Random(11);
+		List<ClassStats> classes = new ArrayList<>();
+		Map<Long, Integer> all = new HashMap<>();
+		long id = 0;
+		for (int c = 0; c < 8; c++) {
+			ClassStats stats = new ClassStats();
+			int size = c == 0 ? 0 : c == 1 ? 1 : random.nextInt(200);
+			for (int i = 0; i < size; i++)
+				put(stats, all, id++, randomBucket(random, c));
+			classes.add(stats);
+		}
+		ClassStats merged = ClassStats.merge(classes);
+		assertEquals(expected(all), merged.summary());
+		assertEquals(0, ClassStats.merge(List.of()).summary().enrolled());
+	}
+
+	private static void put(ClassStats stats, Map<Long, Integer> marks, long id, int bucket) {
+		stats.put(id, bucket);
+		marks.put(id, bucket);
+	}
+
+	private static int randomBucket(Random random, int round) { // Few distinct marks in some rounds: many ties
+		if (random.nextInt(10) == 0)
+			return MarkScale.UNGRADED;
+		return round % 3 == 0 ? 100 * random.nextInt(11) : random.nextInt(MarkScale.BUCKETS);
+	}
+
+	private static void check(ClassStats stats, Map<Long, Integer> marks) {
+		assertEquals(expected(marks), stats.summary());
+		int[] sorted = graded(marks);
+		for (Map.Entry<Long, Integer> e : marks.entrySet()) {
+			int b = e.getValue();
+			if (b == MarkScale.UNGRADED) {
+				assertEquals(new ClassStats.Rank(null, null, sorted.length, null), stats.rank(e.getKey()));
+				continue;
+			}
+			long below = Arrays.stream(sorted).filter(x -> x < b).count();
+			long same = Arrays.stream(sorted).filter(x -> x == b).count();
+			assertEquals(new ClassStats.Rank(b / 10.0, sorted.length - below - same + 1, sorted.length,
+					100.0 * (below + same / 2.0) / sorted.length), stats.rank(e.getKey()));
+		}
+		assertNull(stats.rank(-1L));
+	}
+
+	private static ClassStats.Summary expected(Map<Long, Integer> marks) {
+		int[] sorted = graded(marks);
+		int n = sorted.length;
+		List<Long> histogram = new ArrayList<>();
+		for (int bin = 0; bin < 10; bin++) {
+			int lo = bin * 100, hi = bin == 9 ? 1000 : lo + 99;
+			histogram.add(Arrays.stream(sorted).filter(x -> x >= lo && x <= hi).count());
+		}
+		if (n == 0)
+			return new ClassStats.Summary(marks.size(), 0, null, null, null, null, null, null, null, histogram);
+		Double[] p = new Double[PERCENTILES.length];
+		for (int i = 0; i < p.length; i++) {
+			int k = Math.max(1, (PERCENTILES[i] * n + 99) / 100); // Nearest rank: ceil(p/100 · n), at least 1
+			p[i] = sorted[k - 1] / 10.0;
+		}
+		double mean = Arrays.stream(sorted).asLongStream().sum() / 10.0 / n;
+		return new ClassStats.Summary(marks.size(), n, mean, p[0], p[1], p[2], p[3], p[4], p[5], histogram);
+	}
+
+	private static int[] graded(Map<Long, Integer> marks) {
+		return marks.values().stream().mapToInt(Integer::intValue).filter(b -> b != MarkScale.UNGRADED).sorted()
+				.toArray();
+	}
+}
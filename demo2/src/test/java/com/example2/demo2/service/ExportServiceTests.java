@@ -0,0 +1,53 @@
+package com.example2.demo2.service;
+
+import com.example2.demo2.dto.GradebookRowRes;
+import com.example2.demo2.repo.EnrollmentRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ExportServiceTests {
+
+	private final EnrollmentRepository enrollRepo = mock(EnrollmentRepository.class);
+	private final ExportService exports = new ExportService(enrollRepo, new ObjectMapper());
+
+	@Test
+	void ndjsonEndsEveryLineAndAnEmptyExportIsEmpty() throws IOException {
+		when(enrollRepo.streamRowsByClassId(1L)).thenReturn(Stream.of(
+				new GradebookRowRes(1L, "Maths", 10L, "Ann", "ann@x", "A"),
+				new GradebookRowRes(1L, "Maths", 11L, "Bob", "bob@x", null)));
+		when(enrollRepo.streamRowsByClassId(2L)).thenReturn(Stream.empty());
+
+		assertEquals("""
+				{"classId":1,"className":"Maths","studentId":10,"studentName":"Ann","email":"ann@x","mark":"A"}
+				{"classId":1,"className":"Maths","studentId":11,"studentName":"Bob","email":"bob@x","mark":null}
+				""", roster(1L, ExportService.Format.NDJSON));
+		assertEquals("", roster(2L, ExportService.Format.NDJSON));
+	}
+
+	@Test
+	void csvAlwaysHasItsHeader() throws IOException {
+		when(enrollRepo.streamRowsByClassId(1L)).thenReturn(Stream.of(
+				new GradebookRowRes(1L, "Maths, set 2", 10L, "Ann \"A\" Lee", "ann@x", null)));
+		when(enrollRepo.streamRowsByClassId(2L)).thenReturn(Stream.empty());
+
+		assertEquals("classId,className,studentId,studentName,studentEmail,mark\r\n"
+				+ "1,\"Maths, set 2\",10,\"Ann \"\"A\"\" Lee\",ann@x,\r\n", roster(1L, ExportService.Format.CSV));
+		assertEquals("classId,className,studentId,studentName,studentEmail,mark\r\n",
+				roster(2L, ExportService.Format.CSV));
+	}
+
+	private String roster(Long classId, ExportService.Format format) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		exports.writeRoster(classId, out, format);
+		return out.toString(StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,108 @@
+package com.example2.demo2.service;
+
+import com.example2.demo2.config.SchoolContext;
+import com.example2.demo2.dto.ImportErrorRes;
+import com.example2.demo2.dto.ImportJobRes;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:imports;MODE=MySQL;DB_CLOSE_DELAY=-1")
+class ImportServiceTests {
+
+	private static final Long SCHOOL = 1L;
+
+	@BeforeAll
+	static void setUp(@Autowired JdbcTemplate jdbc) {
+		jdbc.update("insert into students (id, email, name, password, role, school_id) "
+				+ "values (500, 'taken@i', 'Already here', 'x', 'STUDENT', 1)");
+	}
+
+	@Autowired
+	private ImportService imports;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Test
+	void csvFieldsFollowRfc4180() {
+		assertEquals(List.of("a", "b", "c"), ImportService.splitCsv("a,b,c"));
+		assertEquals(List.of("Lee, Bob", "x"), ImportService.splitCsv("\"Lee, Bob\",x"));
+		assertEquals(List.of("say \"hi\"", ""), ImportService.splitCsv("\"say \"\"hi\"\"\","));
+		assertEquals(List.of("\"", "x"), ImportService.splitCsv("\"\"\"\",x")); // Just an escaped quote
+		assertEquals(List.of("", "", ""), ImportService.splitCsv(",,"));
+		assertEquals(List.of(""), ImportService.splitCsv(""));
+		assertEquals(List.of("two\nlines", "x"), ImportService.splitCsv("\"two\nlines\",x"));
+		assertThrows(IllegalArgumentException.class, () -> ImportService.splitCsv("\"open,x"));
+	}
+
+	// One chunk with a little of everything: the duplicate email fails the batch
+	// insert, so the chunk is retried row by row and only that row is rejected.
+	// Rows are reported by the line they start on.
+	@Test
+	void badRowsAreReportedByLineAndTheRestIsImported() throws Exception {
+		String csv = String.join("\n",
+				"name,email,password",
+				"Ann Lee,ann@i,pw",
+				"\"Lee, Bob\",bob@i,pw",
+				"\"Cara \"\"CJ\"\" Jones\",cara@i,pw",
+				"Dup,taken@i,pw", // Line 5: email already exists
+				"Short,row@i", // Line 6
+				",empty@i,pw", // Line 7
+				"",
+				"\"Dana",
+				"Multi\",dana@i,pw", // Lines 9-10: one record
+				"Eve,eve@i,pw",
+				"\"Broken,x@i,pw"); // Line 12: never closed
+		ImportJobRes res = run("students", csv);
+
+		assertEquals("DONE", res.status());
+		assertEquals(9, res.linesRead()); // Records, not physical lines
+		assertEquals(5, res.imported());
+		assertEquals(4, res.failed());
+		List<ImportErrorRes> errors = res.errors().stream().sorted(Comparator.comparingLong(ImportErrorRes::line))
+				.toList();
+		assertEquals(List.of(5L, 6L, 7L, 12L), errors.stream().map(ImportErrorRes::line).toList());
+		assertTrue(errors.get(0).message().toUpperCase().contains("UK_STUDENTS_SCHOOL_EMAIL"), errors.get(0).message());
+		assertEquals("Expected 3 columns but found 2", errors.get(1).message());
+		assertEquals("name is required", errors.get(2).message());
+		assertEquals("Unterminated quoted field", errors.get(3).message());
+
+		assertEquals(List.of("Lee, Bob", "Cara \"CJ\" Jones", "Dana\nMulti"), jdbc.queryForList(
+				"select name from students where email in ('bob@i', 'cara@i', 'dana@i') order by email", String.class));
+		assertEquals("Already here", jdbc.queryForObject("select name from students where email = 'taken@i'",
+				String.class));
+		assertEquals(6, jdbc.queryForObject("select count(*) from students where school_id = 1", Long.class));
+	}
+
+	private ImportJobRes run(String kind, String content) throws InterruptedException {
+		MockMultipartFile file = new MockMultipartFile("file", kind + ".csv", "text/csv",
+				content.getBytes(StandardCharsets.UTF_8));
+		String jobId = SchoolContext.callAs(SCHOOL, () -> {
+			try {
+				return imports.start(kind, file, "csv").jobId();
+			} catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+		});
+		ImportJobRes res = SchoolContext.callAs(SCHOOL, () -> imports.status(jobId));
+		for (int i = 0; i < 200 && !res.status().equals("DONE") && !res.status().equals("FAILED"); i++) {
+			Thread.sleep(50);
+			res = SchoolContext.callAs(SCHOOL, () -> imports.status(jobId));
+		}
+		return res;
+	}
+}
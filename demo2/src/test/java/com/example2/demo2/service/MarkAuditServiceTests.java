@@ -0,0 +1,214 @@
+package com.example2.demo2.service;
+
+import com.example2.demo2.config.SchoolContext;
+import com.example2.demo2.dto.MarkUpdateReq;
+import com.example2.demo2.repo.MarkHistoryRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The timer is effectively off (one flush an hour), so entries reach the table
+// only through flush(), a full batch (3) or a full queue (5).
+@SpringBootTest(properties = { "spring.datasource.url=jdbc:h2:mem:audit;MODE=MySQL;DB_CLOSE_DELAY=-1",
+		"app.audit.mode=batched", "app.audit.batch-size=3", "app.audit.flush-interval-ms=3600000",
+		"app.audit.queue-capacity=5" })
+@AutoConfigureMockMvc
+class MarkAuditServiceTests {
+
+	private static final Long SCHOOL = 1L;
+	private static final Long TEACHER = 110L;
+	private static final Long CLASS = 100L;
+
+	@BeforeAll
+	static void setUp(@Autowired JdbcTemplate jdbc) {
+		jdbc.update("insert into classes (id, name, school_id) values (100, 'Maths', 1)");
+		jdbc.update("insert into teachers (id, email, name, password, role, class_id, school_id) "
+				+ "values (110, 't110@au', 'Teacher', 'x', 'TEACHER', 100, 1)");
+		for (long id = 120; id <= 121; id++) {
+			jdbc.update("insert into students (id, email, name, password, role, school_id) values (?, ?, ?, 'x', 'STUDENT', 1)",
+					id, "s" + id + "@au", "Student " + id);
+			jdbc.update("insert into enrollments (class_id, student_id, mark, version, school_id) values (100, ?, 'C', 0, 1)",
+					id);
+		}
+	}
+
+	@Autowired
+	private MarkAuditService audit;
+
+	@Autowired
+	private TeacherService teachers;
+
+	@Autowired
+	private MarkHistoryRepository historyRepo;
+
+	@Autowired
+	private KeysetPaging paging;
+
+	@Autowired
+	private SchoolContext schools;
+
+	@Autowired
+	private PlatformTransactionManager txManager;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Test
+	void committedMarkChangesAreWrittenOnFlush() {
+		setMark(120L, "A");
+		setMark(120L, "A"); // Unchanged: nothing to audit
+		setMark(120L, "B");
+		assertEquals(0, rows(120L)); // Queued, below a full batch
+		audit.flush();
+		assertEquals(List.of("C>A", "A>B"), changes(120L));
+		assertEquals(TEACHER, jdbc.queryForObject(
+				"select max(teacher_id) from enrollment_mark_history where student_id = 120", Long.class));
+		assertEquals(SCHOOL, jdbc.queryForObject(
+				"select max(school_id) from enrollment_mark_history where student_id = 120", Long.class));
+	}
+
+	@Test
+	void rolledBackWritesLeaveNoEntry() {
+		TransactionTemplate tx = new TransactionTemplate(txManager);
+		SchoolContext.runAs(SCHOOL, () -> tx.executeWithoutResult(s -> {
+			jdbc.update("update enrollments set mark = 'F' where class_id = 100 and student_id = 121");
+			audit.record(TEACHER, CLASS, 121L, "C", "F");
+			s.setRollbackOnly();
+		}));
+		assertThrows(RuntimeException.class, () -> SchoolContext.runAs(SCHOOL, () -> tx.executeWithoutResult(s -> {
+			audit.record(TEACHER, CLASS, 121L, "C", "E");
+			throw new IllegalStateException("write failed");
+		})));
+		audit.flush();
+		assertEquals(0, rows(121L));
+		assertEquals("C", jdbc.queryForObject(
+				"select mark from enrollments where class_id = 100 and student_id = 121", String.class));
+	}
+
+	@Test
+	void aFullBatchIsWrittenWithoutWaitingForTheTimer() throws InterruptedException {
+		for (int i = 0; i < 3; i++)
+			record(300L, "m" + i);
+		for (int i = 0; i < 100 && rows(300L) < 3; i++)
+			Thread.sleep(20);
+		assertEquals(List.of("C>m0", "C>m1", "C>m2"), changes(300L));
+	}
+
+	// With the table gone every insert fails: the batch being written (3) and the
+	// queue (5) keep what they hold, anything beyond is dropped and counted. Once
+	// the table is back the same entries go in, in order.
+	@Test
+	void failedBatchesAreRetriedAndOverflowIsDropped() {
+		audit.flush();
+		double droppedBefore = registry.counter("app.audit.dropped").count();
+		jdbc.execute("alter table enrollment_mark_history rename to enrollment_mark_history_off");
+		try {
+			for (int i = 0; i < 10; i++)
+				record(400L, "m" + i);
+			assertThrows(RuntimeException.class, () -> audit.flush());
+		} finally {
+			jdbc.execute("alter table enrollment_mark_history_off rename to enrollment_mark_history");
+		}
+		assertEquals(2, registry.counter("app.audit.dropped").count() - droppedBefore);
+		audit.flush();
+		List<String> expected = new ArrayList<>();
+		for (int i = 0; i < 8; i++)
+			expected.add("C>m" + i);
+		assertEquals(expected, changes(400L));
+	}
+
+	@Test
+	void syncModeWritesInTheMarksTransaction() {
+		MarkAuditService sync = new MarkAuditService(jdbc, historyRepo, paging, schools, new SimpleMeterRegistry(),
+				"sync", 3, 3_600_000, 5);
+		TransactionTemplate tx = new TransactionTemplate(txManager);
+		try {
+			SchoolContext.runAs(SCHOOL, () -> tx.executeWithoutResult(s -> {
+				sync.record(TEACHER, CLASS, 500L, "C", "A");
+				assertEquals(1, rows(500L)); // Inserted before the commit
+				s.setRollbackOnly();
+			}));
+			assertEquals(0, rows(500L)); // Rolled back with the mark
+			SchoolContext.runAs(SCHOOL, () -> tx.executeWithoutResult(s -> sync.record(TEACHER, CLASS, 500L, "C", "B")));
+			assertEquals(List.of("C>B"), changes(500L));
+		} finally {
+			sync.shutdown();
+		}
+	}
+
+	@Test
+	void auditIsPagedByKeysetOldestFirst() throws Exception {
+		for (int i = 0; i < 5; i++)
+			record(600L, "p" + i);
+		record(601L, "other");
+		audit.flush();
+
+		List<String> seen = new ArrayList<>();
+		String cursor = null;
+		int pages = 0;
+		do {
+			JsonNode page = getJson("/admin/audit?studentId=600&limit=2" + (cursor == null ? "" : "&cursor=" + cursor));
+			page.get("items").forEach(item -> seen.add(item.get("newMark").asText()));
+			assertTrue(page.get("items").size() <= 2);
+			cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+			pages++;
+		} while (cursor != null);
+		assertEquals(List.of("p0", "p1", "p2", "p3", "p4"), seen);
+		assertEquals(3, pages);
+
+		JsonNode byClass = getJson("/admin/audit?studentId=601&classId=100");
+		assertEquals(1, byClass.get("items").size());
+		assertEquals("other", byClass.get("items").get(0).get("newMark").asText());
+		mvc.perform(get("/admin/audit")).andExpect(status().isBadRequest());
+	}
+
+	private void setMark(Long studentId, String mark) {
+		SchoolContext.runAs(SCHOOL, () -> teachers.setMark(TEACHER, CLASS, studentId, new MarkUpdateReq(mark), null));
+	}
+
+	private void record(Long studentId, String newMark) { // No transaction: queued at once
+		SchoolContext.runAs(SCHOOL, () -> audit.record(TEACHER, CLASS, studentId, "C", newMark));
+	}
+
+	private long rows(Long studentId) {
+		return jdbc.queryForObject("select count(*) from enrollment_mark_history where student_id = ?", Long.class,
+				studentId);
+	}
+
+	private List<String> changes(Long studentId) { // "old>new" in id order
+		return jdbc.queryForList("select concat(old_mark, '>', new_mark) from enrollment_mark_history "
+				+ "where student_id = ? order by id", String.class, studentId);
+	}
+
+	private JsonNode getJson(String url) throws Exception {
+		String body = mvc.perform(get(url).header(SchoolContext.HEADER, "1"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		return new ObjectMapper().readTree(body);
+	}
+}
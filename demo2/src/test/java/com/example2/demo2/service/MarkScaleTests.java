@@ -0,0 +1,40 @@
+package com.example2.demo2.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MarkScaleTests {
+
+	@Test
+	void lettersMapToTheMiddleOfTheirBand() {
+		assertEquals(985, MarkScale.bucket("A+"));
+		assertEquals(950, MarkScale.bucket("A"));
+		assertEquals(810, MarkScale.bucket(" b- ")); // Trimmed, any case
+		assertEquals(610, MarkScale.bucket("D-"));
+		assertEquals(300, MarkScale.bucket("E"));
+		assertEquals(300, MarkScale.bucket("f"));
+	}
+
+	@Test
+	void numbersPercentagesAndFractions() {
+		assertEquals(870, MarkScale.bucket("87"));
+		assertEquals(875, MarkScale.bucket("87.5"));
+		assertEquals(875, MarkScale.bucket("87.54")); // Rounded to 0.1
+		assertEquals(876, MarkScale.bucket("87.55"));
+		assertEquals(870, MarkScale.bucket("87 %"));
+		assertEquals(840, MarkScale.bucket("42/50"));
+		assertEquals(333, MarkScale.bucket("1 / 3"));
+		assertEquals(0, MarkScale.bucket("0"));
+		assertEquals(1000, MarkScale.bucket("100"));
+		assertEquals(87.5, MarkScale.score(875));
+		assertEquals(100.0, MarkScale.score(MarkScale.BUCKETS - 1));
+	}
+
+	@Test
+	void outOfRangeAndUnrecognisedMarksAreUngraded() {
+		for (String mark : new String[] { null, "", "   ", "absent", "n/a", "G", "A++", "100.1", "-1", "101%",
+				"60/50", "5/0", "-5/-10", "/5", "NaN", "Infinity" })
+			assertEquals(MarkScale.UNGRADED, MarkScale.bucket(mark), String.valueOf(mark));
+	}
+}
@@ -0,0 +1,103 @@
+package com.example2.demo2.service;
+
+import com.example2.demo2.error.TooManyRequestsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHashingServiceTests {
+
+	private final SlowEncoder encoder = new SlowEncoder();
+	private final PasswordHashingService hashing = new PasswordHashingService(encoder, 2, 1);
+
+	@AfterEach
+	void tearDown() {
+		hashing.shutdown();
+	}
+
+	@Test
+	void bulkHashingKeepsOrderAndNeverUsesMoreThanEveryThread() {
+		List<String> raw = new ArrayList<>();
+		for (int i = 0; i < 20; i++)
+			raw.add(i == 7 ? null : "pw" + i);
+		List<String> hashes = hashing.encodeAll(raw);
+		for (int i = 0; i < 20; i++)
+			assertEquals(i == 7 ? null : "h:pw" + i, hashes.get(i));
+		assertEquals(2, encoder.peak.get());
+	}
+
+	// An import keeps both workers busy for the whole batch; logins still get
+	// their own slots and only queue behind the hashes already running.
+	@Test
+	void loginIsNotRefusedWhileAnImportSaturatesThePool() throws Exception {
+		List<String> raw = new ArrayList<>();
+		for (int i = 0; i < 200; i++)
+			raw.add("pw" + i);
+		CompletableFuture<List<String>> bulk = CompletableFuture.supplyAsync(() -> hashing.encodeAll(raw));
+		while (encoder.running.get() < 2)
+			Thread.sleep(1);
+
+		for (int i = 0; i < 5; i++) {
+			assertTrue(hashing.matches("secret", "h:secret"));
+			assertFalse(hashing.matches("wrong", "h:secret"));
+		}
+		assertFalse(bulk.isDone()); // Logins were checked while the import was still hashing
+		assertEquals(200, bulk.get().size());
+	}
+
+	@Test
+	void interactiveCallersGet429WhenTheirSlotsAreTaken() throws Exception {
+		encoder.gate = new CountDownLatch(1); // Hashes hold their worker until released
+		List<CompletableFuture<Boolean>> pending = new ArrayList<>();
+		for (int i = 0; i < 3; i++) // Two workers + a queue of one
+			pending.add(CompletableFuture.supplyAsync(() -> hashing.matches("a", "h:a")));
+		while (encoder.running.get() < 2)
+			Thread.sleep(1);
+		Thread.sleep(50); // Let the third caller take the queue slot
+		assertThrows(TooManyRequestsException.class, () -> hashing.matches("a", "h:a"));
+		encoder.gate.countDown();
+		for (CompletableFuture<Boolean> f : pending)
+			assertTrue(f.get());
+	}
+
+	private static class SlowEncoder implements PasswordEncoder { // Stands in for BCrypt: ~10 ms per call
+		final AtomicInteger running = new AtomicInteger();
+		final AtomicInteger peak = new AtomicInteger();
+		volatile CountDownLatch gate = new CountDownLatch(0); // Open unless a test closes it
+
+		@Override
+		public String encode(CharSequence raw) {
+			work();
+			return "h:" + raw;
+		}
+
+		@Override
+		public boolean matches(CharSequence raw, String encoded) {
+			work();
+			return encoded.equals("h:" + raw);
+		}
+
+		private void work() {
+			peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+			try {
+				gate.await();
+				Thread.sleep(10);
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			} finally {
+				running.decrementAndGet();
+			}
+		}
+	}
+}
@@ -0,0 +1,97 @@
+package com.example2.demo2.service;
+
+import com.example2.demo2.config.SchoolContext;
+import com.example2.demo2.dto.ReportJobRes;
+import com.example2.demo2.error.TooManyRequestsException;
+import com.example2.demo2.repo.StudentRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+
+// Two job slots and one worker. Jobs are held at their start (the student count)
+// until the test lets them go, so "queued" and "running" are not a matter of timing.
+@SpringBootTest(properties = { "spring.datasource.url=jdbc:h2:mem:reports;MODE=MySQL;DB_CLOSE_DELAY=-1",
+		"app.reports.retained-jobs=2", "app.reports.concurrent-jobs=1" })
+class ReportServiceTests {
+
+	private static final Long SCHOOL = 1L;
+
+	@BeforeAll
+	static void setUp(@Autowired JdbcTemplate jdbc) {
+		jdbc.update("insert into students (id, email, name, password, role, school_id) "
+				+ "values (30, 's30@r', 'Ann', 'x', 'STUDENT', 1)");
+	}
+
+	@Autowired
+	private ReportService reports;
+
+	@SpyBean
+	private StudentRepository studentRepo;
+
+	@Test
+	void onlyFinishedJobsArePushedOutAndActiveOnesAreNeverDropped() throws Exception {
+		CountDownLatch gate = new CountDownLatch(1);
+		doAnswer(inv -> {
+			gate.await();
+			return real(inv);
+		}).when(studentRepo).count();
+
+		String running = start("Term 1");
+		String queued = start("Term 2");
+		assertThrows(TooManyRequestsException.class, () -> start("Term 3")); // Both slots still active
+		assertEquals("QUEUED", status(queued).status());
+
+		gate.countDown();
+		assertEquals("DONE", await(running).status());
+		assertEquals("DONE", await(queued).status());
+		Path oldest = SchoolContext.callAs(SCHOOL, () -> reports.file(running));
+		Path newer = SchoolContext.callAs(SCHOOL, () -> reports.file(queued));
+
+		String third = start("Term 3"); // Pushes out the oldest finished job and its ZIP
+		assertThrows(NoSuchElementException.class, () -> status(running));
+		assertFalse(Files.exists(oldest));
+		assertTrue(Files.exists(newer));
+		assertEquals("DONE", await(third).status());
+
+		SchoolContext.callAs(SCHOOL, () -> reports.cancel(queued)); // Discarding a finished job frees its slot
+		assertFalse(Files.exists(newer));
+		assertEquals("DONE", await(start("Term 4")).status());
+	}
+
+	private Object real(InvocationOnMock inv) throws Throwable { // Spied repository proxies delegate by default answer
+		return mockingDetails(studentRepo).getMockCreationSettings().getDefaultAnswer().answer(inv);
+	}
+
+	private String start(String term) {
+		return SchoolContext.callAs(SCHOOL, () -> reports.start(term)).jobId();
+	}
+
+	private ReportJobRes status(String jobId) {
+		return SchoolContext.callAs(SCHOOL, () -> reports.status(jobId));
+	}
+
+	private ReportJobRes await(String jobId) throws InterruptedException {
+		ReportJobRes res = status(jobId);
+		for (int i = 0; i < 200 && (res.status().equals("QUEUED") || res.status().equals("RUNNING")); i++) {
+			Thread.sleep(50);
+			res = status(jobId);
+		}
+		return res;
+	}
+}
@@ -0,0 +1,186 @@
+package com.example2.demo2.service;
+
+import com.example2.demo2.service.SearchIndex.Doc;
+import com.example2.demo2.service.SearchIndex.Hit;
+import com.example2.demo2.service.SearchIndex.Kind;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchIndexTests {
+
+	private static final Set<Kind> ALL = EnumSet.allOf(Kind.class);
+
+	@Test
+	void tokensMatchTermsExactlyOrAsPrefix() {
+		SearchIndex index = loaded(student(1, "Alice Johnson"), student(2, "Alicia Keys"), student(3, "Bob Stone"));
+		assertEquals(List.of("2:2", "1:2"), hits(index, "ali")); // Same score: shorter name first
+		assertEquals(List.of("1:3", "2:1"), hits(index, "alice")); // "alici" is one typo away
+		assertEquals(List.of("1:4"), hits(index, "ali johns")); // Every token must match; scores add up
+		assertEquals(List.of("3:6"), hits(index, "s3@school")); // Emails are indexed too ("s3", "school")
+		assertEquals(List.of(), hits(index, "ali bob"));
+		assertEquals(List.of(), hits(index, " -- "));
+	}
+
+	// Tokens of 1-3 characters only match exactly or as a prefix: with so few
+	// characters a typo would match almost everything. 4-7 characters allow one
+	// edit, 8 or more two; a swap of neighbours counts as one.
+	@Test
+	void typosAreToleratedOnlyInLongerTokens() {
+		assertEquals(0, SearchIndex.maxEdits(3));
+		assertEquals(1, SearchIndex.maxEdits(4));
+		assertEquals(1, SearchIndex.maxEdits(7));
+		assertEquals(2, SearchIndex.maxEdits(8));
+
+		SearchIndex index = loaded(student(1, "Jon Smith"), student(2, "Rob Williams"));
+		assertEquals(List.of(), hits(index, "jom"));
+		assertEquals(List.of(), hits(index, "bob"));
+		assertEquals(List.of("1:2"), hits(index, "jo"));
+		assertEquals(List.of("1:1"), hits(index, "smiht")); // Swapped neighbours
+		assertEquals(List.of("1:1"), hits(index, "smitj")); // Substitution
+		assertEquals(List.of(), hits(index, "smoht")); // Two edits in a 5-character token
+		assertEquals(List.of(), hits(index, "wxlliaz")); // Two edits in a 7-character token
+		assertEquals(List.of("2:1"), hits(index, "wxlliamz")); // Two edits in an 8-character token
+	}
+
+	@Test
+	void hitsAreRankedByScoreThenShorterNameThenId() {
+		SearchIndex index = loaded(student(5, "Ann Lee"), student(2, "Anna Smith"), teacher(9, "Ann"),
+				student(4, "Ann Roe"), classroom(1, "Annex lab"));
+		assertEquals(List.of("9:3", "4:3", "5:3", "1:2", "2:2"), hits(index, "ann"));
+		assertEquals(List.of("9:3", "4:3"), hits(index, "ann", ALL, 2));
+		assertEquals(List.of("5:6"), hits(index, "lee ann"));
+		assertEquals(List.of("1:2"), hits(index, "ann", EnumSet.of(Kind.CLASS), 10));
+	}
+
+	@Test
+	void writesAreSearchableBeforeAndAfterTheSegmentIsRebuilt() {
+		SearchIndex index = loaded(student(1, "Alice Johnson"), classroom(1, "Algebra"));
+		index.put(student(2, "Alfred Hitch")); // Created
+		index.put(student(1, "Alice Brown")); // Renamed: base copy is hidden
+		assertEquals(List.of("1:2", "2:2"), hits(index, "al", EnumSet.of(Kind.STUDENT), 10));
+		assertEquals(List.of(), hits(index, "johnson"));
+		assertEquals(List.of("1:3"), hits(index, "brown"));
+
+		index.remove(Kind.STUDENT, List.of(2L)); // Deleted from the delta
+		index.remove(Kind.CLASS, List.of(1L)); // Deleted from the base
+		assertEquals(List.of("1:2"), hits(index, "al"));
+
+		for (int i = 100; i < 1200; i++) // Enough writes to fold the delta into a new segment
+			index.put(student(i, "Bulk " + i));
+		assertEquals(List.of("1:2"), hits(index, "al"));
+		assertEquals(List.of("1150:6"), hits(index, "bulk 1150", ALL, 1)); // Then fuzzy hits like "110"
+		index.put(student(1150, "Renamed"));
+		index.remove(Kind.STUDENT, List.of(1L));
+		assertTrue(hits(index, "bulk 1150").stream().noneMatch(h -> h.startsWith("1150:")));
+		assertEquals(List.of(), hits(index, "al"));
+		assertEquals(List.of("1150:3"), hits(index, "renamed"));
+	}
+
+	@Test
+	void writesDuringTheInitialLoadWinOverTheRowsRead() {
+		SearchIndex index = new SearchIndex();
+		index.put(student(1, "Alice Brown")); // Committed while the load was reading
+		index.remove(Kind.STUDENT, List.of(2L));
+		index.loadIfNeeded(() -> List.of(student(1, "Alice Johnson"), student(2, "Alfred Hitch"),
+				student(3, "Alma Lee")));
+		assertEquals(List.of("3:2", "1:2"), hits(index, "al"));
+		assertEquals(List.of(), hits(index, "johnson"));
+	}
+
+	// Random names over a small alphabet produce plenty of exact, prefix and fuzzy
+	// matches; the segment walk (with its early exits) and the delta scan must both
+	// agree with scoring every document by hand.
+	@Test
+	void matchesABruteForceScan() {
+		Random random = new Random(42);
+		List<Doc> docs = new ArrayList<>();
+		for (int id = 1; id <= 600; id++)
+			docs.add(new Doc(Kind.values()[id % 3], id, word(random) + " " + word(random),
+					id % 3 == 2 ? null : word(random) + "@x"));
+		SearchIndex base = loaded(docs.toArray(Doc[]::new));
+		SearchIndex delta = loaded();
+		docs.forEach(delta::put); // Stays below the rebuild threshold
+		for (int q = 0; q < 400; q++) {
+			String query = random.nextInt(4) == 0 ? word(random) + " " + word(random).substring(0, 2) : word(random);
+			if (random.nextBoolean())
+				query = query.substring(0, 1 + random.nextInt(query.length()));
+			int limit = 1 + random.nextInt(15);
+			List<String> expected = bruteForce(docs, query, limit);
+			assertEquals(expected, hits(base, query, ALL, limit), query);
+			assertEquals(expected, hits(delta, query, ALL, limit), query);
+		}
+	}
+
+	private static List<String> bruteForce(List<Doc> docs, String query, int limit) {
+		List<String> tokens = new ArrayList<>(new LinkedHashSet<>(SearchIndex.tokenize(query)));
+		List<Hit> hits = new ArrayList<>();
+		for (Doc d : docs) {
+			int total = 0;
+			for (String token : tokens) {
+				int best = 0;
+				for (String term : SearchIndex.tokenize(d.name(), d.email()))
+					best = Math.max(best, SearchIndex.score(token, term));
+				if (best == 0) {
+					total = 0;
+					break;
+				}
+				total += best;
+			}
+			if (total > 0)
+				hits.add(new Hit(d, total));
+		}
+		hits.sort(Comparator.comparingInt(Hit::score).reversed()
+				.thenComparingInt(h -> h.doc().name().length())
+				.thenComparingLong(h -> h.doc().key()));
+		return hits.stream().limit(limit).map(SearchIndexTests::format).toList();
+	}
+
+	private static String word(Random random) { // 2-9 letters from "abcde"
+		StringBuilder sb = new StringBuilder();
+		for (int i = 2 + random.nextInt(8); i > 0; i--)
+			sb.append((char) ('a' + random.nextInt(5)));
+		return sb.toString();
+	}
+
+	private static SearchIndex loaded(Doc... docs) {
+		SearchIndex index = new SearchIndex();
+		index.loadIfNeeded(() -> List.of(docs));
+		return index;
+	}
+
+	private static List<String> hits(SearchIndex index, String query) {
+		return hits(index, query, ALL, 10);
+	}
+
+	private static List<String> hits(SearchIndex index, String query, Set<Kind> kinds, int limit) {
+		List<Hit> hits = index.search(query, kinds, limit);
+		assertTrue(hits.size() <= limit);
+		return hits.stream().map(SearchIndexTests::format).toList();
+	}
+
+	private static String format(Hit h) { // "id:score"
+		return h.doc().id() + ":" + h.score();
+	}
+
+	private static Doc student(long id, String name) {
+		return new Doc(Kind.STUDENT, id, name, "s" + id + "@school");
+	}
+
+	private static Doc teacher(long id, String name) {
+		return new Doc(Kind.TEACHER, id, name, "t" + id + "@school");
+	}
+
+	private static Doc classroom(long id, String name) {
+		return new Doc(Kind.CLASS, id, name, null);
+	}
+}
@@ -0,0 +1,66 @@
+package com.example2.demo2.service;
+
+import com.example2.demo2.config.SchoolContext;
+import com.example2.demo2.dto.CreateClassroomReq;
+import com.example2.demo2.dto.CreateStudentReq;
+import com.example2.demo2.dto.SearchHitRes;
+import com.example2.demo2.dto.UpdateStudentReq;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Each school searches its own index; AdminService's writes reach the index of
+// the school that made them, once they commit.
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:search;MODE=MySQL;DB_CLOSE_DELAY=-1")
+class SearchServiceTests {
+
+	private static final Long A = 1L;
+	private static final Long B = 2L;
+
+	@BeforeAll
+	static void setUp(@Autowired JdbcTemplate jdbc) {
+		jdbc.update("insert into students (id, email, name, password, role, school_id) values "
+				+ "(300, 'zelda@a', 'Zelda Ash', 'x', 'STUDENT', 1), (400, 'zelda@b', 'Zelda Birch', 'x', 'STUDENT', 2)");
+	}
+
+	@Autowired
+	private SearchService search;
+
+	@Autowired
+	private AdminService admin;
+
+	@Test
+	void schoolsOnlyFindTheirOwnRowsAndWrites() {
+		assertEquals(List.of("student 300"), find(A, "zelda"));
+		assertEquals(List.of("student 400"), find(B, "zeld"));
+
+		Long created = SchoolContext.callAs(A, () -> admin.createStudent(new CreateStudentReq("Zelda Cole", "zc@a", "pw"))).id();
+		Long zoo = SchoolContext.callAs(A, () -> admin.createClass(new CreateClassroomReq("Zoology"))).id();
+		assertEquals(List.of("student 300", "student " + created), find(A, "zelda"));
+		assertEquals(List.of("class " + zoo), find(A, "zoo"));
+		assertEquals(List.of("student 400"), find(B, "zelda"));
+		assertEquals(List.of(), find(B, "zoo"));
+
+		SchoolContext.runAs(A, () -> admin.updateStudent(300L, new UpdateStudentReq("Yara Ash", "yara@a")));
+		assertEquals(List.of("student " + created), find(A, "zelda"));
+		assertEquals(List.of("student 300"), find(A, "yara"));
+
+		SchoolContext.runAs(A, () -> admin.deleteStudent(created));
+		SchoolContext.runAs(A, () -> admin.deleteClass(zoo));
+		assertEquals(List.of(), find(A, "zelda"));
+		assertEquals(List.of(), find(A, "zoo"));
+		assertEquals(List.of("student 400"), find(B, "zelda"));
+	}
+
+	private List<String> find(Long school, String q) {
+		return SchoolContext.callAs(school, () -> search.search(q, null, 10)).stream()
+				.map((SearchHitRes h) -> h.type() + " " + h.id())
+				.toList();
+	}
+}
@@ -0,0 +1,150 @@
+package com.example2.demo2.service;
+
+import com.example2.demo2.config.SchoolContext;
+import com.example2.demo2.dto.EnrollmentRes;
+import com.example2.demo2.dto.MarkEntryReq;
+import com.example2.demo2.dto.MarkResultRes;
+import com.example2.demo2.dto.MarkUpdateReq;
+import com.example2.demo2.error.ConflictException;
+import com.example2.demo2.error.PreconditionFailedException;
+import com.example2.demo2.repo.EnrollmentRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+// Lost races are staged by bumping a row's version from inside the attempt,
+// between the service's read and its write, as a concurrent writer would.
+@SpringBootTest(properties = { "spring.datasource.url=jdbc:h2:mem:marks;MODE=MySQL;DB_CLOSE_DELAY=-1",
+		"app.marks.max-attempts=2" })
+class TeacherServiceTests {
+
+	private static final Long SCHOOL = 1L;
+	private static final Long TEACHER = 110L;
+	private static final Long CLASS = 100L;
+
+	@BeforeAll
+	static void setUp(@Autowired JdbcTemplate jdbc) {
+		jdbc.update("insert into classes (id, name, school_id) values (100, 'Maths', 1)");
+		jdbc.update("insert into teachers (id, email, name, password, role, class_id, school_id) "
+				+ "values (110, 't110@m', 'Teacher', 'x', 'TEACHER', 100, 1)");
+		for (long id = 120; id <= 126; id++) {
+			jdbc.update("insert into students (id, email, name, password, role, school_id) values (?, ?, ?, 'x', 'STUDENT', 1)",
+					id, "s" + id + "@m", "Student " + id);
+			jdbc.update("insert into enrollments (class_id, student_id, mark, version, school_id) values (100, ?, 'C', 0, 1)",
+					id);
+		}
+	}
+
+	@Autowired
+	private TeacherService teachers;
+
+	@SpyBean
+	private EnrollmentRepository enrollRepo;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Test
+	void markWriteThatLosesARaceIsRetriedOnAFreshRead() {
+		doAnswer(inv -> {
+			bump(120L);
+			return real(inv);
+		}).doAnswer(this::real).when(enrollRepo).updateMarkIfVersion(any(), any(), any(), any());
+
+		EnrollmentRes res = setMark(120L, "A", null);
+		assertEquals(new EnrollmentRes(120L, CLASS, "A", 2L), res); // Our write follows the other one
+		assertEquals("A", mark(120L));
+		verify(enrollRepo, times(2)).updateMarkIfVersion(any(), any(), any(), any());
+	}
+
+	@Test
+	void markWriteGivesUpWith409AfterMaxAttempts() {
+		doAnswer(inv -> {
+			bump(121L);
+			return real(inv);
+		}).when(enrollRepo).updateMarkIfVersion(any(), any(), any(), any());
+
+		assertThrows(ConflictException.class, () -> setMark(121L, "A", null));
+		assertEquals("C", mark(121L));
+		verify(enrollRepo, times(2)).updateMarkIfVersion(any(), any(), any(), any());
+	}
+
+	@Test
+	void staleIfMatchFailsWith412() {
+		assertThrows(PreconditionFailedException.class, () -> setMark(122L, "A", 5L)); // Never had that version
+		assertEquals(new EnrollmentRes(122L, CLASS, "B", 1L), setMark(122L, "B", 0L));
+		assertThrows(PreconditionFailedException.class, () -> setMark(122L, "A", 0L)); // Edited an older copy
+		assertEquals("B", mark(122L));
+
+		doAnswer(inv -> { // Matches the read, loses the compare-and-set: no retry with If-Match
+			bump(123L);
+			return real(inv);
+		}).when(enrollRepo).updateMarkIfVersion(any(), any(), any(), any());
+		assertThrows(PreconditionFailedException.class, () -> setMark(123L, "A", 0L));
+		verify(enrollRepo, times(1)).updateMarkIfVersion(any(), eq(123L), any(), any());
+		assertEquals("C", mark(123L));
+	}
+
+	@Test
+	void batchThatLosesARaceIsRerunOnFreshRows() {
+		doAnswer(inv -> {
+			Object rows = real(inv); // Loaded at version 0...
+			bump(124L); // ...then changed before our commit
+			return rows;
+		}).doAnswer(this::real).when(enrollRepo).findByClassIdAndStudentIds(any(), any());
+
+		List<MarkResultRes> results = SchoolContext.callAs(SCHOOL, () -> teachers.setMarks(TEACHER, CLASS,
+				List.of(new MarkEntryReq(124L, "A"), new MarkEntryReq(125L, "B"))));
+		assertEquals(List.of(new MarkResultRes(124L, true, null), new MarkResultRes(125L, true, null)), results);
+		assertEquals("A", mark(124L));
+		assertEquals("B", mark(125L));
+		verify(enrollRepo, times(2)).findByClassIdAndStudentIds(any(), any());
+	}
+
+	@Test
+	void batchGivesUpWith409AfterMaxAttempts() {
+		doAnswer(inv -> {
+			Object rows = real(inv);
+			bump(126L);
+			return rows;
+		}).when(enrollRepo).findByClassIdAndStudentIds(any(), any());
+
+		assertThrows(ConflictException.class, () -> SchoolContext.runAs(SCHOOL,
+				() -> teachers.setMarks(TEACHER, CLASS, List.of(new MarkEntryReq(126L, "A")))));
+		assertEquals("C", mark(126L)); // Every attempt rolled back
+		verify(enrollRepo, times(2)).findByClassIdAndStudentIds(any(), any());
+	}
+
+	private Object real(InvocationOnMock inv) throws Throwable { // Spied repository proxies delegate by default answer
+		return mockingDetails(enrollRepo).getMockCreationSettings().getDefaultAnswer().answer(inv);
+	}
+
+	private EnrollmentRes setMark(Long studentId, String mark, Long ifMatch) {
+		return SchoolContext.callAs(SCHOOL,
+				() -> teachers.setMark(TEACHER, CLASS, studentId, new MarkUpdateReq(mark), ifMatch));
+	}
+
+	private void bump(Long studentId) { // Stands in for another writer's commit (runs in the attempt's transaction)
+		jdbc.update("update enrollments set version = version + 1 where class_id = 100 and student_id = ?", studentId);
+	}
+
+	private String mark(Long studentId) {
+		return jdbc.queryForObject("select mark from enrollments where class_id = 100 and student_id = ?", String.class,
+				studentId);
+	}
+}
@@ -1,4 +1,5 @@
 import axios from "axios";
+import { getAuth, clearAuth } from "./utils/auth";
 
 // With setupProxy, call relative paths like "/admin/classes"
 const api = axios.create({
@@ -6,4 +7,20 @@ const api = axios.create({
   headers: { "Content-Type": "application/json", Accept: "application/json" },
 });
 
+// Login token on every request; /students/{id} and /teachers/{id} reject calls without it
+api.interceptors.request.use((config) => {
+  const token = getAuth()?.token;
+  if (token) config.headers.Authorization = `Bearer ${token}`;
+  return config;
+});
+
+// Expired or revoked token: back to the login page
+api.interceptors.response.use(undefined, (err) => {
+  if (err?.response?.status === 401 && !err.config?.url?.startsWith("/auth/")) {
+    clearAuth();
+    window.location.assign("/");
+  }
+  return Promise.reject(err);
+});
+
 export default api;
@@ -87,7 +87,7 @@ export default function AdminEditUser() {
 
     // Set of classIds the student is already enrolled in (for filtering the "add" dropdown)
     const enrolledIds = useMemo(
-        () => new Set(enrollments.map(e => e.id.classId)),
+        () => new Set(enrollments.map(e => e.classId)),
         [enrollments]
     );
 
@@ -111,7 +111,7 @@ export default function AdminEditUser() {
         await api.post("/admin/enrollments", payload);
         setEnrollments(prev => [
             ...prev,
-            { id: { studentId: Number(id), classId: Number(addClassId) }, mark: null },
+            { classId: Number(addClassId), mark: null },
         ]);
         setAddClassId("");
     };
@@ -119,7 +119,7 @@ export default function AdminEditUser() {
     // Remove enrollment via admin API and update UI
     const removeEnrollment = async (cid) => {
         await api.delete(`/admin/enrollments/${id}/${cid}`);
-        setEnrollments(prev => prev.filter(e => e.id.classId !== cid));
+        setEnrollments(prev => prev.filter(e => e.classId !== cid));
     };
 
     // Page title differs by role
@@ -219,9 +219,9 @@ export default function AdminEditUser() {
                                     <tr><td colSpan={3} style={{ color: "#6b7280" }}>No enrollments</td></tr>
                                 )}
                                 {enrollments.map(e => {
-                                    const cid = e.id.classId;
+                                    const cid = e.classId;
                                     return (
-                                        <tr key={`${e.id.studentId}-${cid}`}>
+                                        <tr key={cid}>
                                             <td>{classNameById[cid] || `Class #${cid}`}</td>
                                             <td>{e.mark ?? "(none)"}</td>
                                             <td>
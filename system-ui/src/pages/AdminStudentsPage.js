@@ -1,5 +1,5 @@
 // React + hooks
-import React, { useEffect, useMemo, useState } from "react";
+import React, { useEffect, useState } from "react";
 // Router helpers
 import { Link, useNavigate } from "react-router-dom";
 // Axios instance
@@ -10,32 +10,48 @@ import "../styles/dashboard.css";
 import { clearAuth } from "../utils/auth";
 
 export default function AdminStudentsPage() {
-    // All students fetched from server
-    const [items, setItems] = useState([]);
+    // Students on the current page (fetched one page at a time)
+    const [view, setView] = useState([]);
+    // Cursor stack: cursors[i] is the token that loads page i + 1 (page 1 = no cursor)
+    const [cursors, setCursors] = useState([null]);
+    // Cursor for the page after this one (null on the last page)
+    const [nextCursor, setNextCursor] = useState(null);
     // Current page and page size for pagination
     const [page, setPage] = useState(1);
     const [pageSize, setPageSize] = useState(10);
+    // Search text (matches names and emails server-side, typos tolerated)
+    const [query, setQuery] = useState("");
     // Navigate helper
     const nav = useNavigate();
 
-    // Load students on mount
+    // Load the current page whenever page, size or filter changes
     useEffect(() => {
-        api.get("/admin/students")
-            .then(r => setItems(r.data || []))
+        if (query.trim()) {
+            // Searching: best matches first, no paging
+            api.get("/admin/search", { params: { q: query.trim(), type: "student", limit: 50 } })
+                .then(r => { setView(r.data || []); setNextCursor(null); })
+                .catch(console.error);
+            return;
+        }
+        api.get("/admin/students/page", {
+            params: { cursor: cursors[page - 1] || undefined, limit: pageSize },
+        })
+            .then(r => {
+                setView(r.data?.items || []);
+                setNextCursor(r.data?.nextCursor || null);
+            })
             .catch(console.error);
-    }, []);
+    }, [cursors, page, pageSize, query]);
 
-    // Compute the total pages based on the current list and page size
-    const totalPages = Math.max(1, Math.ceil(items.length / pageSize));
+    // Move forward one page, remembering the cursor so Prev can come back
+    const next = () => {
+        if (!nextCursor) return;
+        setCursors(cs => [...cs.slice(0, page), nextCursor]);
+        setPage(p => p + 1);
+    };
 
-    // Clamp page number if data/pageSize change and the page is now too large
-    useEffect(() => { if (page > totalPages) setPage(totalPages); }, [totalPages, page]);
-
-    // Slice out the visible rows for the current page
-    const view = useMemo(() => {
-        const start = (page - 1) * pageSize;
-        return items.slice(start, start + pageSize);
-    }, [items, page, pageSize]);
+    // Start over from the first page (after changing size or filter)
+    const reset = () => { setCursors([null]); setPage(1); };
 
     // Log out and return to login
     const signOut = () => { clearAuth(); nav("/", { replace: true }); };
@@ -57,11 +73,17 @@ export default function AdminStudentsPage() {
                     <div className="row" style={{ justifyContent: "space-between", alignItems: "center" }}>
                         <h2 style={{ margin: 0 }}>All Students</h2>
                         <div className="row">
+                            <input
+                                className="input"
+                                placeholder="Search by name or email…"
+                                value={query}
+                                onChange={e => { reset(); setQuery(e.target.value); }}
+                            />
                             <span style={{ alignSelf: "center", marginRight: 6 }}>Per page:</span>
                             <select
                                 className="input"
                                 value={pageSize}
-                                onChange={e => { setPage(1); setPageSize(Number(e.target.value)); }}
+                                onChange={e => { reset(); setPageSize(Number(e.target.value)); }}
                             >
                                 {[5, 10, 20, 50, 100].map(n => <option key={n} value={n}>{n}</option>)}
                             </select>
@@ -80,12 +102,12 @@ export default function AdminStudentsPage() {
                         ))}
                     </ul>
 
-                    {/* Pager buttons */}
-                    <div className="pager">
+                    {/* Pager buttons (not while searching) */}
+                    {!query.trim() && <div className="pager">
                         <button className="btn" disabled={page <= 1} onClick={() => setPage(p => Math.max(1, p - 1))}>Prev</button>
-                        <span>Page {page} / {totalPages}</span>
-                        <button className="btn" disabled={page >= totalPages} onClick={() => setPage(p => Math.min(totalPages, p + 1))}>Next</button>
-                    </div>
+                        <span>Page {page}</span>
+                        <button className="btn" disabled={!nextCursor} onClick={next}>Next</button>
+                    </div>}
                 </section>
             </main>
         </div>
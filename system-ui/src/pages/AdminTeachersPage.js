@@ -1,28 +1,42 @@
-import React, { useEffect, useMemo, useState } from "react"; // React and hooks for state, effects, and memoized values
+import React, { useEffect, useState } from "react";         // React and hooks for state and effects
 import { Link, useNavigate } from "react-router-dom";         // Router: link component and programmatic navigation
 import api from "../api";                                     // Preconfigured Axios instance
 import "../styles/dashboard.css";                             // Shared dashboard styles
 import { clearAuth } from "../utils/auth";                    // Helper to clear local auth/session
 
 export default function AdminTeachersPage() {                 // Page component for paginated teacher list
-    const [items, setItems] = useState([]);                   // All teachers fetched from API
+    const [view, setView] = useState([]);                     // Teachers on the current page
+    const [cursors, setCursors] = useState([null]);           // cursors[i] loads page i + 1 (page 1 = no cursor)
+    const [nextCursor, setNextCursor] = useState(null);       // Token for the following page (null = last page)
     const [page, setPage] = useState(1);                      // Current page (1-based)
     const [pageSize, setPageSize] = useState(10);             // Rows per page
+    const [query, setQuery] = useState("");                   // Search text (names/emails, typos tolerated)
     const nav = useNavigate();                                // Navigation helper
 
-    useEffect(() => {                                         // On mount, fetch teachers
-        api.get("/admin/teachers")
-            .then(r => setItems(r.data || []))                 // Store returned list (fallback to [])
+    useEffect(() => {                                         // Fetch the current page from the API
+        if (query.trim()) {                                   // Searching: best matches first, no paging
+            api.get("/admin/search", { params: { q: query.trim(), type: "teacher", limit: 50 } })
+                .then(r => { setView(r.data || []); setNextCursor(null); })
+                .catch(console.error);
+            return;
+        }
+        api.get("/admin/teachers/page", {
+            params: { cursor: cursors[page - 1] || undefined, limit: pageSize },
+        })
+            .then(r => {
+                setView(r.data?.items || []);                  // Store returned page (fallback to [])
+                setNextCursor(r.data?.nextCursor || null);     // Remember where the next page starts
+            })
             .catch(console.error);                             // Log any failures
-    }, []);                                                   // Run once
+    }, [cursors, page, pageSize, query]);                     // Re-run when paging/filter changes
 
-    const totalPages = Math.max(1, Math.ceil(items.length / pageSize)); // Derived total page count (≥1)
-    useEffect(() => { if (page > totalPages) setPage(totalPages); }, [totalPages, page]); // Clamp page if data/pageSize changes
+    const next = () => {                                      // Advance one page, keeping the cursor for Prev
+        if (!nextCursor) return;
+        setCursors(cs => [...cs.slice(0, page), nextCursor]);
+        setPage(p => p + 1);
+    };
 
-    const view = useMemo(() => {                              // Slice visible items for current page
-        const start = (page - 1) * pageSize;                  // Start index for page
-        return items.slice(start, start + pageSize);          // Return page slice
-    }, [items, page, pageSize]);
+    const reset = () => { setCursors([null]); setPage(1); };  // Back to first page after size/filter change
 
     const signOut = () => { clearAuth(); nav("/", { replace: true }); }; // Clear auth and go back to login
 
@@ -40,12 +54,18 @@ export default function AdminTeachersPage() {                 // Page component
                 <section className="card">                    {/* Card with shadow */}
                     <div className="row" style={{ justifyContent: "space-between", alignItems: "center" }}>
                         <h2 style={{ margin: 0 }}>All Teachers</h2>             {/* Section heading */}
-                        <div className="row">                                   {/* Page-size control */}
+                        <div className="row">                                   {/* Search + page-size control */}
+                            <input
+                                className="input"
+                                placeholder="Search by name or email…"
+                                value={query}
+                                onChange={e => { reset(); setQuery(e.target.value); }} // New filter → page 1
+                            />
                             <span style={{ alignSelf: "center", marginRight: 6 }}>Per page:</span>
                             <select
                                 className="input"
                                 value={pageSize}
-                                onChange={e => { setPage(1); setPageSize(Number(e.target.value)); }} // Change size & reset to page 1
+                                onChange={e => { reset(); setPageSize(Number(e.target.value)); }} // Change size & reset to page 1
                             >
                                 {[5, 10, 20, 50, 100].map(n => <option key={n} value={n}>{n}</option>)} 
                                 {/* Options*/}
@@ -68,7 +88,7 @@ export default function AdminTeachersPage() {                 // Page component
                         ))}
                     </ul>
 
-                    <div className="pager">                                          {/* Pagination controls */}
+                    {!query.trim() && <div className="pager">                        {/* Pagination controls (not while searching) */}
                         <button
                             className="btn"
                             disabled={page <= 1}
@@ -76,15 +96,15 @@ export default function AdminTeachersPage() {                 // Page component
                         >
                             Prev
                         </button>
-                        <span>Page {page} / {totalPages}</span>                       {/* Current page indicator */}
+                        <span>Page {page}</span>                                      {/* Current page indicator */}
                         <button
                             className="btn"
-                            disabled={page >= totalPages}
-                            onClick={() => setPage(p => Math.min(totalPages, p + 1))} // Next page
+                            disabled={!nextCursor}
+                            onClick={next}                                           // Next page
                         >
                             Next
                         </button>
-                    </div>
+                    </div>}
                 </section>
             </main>
         </div>
@@ -6,7 +6,7 @@ import { setAuth } from "../utils/auth";                         // Persist auth
 
 export default function Login() {                                // Login page component
   const [email, setEmail] = useState("");                        // Controlled email input
-  const [password, setPassword] = useState("");   // not used yet (stub) // Password (unused with stub)
+  const [password, setPassword] = useState("");                  // Controlled password input
   const [loading, setLoading] = useState(false);                 // Submit button loading state
   const [errMsg, setErrMsg] = useState("");                      // Error message banner
 
@@ -19,38 +19,28 @@ export default function Login() {                                // Login page c
     setErrMsg("");                                               // Clear prior errors
     setLoading(true);                                            // Show loading
 
-    const emailTrim = email.trim().toLowerCase();                // Normalize for matching
-
     try {
-      // Until real auth exists, infer role by checking existing users.    // Stub logic for demo
-      const [teachersRes, studentsRes] = await Promise.all([
-        api.get("/admin/teachers"),                              // Fetch teachers
-        api.get("/admin/students"),                              // Fetch students
-      ]);
-
-      const teachers = teachersRes.data || [];                   // Safe arrays
-      const students = studentsRes.data || [];
+      // Server resolves the account by email and checks the password hash   // One small request, no user lists
+      const { data } = await api.post("/auth/login", {
+        email: email.trim(),
+        password,
+      });
 
-      const teacher = teachers.find(t => (t.email || "").toLowerCase() === emailTrim); // Match teacher by email
-      if (teacher) {                                             // If found, set teacher session and go to dashboard
-        setAuth({ role: "TEACHER", teacherId: teacher.id });
+      if (data.role === "TEACHER") {                             // Teacher session → teacher dashboard
+        setAuth({ role: "TEACHER", teacherId: data.userId, token: data.token });
         navigate(from || "/teacher", { replace: true });
-        return;
-      }
-
-      const student = students.find(s => (s.email || "").toLowerCase() === emailTrim); // Match student by email
-      if (student) {                                             // If found, set student session and go to dashboard
-        setAuth({ role: "STUDENT", studentId: student.id });
+      } else if (data.role === "STUDENT") {                      // Student session → student dashboard
+        setAuth({ role: "STUDENT", studentId: data.userId, token: data.token });
         navigate(from || "/student", { replace: true });
-        return;
+      } else {                                                   // Admin session → admin dashboard
+        setAuth({ role: "ADMIN", adminId: data.userId, token: data.token });
+        navigate(from || "/admin", { replace: true });
       }
-
-      // Fallback: treat as ADMIN (e.g., admin@school.edu, ops@school.edu)   // Default to admin if not matched
-      setAuth({ role: "ADMIN" });
-      navigate(from || "/admin", { replace: true });
-    } catch (err) {                                              // Network/API failure
+    } catch (err) {                                              // Bad credentials or network/API failure
       console.error(err);
-      setErrMsg("Login lookup failed. Please try again.");       // Show error
+      setErrMsg(err?.response?.status === 401
+        ? "Invalid email or password."                           // 401 from /auth/login
+        : "Login failed. Please try again.");                    // Show error
     } finally {
       setLoading(false);                                         // Stop loading
     }
@@ -78,7 +68,7 @@ export default function Login() {                                // Login page c
               type="password"
               className="auth-input"
               value={password}
-              onChange={(e) => setPassword(e.target.value)}       // Update password state (unused)
+              onChange={(e) => setPassword(e.target.value)}       // Update password state
               placeholder="••••••••"
             />
           </label>
@@ -7,8 +7,7 @@ import "../styles/dashboard.css";                                // Shared style
 export default function StudentDashboard() {
     const { studentId } = getAuth() || {};                       // Current student id (if logged in)
     const [studentName, setStudentName] = useState("");          // Display name for header
-    const [marks, setMarks] = useState([]);                      // Enrollment/marks list
-    const [classById, setClassById] = useState({});              // Map of classId -> className
+    const [marks, setMarks] = useState([]);                      // [{classId, className, mark}]
 
     // Pagination state
     const [page, setPage] = useState(1);                         // Current page
@@ -16,28 +15,28 @@ export default function StudentDashboard() {
 
     const navigate = useNavigate();                              // Router navigate helper
 
-    // Load marks + classes + own student record for name
+    // Load name + classes + marks in one call (browser revalidates via ETag → 304)
+    const [reloads, setReloads] = useState(0);                   // Bumped when the server pushes a change
     useEffect(() => {
         if (!studentId) return;                                  // Skip if no session
 
-        Promise.all([
-            api.get(`/students/${studentId}/marks`),             // Enrollment + marks
-            api.get("/admin/classes"),                           // Class names
-            api.get("/admin/students"),                          // Students list (to find my name)
-        ])
-            .then(([marksRes, classesRes, studentsRes]) => {
-                setMarks(marksRes.data || []);                   // Save marks
-                const map = {};                                  // Build id->name
-                (classesRes.data || []).forEach((c) => (map[c.id] = c.name));
-                setClassById(map);                               // Save mapping
-
-                const me =
-                    (studentsRes.data || []).find(               // Find my student record
-                        (s) => String(s.id) === String(studentId)
-                    ) || null;
-                if (me) setStudentName(me.name || `Student #${studentId}`); // Header name
+        api.get(`/students/${studentId}/dashboard`)
+            .then(({ data }) => {
+                setStudentName(data.name || `Student #${studentId}`); // Header name
+                setMarks(data.marks || []);                      // Save marks
             })
             .catch(console.error);                               // Log failures
+    }, [studentId, reloads]);
+
+    // Server push: re-fetch when a mark or enrollment of this student changes
+    // (instead of the student refreshing the page). EventSource reconnects by itself.
+    useEffect(() => {
+        if (!studentId) return;
+        const token = encodeURIComponent(getAuth()?.token || ""); // EventSource cannot send headers
+        const es = new EventSource(`/students/${studentId}/events?access_token=${token}`);
+        const reload = () => setReloads((n) => n + 1);
+        ["mark", "enrolled", "unenrolled"].forEach((t) => es.addEventListener(t, reload));
+        return () => es.close();                                 // Close the stream on unmount
     }, [studentId]);
 
     // Total pages based on data length and page size (at least 1)
@@ -116,16 +115,12 @@ export default function StudentDashboard() {
                                 </tr>
                             </thead>
                             <tbody>
-                                {pageMarks.map((e) => {              // render rows for current page
-                                    const cid = e.id.classId;         // enrollment's class id
-                                    const cname = classById[cid] || `Class #${cid}`; // resolve name
-                                    return (
-                                        <tr key={`${e.id.studentId}-${cid}`}>
-                                            <td>{cname}</td>
-                                            <td>{e.mark ?? "(none)"}</td>
-                                        </tr>
-                                    );
-                                })}
+                                {pageMarks.map((m) => (              // render rows for current page
+                                    <tr key={m.classId}>
+                                        <td>{m.className || `Class #${m.classId}`}</td>
+                                        <td>{m.mark ?? "(none)"}</td>
+                                    </tr>
+                                ))}
                             </tbody>
                         </table>
                     </div>
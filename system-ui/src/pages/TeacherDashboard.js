@@ -11,7 +11,6 @@ export default function TeacherDashboard() {
     const [students, setStudents] = useState([]);
     const [classId, setClassId] = useState("");
     const [className, setClassName] = useState("");
-    const [marksByStudent, setMarksByStudent] = useState({});
     const [loadingMarks, setLoadingMarks] = useState(false);
 
     // NEW: paging state
@@ -20,53 +19,44 @@ export default function TeacherDashboard() {
 
     const navigate = useNavigate();
 
+    // One request: class info + every student with their mark
+    const [reloads, setReloads] = useState(0); // Bumped when a student joins or leaves the class
     useEffect(() => {
         if (!teacherId) return;
+        let cancelled = false;
+        setLoadingMarks(true);
         api
-            .get(`/teachers/${teacherId}/students`)
-            .then((r) => setStudents(r.data))
-            .catch(console.error);
-
-        api
-            .get("/admin/teachers")
+            .get(`/teachers/${teacherId}/gradebook`)
             .then((r) => {
-                const me = (r.data || []).find((x) => x.id === teacherId);
-                if (me?.classroom?.id) {
-                    setClassId(me.classroom.id);
-                    setClassName(me.classroom.name || `Class #${me.classroom.id}`);
-                }
+                if (cancelled) return;
+                const gb = r.data || {};
+                setClassId(gb.classId ?? "");
+                setClassName(gb.className || (gb.classId ? `Class #${gb.classId}` : ""));
+                setStudents(gb.students || []);
             })
-            .catch(console.error);
-    }, [teacherId]);
-
-    useEffect(() => {
-        if (!classId || students.length === 0) return;
-        let cancelled = false;
-        (async () => {
-            setLoadingMarks(true);
-            try {
-                const entries = await Promise.all(
-                    students.map(async (s) => {
-                        try {
-                            const { data } = await api.get(`/students/${s.id}/marks`);
-                            const enr = (data || []).find(
-                                (e) => String(e.id.classId) === String(classId)
-                            );
-                            return [s.id, enr?.mark ?? null];
-                        } catch {
-                            return [s.id, null];
-                        }
-                    })
-                );
-                if (!cancelled) setMarksByStudent(Object.fromEntries(entries));
-            } finally {
+            .catch(console.error)
+            .finally(() => {
                 if (!cancelled) setLoadingMarks(false);
-            }
-        })();
+            });
         return () => {
             cancelled = true;
         };
-    }, [classId, students]);
+    }, [teacherId, reloads]);
+
+    // Server push: apply mark changes in place; re-fetch when the roster changes
+    useEffect(() => {
+        if (!teacherId) return;
+        const token = encodeURIComponent(getAuth()?.token || ""); // EventSource cannot send headers
+        const es = new EventSource(`/teachers/${teacherId}/events?access_token=${token}`);
+        es.addEventListener("mark", (ev) => {
+            const { studentId, mark } = JSON.parse(ev.data);
+            setStudents((list) => list.map((s) => (s.studentId === studentId ? { ...s, mark } : s)));
+        });
+        const reload = () => setReloads((n) => n + 1);
+        es.addEventListener("enrolled", reload);
+        es.addEventListener("unenrolled", reload);
+        return () => es.close();
+    }, [teacherId]);
 
     // ---- Pagination helpers ----
     const totalPages = Math.max(1, Math.ceil(students.length / pageSize));
@@ -144,23 +134,22 @@ export default function TeacherDashboard() {
                             </thead>
                             <tbody>
                                 {pageStudents.map((s) => {
-                                    const mark = marksByStudent[s.id];
                                     return (
-                                        <tr key={s.id}>
-                                            <td>{s.name}</td>
+                                        <tr key={s.studentId}>
+                                            <td>{s.studentName}</td>
                                             <td>{s.email}</td>
-                                            <td>{mark ?? "(none)"}</td>
+                                            <td>{s.mark ?? "(none)"}</td>
                                             <td>
                                                 {classId && (
                                                     <>
                                                         <Link
-                                                            to={`/teacher/classes/${classId}/students/${s.id}/enter-mark`}
+                                                            to={`/teacher/classes/${classId}/students/${s.studentId}/enter-mark`}
                                                         >
                                                             Enter mark
                                                         </Link>{" "}
                                                         |{" "}
                                                         <Link
-                                                            to={`/teacher/classes/${classId}/students/${s.id}/edit-mark`}
+                                                            to={`/teacher/classes/${classId}/students/${s.studentId}/edit-mark`}
                                                         >
                                                             Edit mark
                                                         </Link>
@@ -10,46 +10,54 @@ export default function TeacherEditMark() {
   const [mark, setMark] = useState("");                      // Controlled input for mark
   const [className, setClassName] = useState("");            // Pretty class name to show
   const [studentName, setStudentName] = useState("");        // Pretty student name to show
+  const [version, setVersion] = useState(null);              // Row version of the mark we are editing
+  const [error, setError] = useState("");                    // Save error shown above the form
   const nav = useNavigate();                                 // Navigate helper
 
-  // Load the existing mark for this (student,class) enrollment
-  useEffect(() => {
+  // Load the existing mark (and its version) for this (student,class) enrollment
+  const load = () =>
     api
-      .get(`/students/${studentId}/marks`)                   // fetch all enrollments for student
+      .get(`/teachers/${teacherId}/classes/${classId}/students/${studentId}/mark`) // one enrollment
       .then((r) => {
-        const enr = (r.data || []).find(                     // find the one for this class
-          (e) => String(e.id.classId) === String(classId)
-        );
-        if (enr?.mark) setMark(enr.mark);                    // prefill the input if a mark exists
+        setMark(r.data?.mark || "");                         // prefill the input if a mark exists
+        setVersion(r.data?.version ?? null);                 // remember which version we edit
       })
       .catch(console.error);                                 // log errors
-  }, [classId, studentId]);
 
-  // Fetch human-readable names for the header (class + student)
   useEffect(() => {
-    // Class name via the teacher record (which contains classroom embedding)
-    api.get("/admin/teachers").then(r => {
-      const me = (r.data || []).find(t => t.id === teacherId); // find current teacher
-      if (me?.classroom) {
-        setClassName(me.classroom.name || `Class #${me.classroom.id}`); // set nice name
-      }
-    }).catch(console.error);
+    load();
+  }, [teacherId, classId, studentId]); // eslint-disable-line react-hooks/exhaustive-deps
 
-    // Student name from the students list
-    api.get("/admin/students").then(r => {
-      const s = (r.data || []).find(x => String(x.id) === String(studentId)); // find student
-      if (s) setStudentName(s.name || `Student #${s.id}`);  // set nice name
+  // Fetch human-readable names for the header (class + student) from the
+  // teacher's own gradebook rather than the school-wide admin lists
+  useEffect(() => {
+    api.get(`/teachers/${teacherId}/gradebook`).then(r => {
+      const gb = r.data || {};
+      setClassName(gb.className || (gb.classId ? `Class #${gb.classId}` : "")); // set nice name
+      const s = (gb.students || []).find(x => String(x.studentId) === String(studentId)); // find student
+      if (s) setStudentName(s.studentName || `Student #${s.studentId}`); // set nice name
     }).catch(console.error);
   }, [teacherId, studentId]);
 
-  // Submit updated mark to backend and return to dashboard
+  // Submit updated mark to backend and return to dashboard. If-Match makes the
+  // save fail (412) when someone else changed the mark after we loaded it.
   const save = async (e) => {
     e.preventDefault();                                      // stop page reload
-    await api.put(
-      `/teachers/${teacherId}/classes/${classId}/students/${studentId}/mark`, // endpoint
-      { mark }                                               // body payload
-    );
-    nav("/teacher");                                         // back to teacher dashboard
+    try {
+      await api.put(
+        `/teachers/${teacherId}/classes/${classId}/students/${studentId}/mark`, // endpoint
+        { mark },                                            // body payload
+        version == null ? {} : { headers: { "If-Match": `"${version}"` } } // only overwrite what we saw
+      );
+      nav("/teacher");                                       // back to teacher dashboard
+    } catch (err) {
+      if (err.response?.status === 412) {                   // stale: show the current mark instead
+        setError("This mark was changed by someone else. The latest value has been loaded.");
+        load();
+      } else {
+        console.error(err);
+      }
+    }
   };
 
   return (
@@ -71,6 +79,8 @@ export default function TeacherEditMark() {
             {className || `Class #${classId}`} — {studentName || `Student #${studentId}`}
           </div>
 
+          {error && <div style={{ color: "#b91c1c", marginBottom: 8 }}>{error}</div>}
+
           {/* Form for editing the mark */}
           <form className="grid" style={{ gap: 12 }} onSubmit={save}>
             <input
@@ -2,7 +2,7 @@ const { createProxyMiddleware } = require('http-proxy-middleware');
 
 module.exports = function (app) {
   app.use(
-    ['/admin', '/teachers', '/students'],
+    ['/admin', '/teachers', '/students', '/auth'],
     createProxyMiddleware({
       target: 'http://localhost:8081',
       changeOrigin: true,